@@ -0,0 +1,52 @@
+package com.relatia.notification_service.benchmark;
+
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    private static final Notification.NotificationType[] TYPES = Notification.NotificationType.values();
+
+    private BenchmarkData() {
+    }
+
+    static Notification notification(long id) {
+        return Notification.builder()
+                .id(id)
+                .title("Invoice #" + id + " is ready")
+                .message("Your invoice #" + id + " for the period ending 31 December is ready to download.")
+                .recipientId(1000L + id % 100)
+                .read(id % 3 == 0)
+                .type(TYPES[(int) (id % TYPES.length)])
+                .createdAt(CREATED_AT.plusSeconds(id))
+                .updatedAt(CREATED_AT.plusSeconds(id))
+                .version(0L)
+                .build();
+    }
+
+    static List<Notification> notifications(int size) {
+        List<Notification> notifications = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            notifications.add(notification(id));
+        }
+        return notifications;
+    }
+
+    static NotificationRequest request(long recipientId) {
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle("Meeting reminder");
+        request.setMessage("Your meeting with the account team starts in 15 minutes.");
+        request.setRecipientId(recipientId);
+        request.setType(Notification.NotificationType.PUSH);
+        return request;
+    }
+}
@@ -0,0 +1,74 @@
+package com.relatia.notification_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.ingest.NotificationIngestListener;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained ingest throughput in messages per second: batches of queued notification requests are
+ * parsed, stored in one transaction each against the embedded H2 database and acknowledged. The
+ * broker is replaced by a channel stub, so the score is the consumer's own ceiling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(3)
+public class NotificationIngestBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private NotificationIngestListener listener;
+    private Channel channel;
+    private List<Message> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(NotificationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark");
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        listener = new NotificationIngestListener(context.getBean(NotificationService.class),
+                context.getBean(TenantRegistry.class), context.getBean(NotificationProperties.class), objectMapper,
+                new SimpleMeterRegistry());
+        channel = Mockito.mock(Channel.class, Mockito.withSettings().stubOnly());
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(MessageBuilder.withBody(objectMapper.writeValueAsBytes(BenchmarkData.request(i)))
+                    .andProperties(MessagePropertiesBuilder.newInstance().setDeliveryTag(i + 1L).build())
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void ingestBatch() throws IOException {
+        listener.onMessages(batch, channel);
+    }
+}
@@ -0,0 +1,54 @@
+package com.relatia.notification_service.benchmark;
+
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationMapper;
+import com.relatia.notification_service.notification.NotificationResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping, for a single notification and for lists of increasing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(3)
+public class NotificationMapperBenchmark {
+
+    private final NotificationMapper mapper = new NotificationMapper();
+
+    private Notification notification;
+
+    @State(Scope.Benchmark)
+    public static class Entities {
+
+        @Param({"10", "1000", "100000"})
+        private int size;
+
+        private List<Notification> notifications;
+
+        @Setup
+        public void setUp() {
+            notifications = BenchmarkData.notifications(size);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        notification = BenchmarkData.notification(42);
+    }
+
+    @Benchmark
+    public NotificationResponse toResponse() {
+        return mapper.toResponse(notification);
+    }
+
+    @Benchmark
+    public List<NotificationResponse> toResponseList(Entities entities) {
+        return mapper.toResponseList(entities.notifications);
+    }
+}
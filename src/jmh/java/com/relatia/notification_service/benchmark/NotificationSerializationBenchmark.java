@@ -0,0 +1,73 @@
+package com.relatia.notification_service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.relatia.notification_service.notification.NotificationCursor;
+import com.relatia.notification_service.notification.NotificationMapper;
+import com.relatia.notification_service.notification.NotificationPage;
+import com.relatia.notification_service.notification.NotificationResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of API responses, using an ObjectMapper configured the way Spring MVC configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(3)
+public class NotificationSerializationBenchmark {
+
+    private final NotificationMapper mapper = new NotificationMapper();
+
+    private ObjectWriter writer;
+    private NotificationResponse response;
+
+    @State(Scope.Benchmark)
+    public static class Responses {
+
+        @Param({"10", "1000"})
+        private int size;
+
+        private List<NotificationResponse> responses;
+        private NotificationPage page;
+
+        @Setup
+        public void setUp(NotificationSerializationBenchmark benchmark) {
+            responses = benchmark.mapper.toResponseList(BenchmarkData.notifications(size));
+            page = NotificationPage.builder()
+                    .items(responses)
+                    .nextCursor(NotificationCursor.after(responses.get(responses.size() - 1)).encode())
+                    .hasMore(true)
+                    .build();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        response = mapper.toResponse(BenchmarkData.notification(42));
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] writeResponseList(Responses responses) throws JsonProcessingException {
+        return writer.writeValueAsBytes(responses.responses);
+    }
+
+    @Benchmark
+    public byte[] writePage(Responses responses) throws JsonProcessingException {
+        return writer.writeValueAsBytes(responses.page);
+    }
+}
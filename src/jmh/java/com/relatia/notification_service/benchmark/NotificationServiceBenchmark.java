@@ -0,0 +1,82 @@
+package com.relatia.notification_service.benchmark;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.notification.NotificationBatchRequest;
+import com.relatia.notification_service.notification.NotificationPage;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.notification.NotificationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls against the embedded H2 database, through the full Spring context
+ * (transactions, Flyway schema, Hibernate batching and the unread count cache).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(3)
+public class NotificationServiceBenchmark {
+
+    private static final long RECIPIENT_ID = 1L;
+    private static final int SEEDED_NOTIFICATIONS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(NotificationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=benchmark");
+        notificationService = context.getBean(NotificationService.class);
+
+        NotificationBatchRequest seed = new NotificationBatchRequest();
+        seed.setTemplate(BenchmarkData.request(RECIPIENT_ID));
+        seed.setRecipientIds(Collections.nCopies(SEEDED_NOTIFICATIONS, RECIPIENT_ID));
+        notificationService.createNotifications(seed);
+        secondPageCursor = notificationService.getNotificationPage(RECIPIENT_ID, false, null, 20).getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NotificationPage firstPage() {
+        return notificationService.getNotificationPage(RECIPIENT_ID, false, null, 20);
+    }
+
+    @Benchmark
+    public NotificationPage nextPage() {
+        return notificationService.getNotificationPage(RECIPIENT_ID, false, secondPageCursor, 20);
+    }
+
+    @Benchmark
+    public long unreadCount() {
+        return notificationService.getUnreadCount(RECIPIENT_ID);
+    }
+
+    @Benchmark
+    public List<NotificationResponse> listUnread() {
+        return notificationService.getUnreadNotifications(RECIPIENT_ID);
+    }
+
+    /**
+     * Writes to a separate recipient so the read benchmarks keep a fixed data set.
+     */
+    @Benchmark
+    public NotificationResponse createNotification() {
+        return notificationService.createNotification(BenchmarkData.request(RECIPIENT_ID + 1));
+    }
+}
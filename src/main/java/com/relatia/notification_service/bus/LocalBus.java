@@ -0,0 +1,57 @@
+package com.relatia.notification_service.bus;
+
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stand-in for the message broker behind Spring Cloud Bus.
+ * Every registered node receives every event, including its own, exactly like a fan-out
+ * exchange; the bus consumer on each node then filters by origin and destination.
+ */
+public class LocalBus {
+
+    private static final LocalBus SHARED = new LocalBus();
+
+    private final List<Consumer<RemoteApplicationEvent>> nodes = new CopyOnWriteArrayList<>();
+
+    /**
+     * The bus shared by all application contexts in this JVM.
+     *
+     * @return the shared bus
+     */
+    public static LocalBus shared() {
+        return SHARED;
+    }
+
+    /**
+     * Attach a node's inbound bus consumer.
+     *
+     * @param node receives every event sent on the bus
+     */
+    public void register(Consumer<RemoteApplicationEvent> node) {
+        nodes.add(node);
+    }
+
+    /**
+     * Detach a previously registered node.
+     *
+     * @param node the node to remove
+     */
+    public void unregister(Consumer<RemoteApplicationEvent> node) {
+        nodes.remove(node);
+    }
+
+    /**
+     * Deliver an event to every registered node.
+     *
+     * @param event the event to deliver
+     */
+    public void send(RemoteApplicationEvent event) {
+        for (Consumer<RemoteApplicationEvent> node : nodes) {
+            node.accept(event);
+        }
+    }
+}
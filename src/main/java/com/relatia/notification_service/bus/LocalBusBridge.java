@@ -0,0 +1,33 @@
+package com.relatia.notification_service.bus;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.bus.BusBridge;
+import org.springframework.cloud.bus.BusConsumer;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+/**
+ * {@link BusBridge} that sends bus events through a {@link LocalBus} instead of the broker.
+ * The node's own {@link BusConsumer} is registered on the bus so it receives events from every
+ * node in the JVM, which makes multi-node cache invalidation testable without RabbitMQ.
+ */
+public class LocalBusBridge implements BusBridge, DisposableBean {
+
+    private final LocalBus localBus;
+    private final BusConsumer busConsumer;
+
+    public LocalBusBridge(LocalBus localBus, BusConsumer busConsumer) {
+        this.localBus = localBus;
+        this.busConsumer = busConsumer;
+        localBus.register(busConsumer);
+    }
+
+    @Override
+    public void send(RemoteApplicationEvent event) {
+        localBus.send(event);
+    }
+
+    @Override
+    public void destroy() {
+        localBus.unregister(busConsumer);
+    }
+}
@@ -0,0 +1,24 @@
+package com.relatia.notification_service.bus;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.bus.BusConsumer;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the notification bus events and, when {@code notification.bus.local-binder} is set,
+ * replaces the broker-backed bus bridge with the in-memory {@link LocalBusBridge}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBusEnabled
+@RemoteApplicationEventScan(basePackageClasses = NotificationBusEvent.class)
+public class NotificationBusConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "notification.bus", name = "local-binder", havingValue = "true")
+    public LocalBusBridge localBusBridge(BusConsumer busConsumer) {
+        return new LocalBusBridge(LocalBus.shared(), busConsumer);
+    }
+}
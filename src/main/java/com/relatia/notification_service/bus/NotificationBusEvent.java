@@ -0,0 +1,46 @@
+package com.relatia.notification_service.bus;
+
+import com.relatia.notification_service.notification.RemoteChangeListener;
+import lombok.Getter;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * Base class of the notification events sent over Spring Cloud Bus.
+ * Each event carries the recipients whose notifications changed on the originating node since
+ * its last flush, and the notifications that changed, so one message invalidates many recipients.
+ * All recipients of an event belong to the same tenant; events from nodes that predate tenancy
+ * carry none and concern the default tenant, and events from nodes that predate notification IDs
+ * carry none of those.
+ */
+@Getter
+public abstract class NotificationBusEvent extends RemoteApplicationEvent {
+
+    private String tenantId;
+
+    private Set<Long> recipientIds;
+
+    private Set<Long> notificationIds;
+
+    /**
+     * Constructor used for deserialization.
+     */
+    protected NotificationBusEvent() {
+    }
+
+    protected NotificationBusEvent(Object source, String originService, String tenantId, Set<Long> recipientIds,
+                                   Set<Long> notificationIds) {
+        super(source, originService);
+        this.tenantId = tenantId;
+        this.recipientIds = recipientIds;
+        this.notificationIds = notificationIds;
+    }
+
+    /**
+     * Report this change to a listener on the receiving node.
+     *
+     * @param listener the listener
+     */
+    abstract void applyTo(RemoteChangeListener listener);
+}
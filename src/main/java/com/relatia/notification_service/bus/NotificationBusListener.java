@@ -0,0 +1,52 @@
+package com.relatia.notification_service.bus;
+
+import com.relatia.notification_service.notification.RecipientScopedCache;
+import com.relatia.notification_service.notification.RemoteChangeListener;
+import com.relatia.notification_service.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies notification changes reported by other nodes to this node's caches.
+ * Events sent by this node are ignored, since its caches were already updated locally.
+ * Caches are evicted as the tenant the event concerns: recipient-scoped caches once per recipient,
+ * then each {@link RemoteChangeListener} once per event.
+ */
+@Slf4j
+@Component
+@ConditionalOnBusEnabled
+@RequiredArgsConstructor
+public class NotificationBusListener {
+
+    private final ServiceMatcher serviceMatcher;
+    private final List<RecipientScopedCache> caches;
+    private final List<RemoteChangeListener> changeListeners;
+
+    @EventListener
+    public void onNotificationBusEvent(NotificationBusEvent event) {
+        if (serviceMatcher.isFromSelf(event)) {
+            return;
+        }
+        Set<Long> recipientIds = event.getRecipientIds() != null ? event.getRecipientIds() : Set.of();
+        String tenantId = event.getTenantId() != null ? event.getTenantId() : TenantContext.DEFAULT_TENANT;
+        log.debug("Evicting {} recipients of {} after {} from {}", recipientIds.size(), tenantId,
+            event.getClass().getSimpleName(), event.getOriginService());
+        TenantContext.runAs(tenantId, () -> {
+            for (Long recipientId : recipientIds) {
+                for (RecipientScopedCache cache : caches) {
+                    cache.evict(recipientId);
+                }
+            }
+            for (RemoteChangeListener listener : changeListeners) {
+                event.applyTo(listener);
+            }
+        });
+    }
+}
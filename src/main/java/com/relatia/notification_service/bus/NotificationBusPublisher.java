@@ -0,0 +1,198 @@
+package com.relatia.notification_service.bus;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.NotificationCreatedEvent;
+import com.relatia.notification_service.notification.NotificationDeletedEvent;
+import com.relatia.notification_service.notification.NotificationMergedEvent;
+import com.relatia.notification_service.notification.NotificationsCreatedEvent;
+import com.relatia.notification_service.notification.NotificationsPurgedEvent;
+import com.relatia.notification_service.notification.NotificationsReadEvent;
+import com.relatia.notification_service.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.bus.ConditionalOnBusEnabled;
+import org.springframework.cloud.bus.ServiceMatcher;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Announces committed notification changes to the other nodes over Spring Cloud Bus.
+ * Changed recipients and notifications are collected per kind of change and flushed periodically,
+ * so a burst of writes for the same recipient results in a single invalidation per flush interval
+ * rather than one bus message per write. Changes are collected per tenant, the tenant of the
+ * transaction that made them, and each bus event carries the changes of one tenant.
+ */
+@Slf4j
+@Component
+@ConditionalOnBusEnabled
+public class NotificationBusPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final ServiceMatcher serviceMatcher;
+    private final int maxIdsPerEvent;
+
+    private final ConcurrentMap<String, PendingChanges> created = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PendingChanges> read = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PendingChanges> deleted = new ConcurrentHashMap<>();
+
+    public NotificationBusPublisher(ApplicationEventPublisher eventPublisher,
+                                    ServiceMatcher serviceMatcher,
+                                    NotificationProperties notificationProperties) {
+        this.eventPublisher = eventPublisher;
+        this.serviceMatcher = serviceMatcher;
+        this.maxIdsPerEvent = notificationProperties.getBus().getMaxRecipientsPerEvent();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onCreated(NotificationCreatedEvent event) {
+        pending(created).add(event.notification().getRecipientId(), event.notification().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onMerged(NotificationMergedEvent event) {
+        pending(created).add(event.notification().getRecipientId(), event.notification().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBulkCreated(NotificationsCreatedEvent event) {
+        PendingChanges pending = pending(created);
+        event.countsByRecipient().keySet().forEach(recipientId -> pending.addAll(recipientId, List.of()));
+        event.notifications().forEach(notification -> pending.add(notification.getRecipientId(), notification.getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onRead(NotificationsReadEvent event) {
+        PendingChanges pending = pending(read);
+        if (event.idsByRecipient() == null) {
+            pending.untrackedRecipientIds.addAll(event.countsByRecipient().keySet());
+        } else {
+            event.idsByRecipient().forEach(pending::addAll);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onDeleted(NotificationDeletedEvent event) {
+        pending(deleted).add(event.recipientId(), event.id());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onPurged(NotificationsPurgedEvent event) {
+        PendingChanges pending = pending(deleted);
+        event.idsByRecipient().forEach(pending::addAll);
+    }
+
+    /**
+     * Send the bus events of each kind of change and tenant for everything collected since the last flush.
+     */
+    @Scheduled(fixedDelayString = "${notification.bus.flush-interval:250ms}")
+    public void flush() {
+        drain(created, Kind.CREATED);
+        drain(read, Kind.READ);
+        drain(deleted, Kind.DELETED);
+    }
+
+    private static PendingChanges pending(ConcurrentMap<String, PendingChanges> byTenant) {
+        return byTenant.computeIfAbsent(TenantContext.getTenantId(), tenantId -> new PendingChanges());
+    }
+
+    private void drain(ConcurrentMap<String, PendingChanges> byTenant, Kind kind) {
+        // Emptied changes are kept for reuse; there is at most one per tenant
+        byTenant.forEach((tenantId, pending) -> drain(tenantId, pending, kind));
+    }
+
+    /**
+     * Send a tenant's changes in events of at most {@code maxIdsPerEvent} recipients and notifications.
+     * Each event carries the recipients of all its notifications, since receivers only act on
+     * notifications of the recipients they are told about; a recipient with more notifications than
+     * fit in one event is repeated in the following ones. Recipients whose changed notifications are
+     * not known are sent in events without notification IDs, which receivers treat as "any of them".
+     */
+    private void drain(String tenantId, PendingChanges pending, Kind kind) {
+        Iterator<Long> untracked = pending.untrackedRecipientIds.iterator();
+        while (untracked.hasNext()) {
+            Set<Long> recipientIds = new LinkedHashSet<>();
+            while (recipientIds.size() < maxIdsPerEvent && untracked.hasNext()) {
+                recipientIds.add(untracked.next());
+                untracked.remove();
+            }
+            send(kind, tenantId, recipientIds, null);
+        }
+
+        Set<Long> recipientIds = new LinkedHashSet<>();
+        Set<Long> notificationIds = new LinkedHashSet<>();
+        for (Long recipientId : pending.idsByRecipient.keySet()) {
+            // A recipient changed again after its removal is picked up by the next flush
+            Set<Long> ids = pending.idsByRecipient.remove(recipientId);
+            if (ids == null) {
+                continue;
+            }
+            Iterator<Long> iterator = ids.iterator();
+            do {
+                if (recipientIds.size() == maxIdsPerEvent || notificationIds.size() == maxIdsPerEvent) {
+                    send(kind, tenantId, recipientIds, notificationIds);
+                    recipientIds = new LinkedHashSet<>();
+                    notificationIds = new LinkedHashSet<>();
+                }
+                recipientIds.add(recipientId);
+                while (notificationIds.size() < maxIdsPerEvent && iterator.hasNext()) {
+                    notificationIds.add(iterator.next());
+                }
+            } while (iterator.hasNext());
+        }
+        if (!recipientIds.isEmpty()) {
+            send(kind, tenantId, recipientIds, notificationIds);
+        }
+    }
+
+    private void send(Kind kind, String tenantId, Set<Long> recipientIds, Set<Long> notificationIds) {
+        String origin = serviceMatcher.getBusId();
+        NotificationBusEvent event = switch (kind) {
+            case CREATED -> new NotificationCreatedBusEvent(this, origin, tenantId, recipientIds, notificationIds);
+            case READ -> new NotificationReadBusEvent(this, origin, tenantId, recipientIds, notificationIds);
+            case DELETED -> new NotificationDeletedBusEvent(this, origin, tenantId, recipientIds, notificationIds);
+        };
+        log.debug("Publishing {} for {} recipients and {} notifications of {}", event.getClass().getSimpleName(),
+            recipientIds.size(), notificationIds != null ? notificationIds.size() : "any", tenantId);
+        eventPublisher.publishEvent(event);
+    }
+
+    /**
+     * Notifications of one tenant changed since the last flush, per recipient, and the recipients
+     * any of whose notifications may have changed.
+     * A recipient's set is only changed inside {@code compute}, so once {@link #drain} has removed
+     * it no later change can land in it.
+     */
+    private static final class PendingChanges {
+
+        final ConcurrentMap<Long, Set<Long>> idsByRecipient = new ConcurrentHashMap<>();
+        final Set<Long> untrackedRecipientIds = ConcurrentHashMap.newKeySet();
+
+        void add(Long recipientId, Long notificationId) {
+            addAll(recipientId, List.of(notificationId));
+        }
+
+        void addAll(Long recipientId, Collection<Long> notificationIds) {
+            idsByRecipient.compute(recipientId, (key, ids) -> {
+                Set<Long> changed = ids == null ? new HashSet<>() : ids;
+                changed.addAll(notificationIds);
+                return changed;
+            });
+        }
+    }
+
+    private enum Kind {
+        CREATED,
+        READ,
+        DELETED
+    }
+}
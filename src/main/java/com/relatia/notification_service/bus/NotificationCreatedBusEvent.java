@@ -0,0 +1,28 @@
+package com.relatia.notification_service.bus;
+
+import com.relatia.notification_service.notification.RemoteChangeListener;
+
+import java.util.Set;
+
+/**
+ * Bus event announcing that notifications were created for the given recipients, or had a repeat
+ * merged into them.
+ */
+public class NotificationCreatedBusEvent extends NotificationBusEvent {
+
+    /**
+     * Constructor used for deserialization.
+     */
+    public NotificationCreatedBusEvent() {
+    }
+
+    public NotificationCreatedBusEvent(Object source, String originService, String tenantId, Set<Long> recipientIds,
+                                      Set<Long> notificationIds) {
+        super(source, originService, tenantId, recipientIds, notificationIds);
+    }
+
+    @Override
+    void applyTo(RemoteChangeListener listener) {
+        listener.onRemoteCreated(getRecipientIds(), getNotificationIds());
+    }
+}
@@ -0,0 +1,27 @@
+package com.relatia.notification_service.bus;
+
+import com.relatia.notification_service.notification.RemoteChangeListener;
+
+import java.util.Set;
+
+/**
+ * Bus event announcing that notifications were deleted for the given recipients.
+ */
+public class NotificationDeletedBusEvent extends NotificationBusEvent {
+
+    /**
+     * Constructor used for deserialization.
+     */
+    public NotificationDeletedBusEvent() {
+    }
+
+    public NotificationDeletedBusEvent(Object source, String originService, String tenantId, Set<Long> recipientIds,
+                                      Set<Long> notificationIds) {
+        super(source, originService, tenantId, recipientIds, notificationIds);
+    }
+
+    @Override
+    void applyTo(RemoteChangeListener listener) {
+        listener.onRemoteDeleted(getRecipientIds(), getNotificationIds());
+    }
+}
@@ -0,0 +1,21 @@
+package com.relatia.notification_service.config;
+
+import javax.sql.DataSource;
+import java.util.function.UnaryOperator;
+
+/**
+ * Builds data sources that route connections the way the application data source does, over
+ * decorated versions of the underlying pools. A decorator sees the physical connection of the pool
+ * the routing picked, so it can prepare it without forcing the routing decision early.
+ */
+@FunctionalInterface
+public interface DataSourceRouter {
+
+    /**
+     * Route over the application's pools, each wrapped by the decorator.
+     *
+     * @param decorator wraps each pool
+     * @return a data source routing between the wrapped pools
+     */
+    DataSource route(UnaryOperator<DataSource> decorator);
+}
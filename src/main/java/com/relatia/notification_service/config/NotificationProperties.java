@@ -0,0 +1,425 @@
+package com.relatia.notification_service.config;
+
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.notification.Notification;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tunables for the notification feature, bound from the {@code notification.*} namespace.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "notification")
+public class NotificationProperties {
+
+    @Valid
+    private Pagination pagination = new Pagination();
+
+    @Valid
+    private Batch batch = new Batch();
+
+    @Valid
+    private BulkImport bulkImport = new BulkImport();
+
+    @Valid
+    private UnreadCountCache unreadCountCache = new UnreadCountCache();
+
+    @Valid
+    private Bus bus = new Bus();
+
+    @Valid
+    private Delivery delivery = new Delivery();
+
+    @Valid
+    private Push push = new Push();
+
+    @Valid
+    private Retention retention = new Retention();
+
+    @Valid
+    private Coalescing coalescing = new Coalescing();
+
+    @Valid
+    private RateLimit rateLimit = new RateLimit();
+
+    @Valid
+    private Idempotency idempotency = new Idempotency();
+
+    @Valid
+    private Templates templates = new Templates();
+
+    @Valid
+    private Ingest ingest = new Ingest();
+
+    @Valid
+    private Tenancy tenancy = new Tenancy();
+
+    @Valid
+    private Search search = new Search();
+
+    @Getter
+    @Setter
+    public static class Pagination {
+        /** Page size used when the client does not ask for one */
+        @Min(value = 1, message = "Default page size must be at least 1")
+        private int defaultLimit = 20;
+
+        /** Upper bound applied to client supplied page sizes */
+        @Min(value = 1, message = "Maximum page size must be at least 1")
+        private int maxLimit = 100;
+
+        /** Number of message characters returned by list endpoints in summary mode */
+        @Min(value = 0, message = "Summary message length must not be negative")
+        private int summaryMessageLength = 140;
+
+        /**
+         * @param summary whether messages are cut to the summary length
+         * @return the number of message characters to return
+         */
+        public int messageLength(boolean summary) {
+            return summary ? summaryMessageLength : Integer.MAX_VALUE;
+        }
+
+        /**
+         * Resolve a client supplied page size.
+         *
+         * @param limit the requested page size, or {@code null} for the default
+         * @return the page size, capped at the maximum
+         * @throws BadRequestException if the page size is less than 1
+         */
+        public int resolveLimit(Integer limit) {
+            if (limit == null) {
+                return defaultLimit;
+            }
+            if (limit < 1) {
+                throw new BadRequestException("Limit must be at least 1");
+            }
+            return Math.min(limit, maxLimit);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /** Maximum number of notifications accepted in a single batch request */
+        @Min(value = 1, message = "Maximum batch size must be at least 1")
+        private int maxSize = 100_000;
+
+        /** Number of entities persisted between flushes of the persistence context */
+        @Min(value = 1, message = "Batch chunk size must be at least 1")
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class BulkImport {
+        /** Number of lines committed per transaction */
+        @Min(value = 1, message = "Import chunk size must be at least 1")
+        private int chunkSize = 1_000;
+
+        /** Maximum number of rejected lines listed individually in the import summary */
+        @Min(value = 0, message = "Reported rejections must not be negative")
+        private int maxReportedRejections = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class UnreadCountCache {
+        /** Maximum number of recipients per tenant whose unread count is kept in memory */
+        @Min(value = 1, message = "Unread count cache size must be at least 1")
+        private long maximumSize = 100_000;
+
+        /** Age after which a cached count is reloaded from the database, bounding any drift */
+        @NotNull(message = "Unread count cache expiry is required")
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Bus {
+        /** How often pending cache invalidations are coalesced and sent over the bus */
+        @NotNull(message = "Bus flush interval is required")
+        private Duration flushInterval = Duration.ofMillis(250);
+
+        /** Maximum number of recipient IDs, and of notification IDs, carried by a single bus event */
+        @Min(value = 1, message = "Recipients per bus event must be at least 1")
+        private int maxRecipientsPerEvent = 1_000;
+
+        /** Deliver bus events in-process instead of through the message broker */
+        private boolean localBinder = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Delivery {
+        /** Whether due outbox entries are picked up and sent by this node */
+        private boolean enabled = true;
+
+        /** Delay between two scans of the outbox for due deliveries */
+        @NotNull(message = "Delivery poll interval is required")
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /** Maximum number of deliveries claimed per channel and scan */
+        @Min(value = 1, message = "Delivery batch size must be at least 1")
+        private int batchSize = 100;
+
+        /** Attempts after which a delivery is given up and the notification marked as failed */
+        @Min(value = 1, message = "Delivery attempts must be at least 1")
+        private int maxAttempts = 5;
+
+        /** Delay before the first retry; doubled for each further attempt */
+        @NotNull(message = "Delivery retry backoff is required")
+        private Duration retryBackoff = Duration.ofSeconds(10);
+
+        /** Time a claimed delivery is reserved for the claiming node before others may retry it */
+        @NotNull(message = "Delivery lease is required")
+        private Duration lease = Duration.ofMinutes(5);
+
+        /** Worker pool used for every channel without an entry in {@code channels} */
+        @Valid
+        private ChannelPool pool = new ChannelPool();
+
+        /** Per-channel worker pool overrides */
+        @Valid
+        private Map<Notification.NotificationType, ChannelPool> channels = new EnumMap<>(Notification.NotificationType.class);
+
+        public ChannelPool poolFor(Notification.NotificationType channel) {
+            return channels.getOrDefault(channel, pool);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Push {
+        /** Time after which an open event stream is closed; clients reconnect with Last-Event-ID */
+        @NotNull(message = "Push stream timeout is required")
+        private Duration timeout = Duration.ofMinutes(30);
+
+        /** Interval of the keep-alive comments sent on idle streams */
+        @NotNull(message = "Push heartbeat interval is required")
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /** Events queued per connection; a client that falls further behind is disconnected */
+        @Min(value = 1, message = "Push queue capacity must be at least 1")
+        private int queueCapacity = 64;
+
+        /** Number of threads writing events to the open streams */
+        @Min(value = 1, message = "Push sender threads must be at least 1")
+        private int senderThreads = 4;
+
+        /** Recent events kept per recipient for replay after a reconnect */
+        @Min(value = 1, message = "Push replay size must be at least 1")
+        private int replaySize = 100;
+
+        /** How long recent events are kept after the recipient's last connection or event */
+        @NotNull(message = "Push replay retention is required")
+        private Duration replayRetention = Duration.ofMinutes(5);
+
+        /** Maximum number of recipients per tenant whose recent events are kept */
+        @Min(value = 1, message = "Push replay recipients must be at least 1")
+        private long maxReplayRecipients = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Retention {
+        /** Whether this node runs the scheduled purge */
+        private boolean enabled = false;
+
+        /** When the scheduled purge runs */
+        @NotNull(message = "Retention schedule is required")
+        private String cron = "0 0 3 * * *";
+
+        /** Whether expired notifications are copied to the archive table or only deleted */
+        @NotNull(message = "Retention mode is required")
+        private RetentionMode mode = RetentionMode.ARCHIVE;
+
+        /** Number of notifications removed per transaction */
+        @Min(value = 1, message = "Retention chunk size must be at least 1")
+        private int chunkSize = 1_000;
+
+        /** Rule for every notification type without an entry in {@code types} */
+        @Valid
+        private RetentionRule defaults = new RetentionRule();
+
+        /** Per-type rule overrides */
+        @Valid
+        private Map<Notification.NotificationType, RetentionRule> types = new EnumMap<>(Notification.NotificationType.class);
+
+        public RetentionRule ruleFor(Notification.NotificationType type) {
+            return types.getOrDefault(type, defaults);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class RetentionRule {
+        /** Age after which read notifications expire; unset keeps them */
+        private Duration readOlderThan = Duration.ofDays(90);
+
+        /** Age after which unread notifications expire; unset keeps them */
+        private Duration unreadOlderThan;
+    }
+
+    public enum RetentionMode {
+        ARCHIVE,
+        DELETE
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+        /** Whether notifications with a dedup key are merged into an earlier unread one */
+        private boolean enabled = true;
+
+        /** Age of the earlier notification up to which repeats are merged into it */
+        @NotNull(message = "Coalescing window is required")
+        private Duration window = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        /** Whether notifications created one by one are rate limited per recipient */
+        private boolean enabled = true;
+
+        /** Burst size: notifications a recipient can receive at once after being quiet */
+        @Min(value = 1, message = "Rate limit capacity must be at least 1")
+        private int capacity = 30;
+
+        /** Sustained rate at which a recipient's allowance refills */
+        @Min(value = 1, message = "Rate limit refill must be at least 1 per minute")
+        private int refillPerMinute = 60;
+
+        /** Number of independently locked partitions per tenant; rounded up to a power of two */
+        @Min(value = 1, message = "Rate limit stripes must be at least 1")
+        private int stripes = 64;
+
+        /** Recipients tracked per partition before the least recently refilled are forgotten; rounded up to a power of two */
+        @Min(value = 8, message = "Rate limit slots per stripe must be at least 8")
+        private int slotsPerStripe = 1_024;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        /** How long a replay with the same Idempotency-Key returns the original notification */
+        @NotNull(message = "Idempotency key time to live is required")
+        private Duration timeToLive = Duration.ofHours(24);
+
+        /** Maximum number of recently used keys kept in memory per tenant; older keys are looked up in the database */
+        @Min(value = 1, message = "Idempotency cache size must be at least 1")
+        private long maximumSize = 10_000;
+
+        /** How often expired keys are deleted from the database */
+        @NotNull(message = "Idempotency cleanup interval is required")
+        private Duration cleanupInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Templates {
+        /** Maximum number of compiled templates kept in memory per tenant */
+        @Min(value = 1, message = "Template cache size must be at least 1")
+        private long maximumSize = 1_000;
+
+        /** Age after which a compiled template is reloaded, bounding how long other nodes serve an edited one */
+        @NotNull(message = "Template cache expiry is required")
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Ingest {
+        /** Whether notification requests are consumed from the ingest queue */
+        private boolean enabled = false;
+
+        /** Queue upstream services publish notification requests to, one JSON object per message */
+        @NotBlank(message = "Ingest queue is required")
+        private String queue = "notification.ingest";
+
+        /** Queue that malformed or invalid messages are dead-lettered to */
+        @NotBlank(message = "Ingest dead-letter queue is required")
+        private String deadLetterQueue = "notification.ingest.dlq";
+
+        /** Unacknowledged messages the broker sends each consumer ahead of processing */
+        @Min(value = 1, message = "Ingest prefetch must be at least 1")
+        private int prefetch = 500;
+
+        /** Messages persisted together in one transaction and acknowledged together */
+        @Min(value = 1, message = "Ingest batch size must be at least 1")
+        private int batchSize = 100;
+
+        /** How long a consumer waits to fill a batch before persisting a partial one */
+        @NotNull(message = "Ingest receive timeout is required")
+        private Duration receiveTimeout = Duration.ofMillis(200);
+
+        /** Number of consumers per node */
+        @Min(value = 1, message = "Ingest consumers must be at least 1")
+        private int consumers = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Tenancy {
+        /** Request header, and ingest message header, naming the tenant; without it the default tenant applies */
+        @NotBlank(message = "Tenant header is required")
+        private String header = "X-Tenant-ID";
+
+        /** Tenants accepted besides the default tenant; they share the default schema */
+        private Set<String> tenants = new LinkedHashSet<>();
+
+        /** Tenants with a schema of their own, by tenant ID; these are accepted as well */
+        private Map<String, String> schemas = new LinkedHashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+        /** Directory of the node's search index; unset keeps the index in memory */
+        private Path indexPath;
+
+        /** Whether the index is rebuilt from the database in the background when the node starts */
+        private boolean rebuildOnStartup = true;
+
+        /** Notifications read from the database per transaction while rebuilding */
+        @Min(value = 1, message = "Search rebuild chunk size must be at least 1")
+        private int rebuildChunkSize = 1_000;
+
+        /** How long a change may take to become searchable */
+        @NotNull(message = "Search refresh interval is required")
+        private Duration refreshInterval = Duration.ofSeconds(1);
+
+        /** How often changes are committed to the index directory */
+        @NotNull(message = "Search commit interval is required")
+        private Duration commitInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class ChannelPool {
+        /** Number of threads sending on the channel concurrently */
+        @Min(value = 1, message = "Channel threads must be at least 1")
+        private int threads = 4;
+
+        /** Deliveries queued per channel; the outbox is not scanned further while the queue is full */
+        @Min(value = 1, message = "Channel queue capacity must be at least 1")
+        private int queueCapacity = 200;
+    }
+}
@@ -4,7 +4,7 @@ import com.relatia.notification_service.model.OrganisationInfo;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
-@EnableConfigurationProperties(OrganisationInfo.class)
+@EnableConfigurationProperties({OrganisationInfo.class, NotificationProperties.class})
 @Configuration
 public class Properties {
 }
@@ -0,0 +1,100 @@
+package com.relatia.notification_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.function.UnaryOperator;
+
+/**
+ * Routes read-only transactions to a replica connection pool and everything else to the primary.
+ * Active when {@code notification.datasource.replica.url} is set; otherwise the auto-configured
+ * single data source is used.
+ * <p>
+ * The application data source is a {@link LazyConnectionDataSourceProxy}: a transaction's
+ * connection is only fetched at its first statement, after the transaction manager has marked it
+ * read-only, so {@code @Transactional(readOnly = true)} work is served by the replica pool.
+ * Flyway, schema validation and writes run outside read-only transactions and use the primary.
+ * The same routing is available as a {@link DataSourceRouter}, for data sources that must prepare
+ * the connection of whichever pool a transaction ends up on.
+ * <p>
+ * Rows read from the replica may be stale, so read-only transactions do not fill the shared
+ * second-level cache, see {@link ReplicaAwareJpaDialect}. Lookups by ID, which that cache serves,
+ * run on the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "notification.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("notification.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("notification.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public DataSourceRouter dataSourceRouter(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                             @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return decorator -> {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                decorator.apply(primaryDataSource));
+            dataSource.setReadOnlyDataSource(decorator.apply(replicaDataSource));
+            return dataSource;
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceRouter dataSourceRouter) {
+        return dataSourceRouter.route(UnaryOperator.identity());
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    // Set before initialization, so the vendor's default dialect is not applied
+                    entityManagerFactory.setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+}
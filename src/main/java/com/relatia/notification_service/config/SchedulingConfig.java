@@ -0,0 +1,12 @@
+package com.relatia.notification_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs.
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
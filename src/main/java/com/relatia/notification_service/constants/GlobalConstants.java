@@ -8,6 +8,9 @@ public class GlobalConstants {
     /** Base API path for notification endpoints */
     public static final String NOTIFICATION_API = "/api/v1/notifications";
     
+    /** Base API path for notification template endpoints */
+    public static final String NOTIFICATION_TEMPLATE_API = "/api/v1/notification-templates";
+    
     /** Base API path for organisation endpoints */
     public static final String ORGANISATION_API = "/api/v1/organisation";
     
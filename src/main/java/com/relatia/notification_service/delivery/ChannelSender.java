@@ -0,0 +1,26 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.notification.Notification;
+
+/**
+ * Sends notifications over one delivery channel, such as an e-mail gateway or a push service.
+ * <p>
+ * Implementations are picked up as Spring beans, at most one per channel. Sends run on the
+ * channel's worker pool, never on the request thread; a send that throws is retried with
+ * backoff until the configured number of attempts is exhausted.
+ */
+public interface ChannelSender {
+
+    /**
+     * @return the notification type this sender delivers
+     */
+    Notification.NotificationType channel();
+
+    /**
+     * Deliver a single notification.
+     *
+     * @param message the notification to deliver
+     * @throws RuntimeException if the notification could not be delivered
+     */
+    void send(DeliveryMessage message);
+}
@@ -0,0 +1,149 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves due deliveries from the outbox to the channel senders.
+ * <p>
+ * Every channel has its own fixed-size worker pool with a bounded queue, so a slow or failing
+ * gateway only holds back its own channel. The outbox is scanned periodically and only as many
+ * deliveries are claimed as the channel's queue can take; anything beyond that stays in the
+ * outbox until a later scan.
+ * <p>
+ * Each scan covers the shared schema as the root tenant, which sees the entries of every tenant
+ * stored there, and then every tenant with a schema of its own.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.delivery", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DeliveryDispatcher implements DisposableBean {
+
+    private final DeliveryOutbox outbox;
+    private final TenantRegistry tenantRegistry;
+    private final int batchSize;
+    private final Map<Notification.NotificationType, ChannelSender> senders =
+        new EnumMap<>(Notification.NotificationType.class);
+    private final Map<Notification.NotificationType, ThreadPoolExecutor> workers =
+        new EnumMap<>(Notification.NotificationType.class);
+
+    public DeliveryDispatcher(DeliveryOutbox outbox,
+                              List<ChannelSender> channelSenders,
+                              TenantRegistry tenantRegistry,
+                              NotificationProperties notificationProperties) {
+        this.outbox = outbox;
+        this.tenantRegistry = tenantRegistry;
+        NotificationProperties.Delivery properties = notificationProperties.getDelivery();
+        this.batchSize = properties.getBatchSize();
+
+        for (ChannelSender sender : channelSenders) {
+            ChannelSender previous = senders.putIfAbsent(sender.channel(), sender);
+            if (previous != null) {
+                throw new IllegalStateException("More than one ChannelSender for channel " + sender.channel());
+            }
+        }
+        for (Notification.NotificationType channel : Notification.NotificationType.values()) {
+            if (channel == Notification.NotificationType.SYSTEM) {
+                continue;
+            }
+            if (!senders.containsKey(channel)) {
+                log.warn("No ChannelSender configured for {}, deliveries will only be logged", channel);
+                senders.put(channel, new LoggingChannelSender(channel));
+            }
+            workers.put(channel, newWorkerPool(channel, properties.poolFor(channel)));
+        }
+    }
+
+    /**
+     * Claim due deliveries for every channel with spare capacity and hand them to the channel's workers.
+     */
+    @Scheduled(fixedDelayString = "${notification.delivery.poll-interval:500ms}")
+    public void dispatch() {
+        List<String> partitions = tenantRegistry.partitions();
+        workers.forEach((channel, executor) -> {
+            ChannelSender sender = senders.get(channel);
+            for (String partition : partitions) {
+                int capacity = Math.min(executor.getQueue().remainingCapacity(), batchSize);
+                if (capacity == 0) {
+                    return;
+                }
+                try {
+                    List<PendingDelivery> claimed = TenantContext.callAs(partition, () -> outbox.claim(channel, capacity));
+                    for (PendingDelivery delivery : claimed) {
+                        submit(executor, sender, delivery);
+                    }
+                } catch (RuntimeException ex) {
+                    log.error("Failed to dispatch {} deliveries of {}: {}", channel, partition, ex.getMessage(), ex);
+                }
+            }
+        });
+    }
+
+    private void submit(ThreadPoolExecutor executor, ChannelSender sender, PendingDelivery delivery) {
+        try {
+            executor.execute(() -> TenantContext.runAs(delivery.partition(), () -> deliver(sender, delivery)));
+        } catch (RejectedExecutionException ex) {
+            // The lease expires and the entry is picked up again by a later scan
+            log.debug("Worker queue for {} is full, leaving notification {} in the outbox",
+                sender.channel(), delivery.message().notificationId());
+        }
+    }
+
+    private void deliver(ChannelSender sender, PendingDelivery delivery) {
+        try {
+            sender.send(delivery.message());
+        } catch (RuntimeException ex) {
+            log.warn("{} delivery of notification {} failed (attempt {}): {}", sender.channel(),
+                delivery.message().notificationId(), delivery.message().attempt(), ex.getMessage());
+            recordFailure(delivery, ex);
+            return;
+        }
+        try {
+            outbox.markSent(delivery);
+        } catch (RuntimeException ex) {
+            log.error("Failed to record delivery of notification {}: {}",
+                delivery.message().notificationId(), ex.getMessage(), ex);
+        }
+    }
+
+    private void recordFailure(PendingDelivery delivery, Exception failure) {
+        try {
+            outbox.markFailed(delivery, failure);
+        } catch (RuntimeException ex) {
+            log.error("Failed to record failed delivery of notification {}: {}",
+                delivery.message().notificationId(), ex.getMessage(), ex);
+        }
+    }
+
+    private static ThreadPoolExecutor newWorkerPool(Notification.NotificationType channel,
+                                                    NotificationProperties.ChannelPool pool) {
+        return new ThreadPoolExecutor(pool.getThreads(), pool.getThreads(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(pool.getQueueCapacity()),
+            new CustomizableThreadFactory("delivery-" + channel.name().toLowerCase(Locale.ROOT) + "-"));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        workers.values().forEach(ThreadPoolExecutor::shutdown);
+        for (ThreadPoolExecutor executor : workers.values()) {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
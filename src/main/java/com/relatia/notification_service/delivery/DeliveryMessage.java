@@ -0,0 +1,24 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.notification.Notification;
+
+/**
+ * The content handed to a {@link ChannelSender}.
+ *
+ * @param notificationId the ID of the notification being delivered
+ * @param tenantId the tenant the notification belongs to
+ * @param recipientId the ID of the recipient user
+ * @param channel the channel to deliver over
+ * @param title the notification title
+ * @param message the notification body
+ * @param attempt the attempt number, starting at 1
+ */
+public record DeliveryMessage(
+        Long notificationId,
+        String tenantId,
+        Long recipientId,
+        Notification.NotificationType channel,
+        String title,
+        String message,
+        int attempt) {
+}
@@ -0,0 +1,135 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationRepository;
+import com.relatia.notification_service.tenant.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox of notification deliveries.
+ * <p>
+ * Deliveries are enqueued in the transaction that creates the notification, so a notification
+ * is stored if and only if its delivery is scheduled, and the request never waits for the channel.
+ * Workers later claim due entries, send them and record the outcome.
+ */
+@Slf4j
+@Component
+public class DeliveryOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DeliveryOutboxRepository outboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationProperties.Delivery properties;
+
+    public DeliveryOutbox(DeliveryOutboxRepository outboxRepository,
+                          NotificationRepository notificationRepository,
+                          NotificationProperties notificationProperties) {
+        this.outboxRepository = outboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.properties = notificationProperties.getDelivery();
+    }
+
+    /**
+     * Schedule the delivery of a newly persisted notification, if its channel needs one.
+     * Must be called in the transaction that persists the notification.
+     *
+     * @param notification the persisted notification
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Notification notification) {
+        if (notification.getDeliveryStatus() != Notification.DeliveryStatus.PENDING) {
+            return;
+        }
+        outboxRepository.save(DeliveryOutboxEntry.builder()
+            .notification(notification)
+            .channel(notification.getType())
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+    }
+
+    /**
+     * Claim up to {@code limit} due deliveries of a channel for this node, among those visible to
+     * the current tenant. Claimed entries are leased rather than removed, so they become due again
+     * if this node stops before recording an outcome.
+     *
+     * @param channel the channel
+     * @param limit the maximum number of deliveries to claim
+     * @return the claimed deliveries
+     */
+    @Transactional
+    public List<PendingDelivery> claim(Notification.NotificationType channel, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(properties.getLease());
+        List<PendingDelivery> claimed = new ArrayList<>();
+        for (DeliveryOutboxEntry entry : outboxRepository.findDue(channel, now, Limit.of(limit))) {
+            if (outboxRepository.claim(entry.getId(), entry.getVersion(), leaseUntil) == 1) {
+                claimed.add(new PendingDelivery(entry.getId(), TenantContext.getTenantId(), toMessage(entry)));
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Record a successful delivery. Must run as the tenant the delivery was claimed as.
+     *
+     * @param delivery the delivered entry
+     */
+    @Transactional
+    public void markSent(PendingDelivery delivery) {
+        outboxRepository.deleteEntry(delivery.entryId());
+        DeliveryMessage message = delivery.message();
+        notificationRepository.updateDeliveryStatus(message.notificationId(), message.tenantId(),
+            Notification.DeliveryStatus.SENT);
+    }
+
+    /**
+     * Record a failed delivery, scheduling a retry with exponential backoff or giving up
+     * once the maximum number of attempts is reached. Must run as the tenant the delivery was
+     * claimed as.
+     *
+     * @param delivery the failed entry
+     * @param failure the reason of the failure
+     */
+    @Transactional
+    public void markFailed(PendingDelivery delivery, Exception failure) {
+        DeliveryMessage message = delivery.message();
+        if (message.attempt() >= properties.getMaxAttempts()) {
+            log.warn("Giving up {} delivery of notification {} after {} attempts: {}",
+                message.channel(), message.notificationId(), message.attempt(), failure.getMessage());
+            outboxRepository.deleteEntry(delivery.entryId());
+            notificationRepository.updateDeliveryStatus(message.notificationId(), message.tenantId(),
+                Notification.DeliveryStatus.FAILED);
+            return;
+        }
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(message.attempt() - 1, 20));
+        outboxRepository.reschedule(delivery.entryId(), message.attempt(), LocalDateTime.now().plus(backoff),
+            truncate(String.valueOf(failure.getMessage())));
+    }
+
+    private static DeliveryMessage toMessage(DeliveryOutboxEntry entry) {
+        Notification notification = entry.getNotification();
+        return new DeliveryMessage(
+            notification.getId(),
+            notification.getTenantId(),
+            notification.getRecipientId(),
+            entry.getChannel(),
+            notification.getTitle(),
+            notification.getMessage(),
+            entry.getAttempts() + 1);
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,78 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.notification.Notification;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for the delivery outbox.
+ */
+@Repository
+public interface DeliveryOutboxRepository extends JpaRepository<DeliveryOutboxEntry, Long> {
+
+    /**
+     * Find the deliveries of a channel that are due, oldest first, together with their notifications.
+     *
+     * @param channel the channel
+     * @param now the current time
+     * @param limit the maximum number of entries to return
+     * @return the due entries
+     */
+    @Query("""
+            select e from DeliveryOutboxEntry e join fetch e.notification
+            where e.channel = :channel and e.nextAttemptAt <= :now
+            order by e.nextAttemptAt
+            """)
+    List<DeliveryOutboxEntry> findDue(@Param("channel") Notification.NotificationType channel,
+                                      @Param("now") LocalDateTime now,
+                                      Limit limit);
+
+    /**
+     * Reserve an entry for the calling node by pushing its next attempt out to the end of the lease.
+     * The version check makes the claim fail if another node claimed the entry first.
+     *
+     * @param id the entry ID
+     * @param version the version the entry was read with
+     * @param leaseUntil the time until which the entry is reserved
+     * @return 1 if the entry was claimed, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+            update DeliveryOutboxEntry e
+            set e.nextAttemptAt = :leaseUntil, e.version = e.version + 1
+            where e.id = :id and e.version = :version
+            """)
+    int claim(@Param("id") Long id, @Param("version") Long version, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Schedule another attempt after a failed send.
+     *
+     * @param id the entry ID
+     * @param attempts the number of attempts made so far
+     * @param nextAttemptAt when the next attempt becomes due
+     * @param lastError a description of the failure
+     * @return the number of entries updated
+     */
+    @Modifying
+    @Query("""
+            update DeliveryOutboxEntry e
+            set e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError,
+                e.version = e.version + 1
+            where e.id = :id
+            """)
+    int reschedule(@Param("id") Long id,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("delete from DeliveryOutboxEntry e where e.id = :id")
+    int deleteEntry(@Param("id") Long id);
+}
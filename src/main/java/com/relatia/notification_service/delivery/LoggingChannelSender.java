@@ -0,0 +1,28 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.notification.Notification;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stand-in used for channels without a {@link ChannelSender} bean; it only logs the delivery.
+ */
+@Slf4j
+class LoggingChannelSender implements ChannelSender {
+
+    private final Notification.NotificationType channel;
+
+    LoggingChannelSender(Notification.NotificationType channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public Notification.NotificationType channel() {
+        return channel;
+    }
+
+    @Override
+    public void send(DeliveryMessage message) {
+        log.info("Delivering {} notification {} to recipient {}: {}",
+            channel, message.notificationId(), message.recipientId(), message.title());
+    }
+}
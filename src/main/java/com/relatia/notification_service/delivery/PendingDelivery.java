@@ -0,0 +1,11 @@
+package com.relatia.notification_service.delivery;
+
+/**
+ * An outbox entry claimed by this node, together with the message to send.
+ *
+ * @param entryId the ID of the outbox entry
+ * @param partition the tenant the entry was claimed as, and its outcome has to be recorded as
+ * @param message the message for the channel sender
+ */
+record PendingDelivery(Long entryId, String partition, DeliveryMessage message) {
+}
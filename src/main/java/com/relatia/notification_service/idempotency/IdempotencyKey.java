@@ -0,0 +1,40 @@
+package com.relatia.notification_service.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.time.LocalDateTime;
+
+/**
+ * An {@code Idempotency-Key} that has already been used, and the notification it created.
+ * Rows are inserted with {@link IdempotencyKeyRepository#insert} so that a key used twice fails
+ * on the primary key instead of being merged. Keys are unique per tenant: the primary key is
+ * {@code (tenant_id, idempotency_key)}, and queries only see the current tenant's keys.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String key;
+
+    @TenantId
+    @Column(name = "tenant_id", length = 64, nullable = false, updatable = false)
+    private String tenantId;
+
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,64 @@
+package com.relatia.notification_service.idempotency;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Persistent store of used idempotency keys, shared by all instances of the service.
+ */
+public interface IdempotencyKeyRepository extends org.springframework.data.repository.Repository<IdempotencyKey, String> {
+
+    /**
+     * Find the notification created under an idempotency key.
+     *
+     * @param key the idempotency key
+     * @param since the oldest creation time of a key that has not expired
+     * @return the ID of the notification, if the key was used and has not expired
+     */
+    @Query("""
+            select k.notificationId from IdempotencyKey k
+            where k.key = :key and k.createdAt >= :since
+            """)
+    Optional<Long> findNotificationId(@Param("key") String key, @Param("since") LocalDateTime since);
+
+    /**
+     * Record that an idempotency key created a notification.
+     * The statement declares the only table it changes, so Hibernate does not evict unrelated
+     * second-level cache regions for it; pending inserts are flushed explicitly instead, since the
+     * key references the notification created in the same transaction. Native statements are not
+     * restricted to the session's tenant, so the tenant is passed explicitly.
+     *
+     * @param tenantId the tenant the key belongs to
+     * @param key the idempotency key
+     * @param notificationId the ID of the notification
+     * @param now the timestamp to record as the creation time
+     * @throws org.springframework.dao.DataIntegrityViolationException if the key is already recorded
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            insert into idempotency_keys (tenant_id, idempotency_key, notification_id, created_at)
+            values (:tenantId, :key, :notificationId, :now)
+            """, nativeQuery = true)
+    void insert(@Param("tenantId") String tenantId,
+                @Param("key") String key,
+                @Param("notificationId") Long notificationId,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Delete the current tenant's keys created before the given time.
+     *
+     * @param cutoff the creation time before which keys are deleted
+     * @return the number of keys deleted
+     */
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,151 @@
+package com.relatia.notification_service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.NotificationMapper;
+import com.relatia.notification_service.notification.NotificationRepository;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import com.relatia.notification_service.tenant.TenantScoped;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Makes notification creation idempotent per {@code Idempotency-Key}.
+ * <p>
+ * Recently used keys map to a future of their response in a bounded, TTL-evicting in-memory
+ * cache. The first request with a key installs the future and does the work; concurrent
+ * duplicates wait on the same future, so they collapse into one write without any lock wider
+ * than the key. Keys are also recorded in {@code idempotency_keys} in the same transaction as the
+ * notification, which covers keys evicted from memory and duplicates arriving at another
+ * instance: there the primary key rejects the second write, its transaction rolls back and the
+ * notification recorded by the first one is returned instead.
+ * <p>
+ * Keys are scoped to the current tenant, both in memory and in the database, so two tenants may
+ * use the same key independently.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    static final String CACHE_NAME = "notification.idempotency";
+
+    private final IdempotencyKeyRepository keyRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationProperties.Idempotency properties;
+    private final TenantScoped<Cache<String, CompletableFuture<NotificationResponse>>> responses;
+
+    public IdempotencyStore(IdempotencyKeyRepository keyRepository,
+                            NotificationRepository notificationRepository,
+                            NotificationMapper notificationMapper,
+                            TenantRegistry tenantRegistry,
+                            PlatformTransactionManager transactionManager,
+                            NotificationProperties notificationProperties,
+                            MeterRegistry meterRegistry) {
+        this.keyRepository = keyRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.tenantRegistry = tenantRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = notificationProperties.getIdempotency();
+        this.responses = new TenantScoped<>(tenantId -> {
+            Cache<String, CompletableFuture<NotificationResponse>> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, Tags.of("tenant", tenantId));
+            return cache;
+        });
+    }
+
+    /**
+     * Create a notification unless one was already created under the same key by the current tenant.
+     * If creation fails the key is released, so the request can be retried with it.
+     *
+     * @param key the idempotency key
+     * @param create creates the notification; joins the transaction that records the key
+     * @return the notification created under the key, now or by an earlier request
+     */
+    public NotificationResponse createOnce(String key, Supplier<NotificationResponse> create) {
+        CompletableFuture<NotificationResponse> pending = new CompletableFuture<>();
+        Cache<String, CompletableFuture<NotificationResponse>> tenantResponses = responses.current();
+        CompletableFuture<NotificationResponse> existing = tenantResponses.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            NotificationResponse response = stored(key).orElseGet(() -> createAndRecord(key, create));
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            tenantResponses.asMap().remove(key, pending);
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Delete the keys that are past their time to live from the database, in the shared schema
+     * and in every tenant schema.
+     */
+    @Scheduled(fixedDelayString = "${notification.idempotency.cleanup-interval:1h}")
+    public void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTimeToLive());
+        for (String partition : tenantRegistry.partitions()) {
+            Integer deleted = TenantContext.callAs(partition, () ->
+                transactionTemplate.execute(status -> keyRepository.deleteCreatedBefore(cutoff)));
+            if (deleted != null && deleted > 0) {
+                log.debug("Deleted {} expired idempotency keys of {}", deleted, partition);
+            }
+        }
+    }
+
+    private NotificationResponse createAndRecord(String key, Supplier<NotificationResponse> create) {
+        try {
+            return transactionTemplate.execute(status -> {
+                NotificationResponse response = create.get();
+                keyRepository.insert(TenantContext.getTenantId(), key, response.getId(), LocalDateTime.now());
+                return response;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Idempotency key {} was recorded concurrently by another instance", key);
+            return stored(key).orElseThrow(() -> ex);
+        }
+    }
+
+    private Optional<NotificationResponse> stored(String key) {
+        return keyRepository.findNotificationId(key, LocalDateTime.now().minus(properties.getTimeToLive()))
+            .flatMap(notificationRepository::findById)
+            .map(notificationMapper::toResponse);
+    }
+
+    private static NotificationResponse await(CompletableFuture<NotificationResponse> response) {
+        try {
+            return response.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
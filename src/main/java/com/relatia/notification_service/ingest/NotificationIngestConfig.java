@@ -0,0 +1,52 @@
+package com.relatia.notification_service.ingest;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Declares the ingest queue with its dead-letter queue, and the listener container that feeds
+ * {@link NotificationIngestListener} in batches with manual acknowledgement.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "notification.ingest", name = "enabled", havingValue = "true")
+public class NotificationIngestConfig {
+
+    @Bean
+    public Declarables notificationIngestQueues(NotificationProperties notificationProperties) {
+        NotificationProperties.Ingest ingest = notificationProperties.getIngest();
+        return new Declarables(
+            QueueBuilder.durable(ingest.getDeadLetterQueue()).build(),
+            QueueBuilder.durable(ingest.getQueue())
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(ingest.getDeadLetterQueue())
+                .build());
+    }
+
+    @Bean(NotificationIngestListener.CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationIngestContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            NotificationProperties notificationProperties) {
+        NotificationProperties.Ingest ingest = notificationProperties.getIngest();
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(ingest.getBatchSize());
+        // A batch can only fill up if the broker may send at least that many unacknowledged messages
+        factory.setPrefetchCount(Math.max(ingest.getPrefetch(), ingest.getBatchSize()));
+        factory.setReceiveTimeout(ingest.getReceiveTimeout().toMillis());
+        factory.setConcurrentConsumers(ingest.getConsumers());
+        factory.setMaxConcurrentConsumers(ingest.getConsumers());
+        return factory;
+    }
+}
@@ -0,0 +1,218 @@
+package com.relatia.notification_service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rabbitmq.client.Channel;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.exception.ApiValidationError;
+import com.relatia.notification_service.notification.NotificationBatchRequest;
+import com.relatia.notification_service.notification.NotificationBatchResponse;
+import com.relatia.notification_service.notification.NotificationRequest;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Creates notifications from {@link NotificationRequest} JSON messages published to the ingest queue.
+ * Each message names its tenant in the tenant header ({@code notification.tenancy.header}), or
+ * belongs to the default tenant without it.
+ * <p>
+ * Messages arrive in batches and are stored through {@link NotificationService#createNotifications}
+ * in one transaction per batch and tenant. They are only acknowledged once those transactions have
+ * committed, with a single multiple-ack for the whole batch, so a crash before the commit leaves
+ * them on the queue. Malformed or invalid messages, and messages for tenants that are not served,
+ * are rejected without requeueing, which dead-letters them. If storing a tenant's messages fails
+ * they are requeued; when the failing messages include redelivered ones, they are stored one by
+ * one and only the ones that still fail are dead-lettered.
+ * Delivery is at least once: a crash between commit and acknowledgement redelivers the batch.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.ingest", name = "enabled", havingValue = "true")
+public class NotificationIngestListener {
+
+    static final String CONTAINER_FACTORY = "notificationIngestContainerFactory";
+
+    private final NotificationService notificationService;
+    private final TenantRegistry tenantRegistry;
+    private final String tenantHeader;
+    private final ObjectReader requestReader;
+    private final Counter accepted;
+    private final Counter deadLettered;
+    private final Counter requeued;
+
+    public NotificationIngestListener(NotificationService notificationService,
+                                      TenantRegistry tenantRegistry,
+                                      NotificationProperties notificationProperties,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.tenantRegistry = tenantRegistry;
+        this.tenantHeader = notificationProperties.getTenancy().getHeader();
+        this.requestReader = objectMapper.readerFor(NotificationRequest.class);
+        this.accepted = counter(meterRegistry, "accepted");
+        this.deadLettered = counter(meterRegistry, "dead-lettered");
+        this.requeued = counter(meterRegistry, "requeued");
+    }
+
+    /**
+     * Store and settle one batch of messages.
+     *
+     * @param messages the messages, in delivery order
+     * @param channel the channel the messages were delivered on
+     * @throws IOException if a message cannot be settled on the channel
+     */
+    @RabbitListener(queues = "${notification.ingest.queue}", containerFactory = CONTAINER_FACTORY)
+    public void onMessages(List<Message> messages, Channel channel) throws IOException {
+        Map<String, TenantBatch> batches = new LinkedHashMap<>();
+        for (Message message : messages) {
+            String tenantId = tenantOf(message);
+            if (!tenantRegistry.isKnown(tenantId)) {
+                deadLetter(channel, message, "Unknown tenant: " + tenantId);
+                continue;
+            }
+            try {
+                NotificationRequest request = requestReader.readValue(message.getBody());
+                batches.computeIfAbsent(tenantId, id -> new TenantBatch()).add(message, request);
+            } catch (IOException ex) {
+                deadLetter(channel, message, "Malformed JSON: " + ex.getMessage());
+            }
+        }
+
+        // Everything not settled individually below has been stored: acknowledge it all at once
+        long lastAccepted = -1;
+        for (Map.Entry<String, TenantBatch> entry : batches.entrySet()) {
+            long tenantLastAccepted = TenantContext.callAs(entry.getKey(), () -> store(entry.getValue(), channel));
+            lastAccepted = Math.max(lastAccepted, tenantLastAccepted);
+        }
+        if (lastAccepted >= 0) {
+            channel.basicAck(lastAccepted, true);
+        }
+    }
+
+    /**
+     * Store the messages of the current tenant in one transaction. Rejected items are dead-lettered
+     * and, if the transaction fails, the messages are requeued or stored one by one; the accepted
+     * messages of a committed batch are left for the caller to acknowledge.
+     *
+     * @return the highest delivery tag of an accepted message left unacknowledged, or -1
+     */
+    private long store(TenantBatch batch, Channel channel) throws IOException {
+        NotificationBatchResponse response;
+        try {
+            response = notificationService.createNotifications(batchOf(batch.requests));
+        } catch (RuntimeException ex) {
+            if (batch.messages.stream().anyMatch(message -> message.getMessageProperties().isRedelivered())) {
+                log.warn("Batch of {} messages with redeliveries failed, storing them one by one", batch.size(), ex);
+                storeIndividually(batch.messages, batch.requests, channel);
+            } else {
+                log.warn("Batch of {} messages failed, requeueing it", batch.size(), ex);
+                for (Message message : batch.messages) {
+                    channel.basicNack(deliveryTag(message), false, true);
+                }
+                requeued.increment(batch.size());
+            }
+            return -1;
+        }
+
+        boolean[] rejected = new boolean[batch.size()];
+        for (NotificationBatchResponse.ItemFailure failure : response.getFailures()) {
+            rejected[failure.getIndex()] = true;
+            deadLetter(channel, batch.messages.get(failure.getIndex()), describe(failure.getErrors()));
+        }
+        long lastAccepted = -1;
+        for (int i = 0; i < batch.size(); i++) {
+            if (!rejected[i]) {
+                lastAccepted = Math.max(lastAccepted, deliveryTag(batch.messages.get(i)));
+            }
+        }
+        accepted.increment(response.getAccepted());
+        return lastAccepted;
+    }
+
+    private void storeIndividually(List<Message> messages, List<NotificationRequest> requests, Channel channel)
+            throws IOException {
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            NotificationBatchResponse response;
+            try {
+                response = notificationService.createNotifications(batchOf(List.of(requests.get(i))));
+            } catch (RuntimeException ex) {
+                deadLetter(channel, message, ex.getMessage());
+                continue;
+            }
+            if (response.getFailures().isEmpty()) {
+                channel.basicAck(deliveryTag(message), false);
+                accepted.increment();
+            } else {
+                deadLetter(channel, message, describe(response.getFailures().get(0).getErrors()));
+            }
+        }
+    }
+
+    private void deadLetter(Channel channel, Message message, String reason) throws IOException {
+        log.warn("Dead-lettering ingest message {}: {}", message.getMessageProperties().getMessageId(), reason);
+        channel.basicNack(deliveryTag(message), false, false);
+        deadLettered.increment();
+    }
+
+    private String tenantOf(Message message) {
+        Object tenantId = message.getMessageProperties().getHeader(tenantHeader);
+        return tenantId == null || tenantId.toString().isBlank() ? TenantContext.DEFAULT_TENANT : tenantId.toString();
+    }
+
+    private static NotificationBatchRequest batchOf(List<NotificationRequest> requests) {
+        NotificationBatchRequest batch = new NotificationBatchRequest();
+        batch.setNotifications(requests);
+        return batch;
+    }
+
+    private static long deliveryTag(Message message) {
+        return message.getMessageProperties().getDeliveryTag();
+    }
+
+    private static String describe(List<ApiValidationError> errors) {
+        return errors.stream()
+            .map(error -> error.getField() == null ? error.getMessage() : error.getField() + ": " + error.getMessage())
+            .collect(Collectors.joining(", "));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.ingest.messages")
+            .description("Messages consumed from the ingest queue, by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * The parsed messages of one tenant, in delivery order.
+     */
+    private static final class TenantBatch {
+
+        private final List<Message> messages = new ArrayList<>();
+        private final List<NotificationRequest> requests = new ArrayList<>();
+
+        void add(Message message, NotificationRequest request) {
+            messages.add(message);
+            requests.add(request);
+        }
+
+        int size() {
+            return messages.size();
+        }
+    }
+}
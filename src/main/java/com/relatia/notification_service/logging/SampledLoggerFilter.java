@@ -0,0 +1,72 @@
+package com.relatia.notification_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Logback filter that lets through at most {@code maxPerInterval} events of one logger per
+ * {@code intervalMillis} and drops the rest, so a burst of similar events (such as slow-query
+ * reports during a database stall) is sampled instead of flooding the appenders. Events of
+ * other loggers are not affected. Configured in {@code logback-spring.xml}.
+ */
+public class SampledLoggerFilter extends TurboFilter {
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final LongSupplier clock;
+
+    private String loggerName;
+    private int maxPerInterval = 10;
+    private long intervalMillis = 60_000;
+
+    public SampledLoggerFilter() {
+        this(System::currentTimeMillis);
+    }
+
+    SampledLoggerFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null) {
+            addError("No loggerName set for " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Compared directly: Logger#isEnabledFor runs the turbo filters again and would recurse into this one
+        if (!isStarted() || !logger.getName().equals(loggerName)
+                || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= intervalMillis && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerInterval ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setMaxPerInterval(int maxPerInterval) {
+        this.maxPerInterval = maxPerInterval;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+}
@@ -0,0 +1,22 @@
+package com.relatia.notification_service.notification;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for marking several notifications as read at once.
+ */
+@Data
+@Schema(description = "Request object for marking notifications as read in bulk")
+public class MarkAsReadRequest {
+
+    @NotEmpty(message = "At least one notification ID is required")
+    @Size(max = 10_000, message = "At most 10000 notification IDs can be marked at once")
+    @Schema(description = "IDs of the notifications to mark as read", example = "[1, 2, 3]")
+    private List<@NotNull(message = "Notification ID must not be null") Long> ids;
+}
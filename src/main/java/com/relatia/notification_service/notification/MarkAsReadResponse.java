@@ -0,0 +1,19 @@
+package com.relatia.notification_service.notification;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO reporting the outcome of a bulk mark-as-read operation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk mark-as-read operation")
+public class MarkAsReadResponse {
+
+    @Schema(description = "Number of notifications that changed from unread to read", example = "3")
+    private int updated;
+}
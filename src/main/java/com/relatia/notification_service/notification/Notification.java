@@ -2,7 +2,10 @@ package com.relatia.notification_service.notification;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.TenantId;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -10,9 +13,16 @@ import java.time.LocalDateTime;
 /**
  * Entity representing a notification in the system.
  * Stores information about notifications sent to users.
+ * <p>
+ * Lookups by ID are served from the second-level cache (region sizes in
+ * {@code hibernate-cache.conf}). Entity updates and deletes write through it; set-based updates
+ * and changes reported by another node evict only the notifications they touched, via
+ * {@link NotificationEntityCacheEvictor}. The nightly purge still evicts the whole region.
  */
 @Entity
 @Table(name = "notifications")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "notifications")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,10 +30,23 @@ import java.time.LocalDateTime;
 @Builder
 public class Notification {
     
+    /**
+     * Sequence-backed so Hibernate can pre-allocate IDs in blocks and batch inserts;
+     * IDENTITY columns force one round trip per row.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Organisation the notification belongs to. Set from the session's tenant on insert, and every
+     * query is restricted to the session's tenant, so it never needs to be passed explicitly.
+     */
+    @TenantId
+    @Column(name = "tenant_id", length = 64, nullable = false, updatable = false)
+    private String tenantId;
+
     @Column(nullable = false, length = 100)
     private String title;
 
@@ -48,6 +71,23 @@ public class Notification {
     @Enumerated(EnumType.STRING)
     private NotificationType type;
 
+    /** Sender-supplied key identifying repeats of the same notification, see {@link NotificationCoalescer} */
+    @Column(name = "dedup_key", length = 100)
+    private String dedupKey;
+
+    /** Number of notifications coalesced into this row */
+    @Column(nullable = false)
+    @Builder.Default
+    private int occurrences = 1;
+
+    /**
+     * Written only by the delivery pipeline through bulk updates, so saving a stale copy of the
+     * entity (for example when marking it as read) can never roll the status back.
+     */
+    @Column(name = "delivery_status", length = 20, nullable = false, updatable = false)
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus deliveryStatus;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -59,10 +99,27 @@ public class Notification {
     @Version
     private Long version;
 
+    @PrePersist
+    void initDeliveryStatus() {
+        if (deliveryStatus == null) {
+            deliveryStatus = type == NotificationType.SYSTEM ? DeliveryStatus.NOT_REQUIRED : DeliveryStatus.PENDING;
+        }
+    }
+
     public enum NotificationType {
         EMAIL,
         SMS,
         PUSH,
         SYSTEM
     }
+
+    public enum DeliveryStatus {
+        /** In-app only, nothing to send */
+        NOT_REQUIRED,
+        /** Waiting in the delivery outbox */
+        PENDING,
+        SENT,
+        /** Gave up after the configured number of attempts */
+        FAILED
+    }
 }
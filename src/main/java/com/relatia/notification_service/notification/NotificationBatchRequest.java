@@ -0,0 +1,25 @@
+package com.relatia.notification_service.notification;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for creating many notifications in one call.
+ * Either {@code template} together with {@code recipientIds}, or {@code notifications} must be set.
+ * Items are validated individually so one bad entry does not reject the whole batch.
+ */
+@Data
+@Schema(description = "Request object for creating notifications in bulk")
+public class NotificationBatchRequest {
+
+    @Schema(description = "Notification sent to every recipient in recipientIds; its recipientId is ignored")
+    private NotificationRequest template;
+
+    @Schema(description = "Recipients of the template notification", example = "[123, 456]")
+    private List<Long> recipientIds;
+
+    @Schema(description = "Individually specified notifications")
+    private List<NotificationRequest> notifications;
+}
@@ -0,0 +1,49 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.exception.ApiValidationError;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO summarising the outcome of a bulk notification request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk notification request")
+public class NotificationBatchResponse {
+
+    @Schema(description = "Number of items in the request", example = "3")
+    private int requested;
+
+    @Schema(description = "Number of notifications created", example = "2")
+    private int accepted;
+
+    @Schema(description = "Number of items rejected by validation", example = "1")
+    private int rejected;
+
+    @Schema(description = "Validation failures of the rejected items")
+    private List<ItemFailure> failures;
+
+    /**
+     * Validation failure of a single batch item.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Validation failure of a single batch item")
+    public static class ItemFailure {
+
+        @Schema(description = "Zero-based position of the item in the request", example = "2")
+        private int index;
+
+        @Schema(description = "Field errors of the item")
+        private List<ApiValidationError> errors;
+    }
+}
@@ -0,0 +1,46 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.delivery.DeliveryOutbox;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Persists notifications in bulk.
+ * Entities are flushed and detached every {@code chunkSize} rows so the persistence context
+ * stays small, and Hibernate groups the pending inserts into JDBC batches
+ * ({@code hibernate.jdbc.batch_size}). Deliveries are enqueued alongside each notification.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationBatchWriter {
+
+    private final EntityManager entityManager;
+    private final DeliveryOutbox deliveryOutbox;
+
+    /**
+     * Insert the given notifications, joining the caller's transaction if there is one.
+     *
+     * @param notifications the new notification entities
+     * @param chunkSize number of rows persisted between flushes
+     * @return the number of notifications inserted
+     */
+    @Transactional
+    public int insertAll(List<Notification> notifications, int chunkSize) {
+        int count = 0;
+        for (Notification notification : notifications) {
+            entityManager.persist(notification);
+            deliveryOutbox.enqueue(notification);
+            if (++count % chunkSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return count;
+    }
+}
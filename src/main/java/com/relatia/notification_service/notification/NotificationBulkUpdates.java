@@ -0,0 +1,62 @@
+package com.relatia.notification_service.notification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based updates of notifications, mixed into {@link NotificationRepository}.
+ * <p>
+ * The updates bypass the entities, so Hibernate would evict the whole {@code notifications}
+ * second-level cache region after each one. Instead, where the changed rows are known, they lock
+ * only those, see {@link NotificationEntityCacheEvictor}.
+ */
+public interface NotificationBulkUpdates {
+
+    /**
+     * Mark the given notifications of the current tenant as read with a single UPDATE statement.
+     * The unread rows are locked first, so of concurrent callers marking the same notification
+     * only one reports it. Rows that are already read are left untouched; changed rows get a new version.
+     *
+     * @param ids the notification IDs
+     * @param now the timestamp to record as the update time
+     * @return the IDs of the notifications that changed from unread to read, per recipient ID
+     */
+    Map<Long, List<Long>> markAsReadByIds(Collection<Long> ids, LocalDateTime now);
+
+    /**
+     * Mark every unread notification of a recipient of the current tenant as read with a single
+     * UPDATE statement. The changed rows are not known, so the whole entity cache region is evicted;
+     * use {@link #markAsReadByIds} where the IDs are at hand.
+     *
+     * @param recipientId the recipient ID
+     * @param now the timestamp to record as the update time
+     * @return the number of notifications that changed from unread to read
+     */
+    int markAllAsReadByRecipientId(Long recipientId, LocalDateTime now);
+
+    /**
+     * Merge a repeated notification into an unread one of the current tenant with a single UPDATE
+     * statement: the content is replaced with the latest and the occurrence counter is incremented.
+     *
+     * @param id the ID of the notification to merge into
+     * @param title the latest title
+     * @param message the latest message
+     * @param now the timestamp to record as the update time
+     * @return 1 if merged, 0 if the notification was read or deleted in the meantime
+     */
+    int coalesceInto(Long id, String title, String message, LocalDateTime now);
+
+    /**
+     * Record the outcome of delivering a notification over its channel.
+     * Deliveries are recorded by background workers, which may run as the root pseudo-tenant,
+     * so the notification's own tenant is passed explicitly.
+     *
+     * @param id the notification ID
+     * @param tenantId the tenant of the notification
+     * @param status the new delivery status
+     * @return the number of notifications updated
+     */
+    int updateDeliveryStatus(Long id, String tenantId, Notification.DeliveryStatus status);
+}
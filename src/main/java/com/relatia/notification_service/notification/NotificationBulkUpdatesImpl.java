@@ -0,0 +1,135 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native implementation of {@link NotificationBulkUpdates}.
+ * <p>
+ * Each statement declares a query space of its own instead of the {@code notifications} table,
+ * which keeps Hibernate from evicting the entity cache region; the statement's rows are
+ * soft-locked in the cache instead. Native statements are not filtered by tenant, so each one names the tenant.
+ */
+class NotificationBulkUpdatesImpl implements NotificationBulkUpdates {
+
+    /** Query space declared by the updates; no entity is mapped to it */
+    static final String QUERY_SPACE = "notifications_by_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NotificationEntityCacheEvictor cacheEvictor;
+
+    NotificationBulkUpdatesImpl(EntityManagerFactory entityManagerFactory) {
+        // Created here rather than injected, so the repository also works in JPA test slices
+        this.cacheEvictor = new NotificationEntityCacheEvictor(entityManagerFactory);
+    }
+
+    @Override
+    public Map<Long, List<Long>> markAsReadByIds(Collection<Long> ids, LocalDateTime now) {
+        String tenantId = TenantContext.getTenantId();
+        entityManager.flush();
+        // A concurrent caller waits for the lock and then no longer finds the rows unread
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                select id, recipient_id from notifications
+                where id in (:ids) and tenant_id = :tenantId and is_read = false
+                for update
+                """, Object[].class)
+            .setHint(HibernateHints.HINT_NATIVE_SPACES, QUERY_SPACE)
+            .setParameter("ids", ids)
+            .setParameter("tenantId", tenantId)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, List<Long>> unreadByRecipient = new HashMap<>();
+        List<Long> unreadIds = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long id = ((Number) row[0]).longValue();
+            unreadByRecipient.computeIfAbsent(((Number) row[1]).longValue(), recipientId -> new ArrayList<>()).add(id);
+            unreadIds.add(id);
+        }
+        cacheEvictor.lock(entityManager, tenantId, unreadIds);
+        entityManager.createNativeQuery("""
+                update notifications
+                set is_read = true, version = version + 1, updated_at = :now
+                where id in (:ids) and tenant_id = :tenantId
+                """)
+            .setHint(HibernateHints.HINT_NATIVE_SPACES, QUERY_SPACE)
+            .setParameter("now", now)
+            .setParameter("ids", unreadIds)
+            .setParameter("tenantId", tenantId)
+            .executeUpdate();
+        entityManager.clear();
+        return unreadByRecipient;
+    }
+
+    @Override
+    public int markAllAsReadByRecipientId(Long recipientId, LocalDateTime now) {
+        entityManager.flush();
+        // Synchronized on the entity rather than a query space of its own, so Hibernate evicts the region
+        int updated = entityManager.createNativeQuery("""
+                update notifications
+                set is_read = true, version = version + 1, updated_at = :now
+                where recipient_id = :recipientId and tenant_id = :tenantId and is_read = false
+                """)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedEntityClass(Notification.class)
+            .setParameter("now", now)
+            .setParameter("recipientId", recipientId)
+            .setParameter("tenantId", TenantContext.getTenantId())
+            .executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public int coalesceInto(Long id, String title, String message, LocalDateTime now) {
+        String tenantId = TenantContext.getTenantId();
+        entityManager.flush();
+        cacheEvictor.lock(entityManager, tenantId, List.of(id));
+        int updated = entityManager.createNativeQuery("""
+                update notifications
+                set title = :title, message = :message, occurrences = occurrences + 1,
+                    version = version + 1, updated_at = :now
+                where id = :id and tenant_id = :tenantId and is_read = false
+                """)
+            .setHint(HibernateHints.HINT_NATIVE_SPACES, QUERY_SPACE)
+            .setParameter("title", title)
+            .setParameter("message", message)
+            .setParameter("now", now)
+            .setParameter("id", id)
+            .setParameter("tenantId", tenantId)
+            .executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public int updateDeliveryStatus(Long id, String tenantId, Notification.DeliveryStatus status) {
+        entityManager.flush();
+        cacheEvictor.lock(entityManager, tenantId, List.of(id));
+        int updated = entityManager.createNativeQuery("""
+                update notifications
+                set delivery_status = :status
+                where id = :id and tenant_id = :tenantId
+                """)
+            .setHint(HibernateHints.HINT_NATIVE_SPACES, QUERY_SPACE)
+            .setParameter("status", status.name())
+            .setParameter("id", id)
+            .setParameter("tenantId", tenantId)
+            .executeUpdate();
+        return updated;
+    }
+}
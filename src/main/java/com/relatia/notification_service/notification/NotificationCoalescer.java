@@ -0,0 +1,66 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Merges repeated notifications into the one the recipient has not read yet.
+ * A notification with a dedup key is merged into the newest unread notification of the same
+ * recipient, type and dedup key created within {@code notification.coalescing.window}: that row
+ * takes the latest title and message and its {@code occurrences} counter is incremented, instead
+ * of a new row being inserted and delivered. Merges are counted by the
+ * {@code notification.coalesced} metric, tagged by type.
+ */
+@Component
+public class NotificationCoalescer {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationProperties.Coalescing properties;
+    private final Map<Notification.NotificationType, Counter> coalescedCounters =
+        new EnumMap<>(Notification.NotificationType.class);
+
+    public NotificationCoalescer(NotificationRepository notificationRepository,
+                                 NotificationProperties notificationProperties,
+                                 MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.properties = notificationProperties.getCoalescing();
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            coalescedCounters.put(type, Counter.builder("notification.coalesced")
+                .description("Notifications merged into an earlier unread notification")
+                .tag("type", type.name())
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Merge the requested notification into an earlier unread one, if there is one to merge into.
+     *
+     * @param request the notification request
+     * @return the merged notification, or empty if the request has to be stored as a new notification
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Notification> merge(NotificationRequest request) {
+        if (!properties.isEnabled() || request.getType() == null || !StringUtils.hasText(request.getDedupKey())) {
+            return Optional.empty();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Optional<Notification> target = notificationRepository.findCoalescingCandidate(
+            request.getRecipientId(), request.getType(), request.getDedupKey(), now.minus(properties.getWindow()));
+        if (target.isEmpty()
+            || notificationRepository.coalesceInto(target.get().getId(), request.getTitle(), request.getMessage(), now) == 0) {
+            return Optional.empty();
+        }
+        coalescedCounters.get(request.getType()).increment();
+        return notificationRepository.findById(target.get().getId());
+    }
+}
@@ -0,0 +1,65 @@
+package com.relatia.notification_service.notification;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires a {@link NotificationRequest} to carry either a title and a message, or a template ID to
+ * render them from, but not both. Missing content is reported on the {@code title} and
+ * {@code message} fields.
+ */
+@Documented
+@Constraint(validatedBy = NotificationContent.Validator.class)
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NotificationContent {
+
+    String message() default "Provide either title and message, or templateId";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validator implements ConstraintValidator<NotificationContent, NotificationRequest> {
+
+        @Override
+        public boolean isValid(NotificationRequest request, ConstraintValidatorContext context) {
+            if (request == null) {
+                return true;
+            }
+            context.disableDefaultConstraintViolation();
+            if (request.getTemplateId() != null) {
+                if (request.getTitle() == null && request.getMessage() == null) {
+                    return true;
+                }
+                reject(context, "templateId", "Title and message must not be set together with templateId");
+                return false;
+            }
+            boolean valid = true;
+            if (!StringUtils.hasText(request.getTitle())) {
+                reject(context, "title", "Title is required");
+                valid = false;
+            }
+            if (!StringUtils.hasText(request.getMessage())) {
+                reject(context, "message", "Message is required");
+                valid = false;
+            }
+            return valid;
+        }
+
+        private static void reject(ConstraintValidatorContext context, String field, String message) {
+            context.buildConstraintViolationWithTemplate(message)
+                .addPropertyNode(field)
+                .addConstraintViolation();
+        }
+    }
+}
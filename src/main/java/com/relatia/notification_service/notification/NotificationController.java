@@ -1,6 +1,10 @@
 package com.relatia.notification_service.notification;
 
+import com.relatia.notification_service.exception.BadRequestException;
 import com.relatia.notification_service.exception.ErrorResponse;
+import com.relatia.notification_service.idempotency.IdempotencyStore;
+import com.relatia.notification_service.push.NotificationPushService;
+import com.relatia.notification_service.tenant.TenantContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -11,11 +15,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import static com.relatia.notification_service.constants.GlobalConstants.NOTIFICATION_API;
@@ -43,7 +53,14 @@ import static com.relatia.notification_service.constants.GlobalConstants.NOTIFIC
 })
 public class NotificationController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final NotificationService notificationService;
+    private final NotificationImportService notificationImportService;
+    private final NotificationExportService notificationExportService;
+    private final NotificationPushService notificationPushService;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(
         summary = "Create a new notification",
@@ -59,15 +76,71 @@ public class NotificationController {
             responseCode = "400",
             description = "Invalid input",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many notifications for the recipient; retry after the Retry-After header",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         )
     })
     @PostMapping
     public ResponseEntity<NotificationResponse> createNotification(
-            @Valid @RequestBody NotificationRequest request) {
-        NotificationResponse response = notificationService.createNotification(request);
+            @Valid @RequestBody NotificationRequest request,
+            @Parameter(description = "Client-chosen key that makes retries of this request return the " +
+                    "originally created notification instead of creating another one")
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        NotificationResponse response;
+        if (idempotencyKey == null) {
+            response = notificationService.createNotification(request);
+        } else {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new BadRequestException(IDEMPOTENCY_KEY_HEADER + " must be 1 to "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+            }
+            response = idempotencyStore.createOnce(idempotencyKey, () -> notificationService.createNotification(request));
+        }
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(
+        summary = "Create notifications in bulk",
+        description = "Creates one notification per recipient from a template, or one per item of a list. " +
+                "Invalid items are reported individually and do not prevent the valid ones from being stored."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch processed; see the summary for rejected items",
+            content = @Content(schema = @Schema(implementation = NotificationBatchResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Malformed batch or batch too large",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PostMapping("/batch")
+    public NotificationBatchResponse createNotifications(@RequestBody NotificationBatchRequest request) {
+        return notificationService.createNotifications(request);
+    }
+
+    @Operation(
+        summary = "Import notifications from newline-delimited JSON",
+        description = "Streams the request body, one notification request object per line, and stores " +
+                "valid lines in fixed-size transactional chunks. Rejected lines are reported by line number."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import processed; see the summary for rejected lines",
+            content = @Content(schema = @Schema(implementation = NotificationImportResponse.class))
+        )
+    })
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public NotificationImportResponse importNotifications(InputStream body) throws IOException {
+        return notificationImportService.importNotifications(body);
+    }
+
     @Operation(
         summary = "Get notification by ID",
         description = "Retrieves a specific notification by its unique identifier"
@@ -107,13 +180,99 @@ public class NotificationController {
             @Parameter(description = "ID of the recipient", required = true)
             @RequestParam("recipientId") Long recipientId,
             @Parameter(description = "Filter unread notifications only")
-            @RequestParam(name = "unread", required = false, defaultValue = "false") boolean unread) {
+            @RequestParam(name = "unread", required = false, defaultValue = "false") boolean unread,
+            @Parameter(description = "Return only the beginning of each message")
+            @RequestParam(name = "summary", required = false, defaultValue = "false") boolean summary) {
         if (unread) {
-            return notificationService.getUnreadNotifications(recipientId);
+            return notificationService.getUnreadNotifications(recipientId, summary);
         }
-        return notificationService.getNotificationsByRecipientId(recipientId);
+        return notificationService.getNotificationsByRecipientId(recipientId, summary);
     }
-    
+
+    @Operation(
+        summary = "Get a page of notifications",
+        description = "Retrieves a recipient's notifications newest first, one page at a time. " +
+                "Pass the returned nextCursor to fetch the following page."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Notification page retrieved successfully",
+            content = @Content(schema = @Schema(implementation = NotificationPage.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or limit",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/page")
+    public NotificationPage getNotificationPage(
+            @Parameter(description = "ID of the recipient", required = true)
+            @RequestParam("recipientId") Long recipientId,
+            @Parameter(description = "Filter unread notifications only")
+            @RequestParam(name = "unread", required = false, defaultValue = "false") boolean unread,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Maximum number of notifications to return")
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @Parameter(description = "Return only the beginning of each message")
+            @RequestParam(name = "summary", required = false, defaultValue = "false") boolean summary) {
+        return notificationService.getNotificationPage(recipientId, unread, cursor, limit, summary);
+    }
+
+    @Operation(
+        summary = "Export notifications",
+        description = "Streams a recipient's complete notification history, newest first, " +
+                "as newline-delimited JSON or as a single JSON array"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Notification export streamed successfully"
+        )
+    })
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportNotifications(
+            @Parameter(description = "ID of the recipient", required = true)
+            @RequestParam("recipientId") Long recipientId,
+            @Parameter(description = "Output format, NDJSON or JSON")
+            @RequestParam(name = "format", required = false, defaultValue = "NDJSON")
+            NotificationExportService.ExportFormat format) {
+        boolean ndjson = format == NotificationExportService.ExportFormat.NDJSON;
+        String filename = "notifications-" + recipientId + (ndjson ? ".ndjson" : ".json");
+        // The body is written on an async thread, which has to run as the request's tenant
+        String tenantId = TenantContext.getTenantId();
+        StreamingResponseBody body = output -> TenantContext.callAs(tenantId, () ->
+            notificationExportService.exportNotifications(recipientId, format, output));
+        return ResponseEntity.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+
+    @Operation(
+        summary = "Stream notification changes",
+        description = "Opens a Server-Sent Events stream for a recipient. The stream starts with an " +
+                "'unread-count' event and then pushes a 'notification' event for each new notification and an " +
+                "'unread-count' event whenever the count changes. Reconnecting with Last-Event-ID replays missed " +
+                "events, or sends a 'resync' event when they are no longer available."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Event stream opened"
+        )
+    })
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @Parameter(description = "ID of the recipient", required = true)
+            @RequestParam("recipientId") Long recipientId,
+            @Parameter(description = "ID of the last event received, sent by clients when reconnecting")
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationPushService.subscribe(recipientId, lastEventId);
+    }
+
     @Operation(
         summary = "Get notification count",
         description = "Retrieves count of notifications with optional filtering by recipient and read status"
@@ -138,6 +297,25 @@ public class NotificationController {
         return notificationService.getCountByRecipientId(recipientId);
     }
 
+    @Operation(
+        summary = "Get notification summary",
+        description = "Retrieves a recipient's total and unread counts, overall and per notification type, " +
+                "in one call instead of one count request per filter"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Notification summary retrieved successfully",
+            content = @Content(schema = @Schema(implementation = NotificationSummary.class))
+        )
+    })
+    @GetMapping("/summary")
+    public NotificationSummary getNotificationSummary(
+            @Parameter(description = "ID of the recipient", required = true)
+            @RequestParam("recipientId") Long recipientId) {
+        return notificationService.getSummary(recipientId);
+    }
+
     @Operation(
         summary = "Mark notification as read",
         description = "Updates a notification's read status to true"
@@ -161,6 +339,46 @@ public class NotificationController {
         return notificationService.markAsRead(id);
     }
 
+    @Operation(
+        summary = "Mark notifications as read",
+        description = "Marks the given notifications as read in a single update. " +
+                "Unknown IDs and notifications that are already read are ignored."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Notifications marked as read",
+            content = @Content(schema = @Schema(implementation = MarkAsReadResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PutMapping("/read")
+    public MarkAsReadResponse markAsRead(@Valid @RequestBody MarkAsReadRequest request) {
+        return new MarkAsReadResponse(notificationService.markAsRead(request.getIds()));
+    }
+
+    @Operation(
+        summary = "Mark all notifications of a recipient as read",
+        description = "Marks every unread notification of the recipient as read in a single update"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Notifications marked as read",
+            content = @Content(schema = @Schema(implementation = MarkAsReadResponse.class))
+        )
+    })
+    @PutMapping("/read-all")
+    public MarkAsReadResponse markAllAsRead(
+            @Parameter(description = "ID of the recipient", required = true)
+            @RequestParam("recipientId") Long recipientId) {
+        return new MarkAsReadResponse(notificationService.markAllAsRead(recipientId));
+    }
+
     @Operation(
         summary = "Delete a notification",
         description = "Deletes a specific notification by its unique identifier"
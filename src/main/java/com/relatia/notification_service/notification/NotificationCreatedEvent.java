@@ -0,0 +1,9 @@
+package com.relatia.notification_service.notification;
+
+/**
+ * Published when a single notification has been created.
+ *
+ * @param notification the created notification
+ */
+public record NotificationCreatedEvent(NotificationResponse notification) {
+}
@@ -0,0 +1,64 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside a recipient's inbox.
+ * The inbox is ordered by {@code (createdAt desc, id desc)}, so the last row of a page
+ * identifies exactly where the next page starts. Clients only ever see the encoded form,
+ * which keeps the cursor opaque and lets the format change without breaking them.
+ *
+ * @param createdAt creation timestamp of the last row returned
+ * @param id        ID of the last row returned, used as a tie-breaker for equal timestamps
+ */
+public record NotificationCursor(LocalDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Build the cursor pointing just past the given notification.
+     *
+     * @param notification the last notification of a page
+     * @return the cursor for the following page
+     */
+    public static NotificationCursor after(NotificationResponse notification) {
+        return new NotificationCursor(notification.getCreatedAt(), notification.getId());
+    }
+
+    /**
+     * Encode this cursor into its opaque, URL-safe representation.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded the opaque cursor sent by the client
+     * @return the decoded cursor
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static NotificationCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new BadRequestException("Invalid cursor: " + encoded);
+            }
+            return new NotificationCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor: " + encoded, ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.relatia.notification_service.notification;
+
+/**
+ * Published when a notification has been deleted.
+ *
+ * @param id the ID of the deleted notification
+ * @param recipientId the recipient of the deleted notification
+ * @param unread whether the notification was still unread when it was deleted
+ */
+public record NotificationDeletedEvent(Long id, Long recipientId, boolean unread) {
+}
@@ -0,0 +1,111 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evicts individual notifications from this node's second-level cache.
+ * <p>
+ * Set-based updates on this node lock the rows they change through {@link #lock}; changes
+ * reported by other nodes are evicted by the notification IDs their bus events carry, and only
+ * events from nodes that do not report IDs evict the whole region. Cache keys carry the tenant of
+ * the session that loaded the entry, so each notification is handled under its own tenant and
+ * under the root pseudo-tenant that background jobs load it as.
+ */
+@Component
+public class NotificationEntityCacheEvictor implements RemoteChangeListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private volatile EntityPersister persister;
+
+    public NotificationEntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Soft-lock notifications that a statement is about to change behind Hibernate's back, as
+     * Hibernate does for an entity update. Until the session's transaction completes, and for
+     * loads that started before it did, readers cannot put the old row back into the cache.
+     *
+     * @param entityManager the entity manager of the transaction making the change
+     * @param tenantId the tenant of the notifications
+     * @param ids the notification IDs
+     */
+    public void lock(EntityManager entityManager, String tenantId, Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister entityPersister = persister();
+        EntityDataAccess cache = entityPersister.getCacheAccessStrategy();
+        Map<Object, SoftLock> locks = new HashMap<>();
+        for (Long id : ids) {
+            for (Object key : keys(entityPersister, tenantId, id)) {
+                locks.put(key, cache.lockItem(session, key, null));
+            }
+        }
+        session.getActionQueue().registerProcess((success, completed) ->
+            locks.forEach((key, lock) -> cache.unlockItem(completed, key, lock)));
+    }
+
+    @Override
+    public void onRemoteCreated(Set<Long> recipientIds, Set<Long> notificationIds) {
+        evictRemote(notificationIds);
+    }
+
+    @Override
+    public void onRemoteRead(Set<Long> recipientIds, Set<Long> notificationIds) {
+        evictRemote(notificationIds);
+    }
+
+    @Override
+    public void onRemoteDeleted(Set<Long> recipientIds, Set<Long> notificationIds) {
+        evictRemote(notificationIds);
+    }
+
+    private void evictRemote(Set<Long> notificationIds) {
+        if (notificationIds == null) {
+            entityManagerFactory.getCache().evict(Notification.class);
+        } else {
+            evictNow(TenantContext.getTenantId(), notificationIds);
+        }
+    }
+
+    private void evictNow(String tenantId, Collection<Long> ids) {
+        EntityPersister entityPersister = persister();
+        EntityDataAccess cache = entityPersister.getCacheAccessStrategy();
+        for (Long id : ids) {
+            for (Object key : keys(entityPersister, tenantId, id)) {
+                cache.evict(key);
+            }
+        }
+    }
+
+    private static List<Object> keys(EntityPersister entityPersister, String tenantId, Long id) {
+        EntityDataAccess cache = entityPersister.getCacheAccessStrategy();
+        SessionFactoryImplementor sessionFactory = entityPersister.getFactory();
+        return List.of(
+            cache.generateCacheKey(id, entityPersister, sessionFactory, tenantId),
+            cache.generateCacheKey(id, entityPersister, sessionFactory, TenantContext.ROOT));
+    }
+
+    private EntityPersister persister() {
+        EntityPersister current = persister;
+        if (current == null) {
+            current = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(Notification.class);
+            persister = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,81 @@
+package com.relatia.notification_service.notification;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service for exporting a recipient's complete notification history.
+ * Rows are streamed from the database and serialized straight to the output, one at a time,
+ * so heap use stays constant regardless of how many notifications a recipient has.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationExportService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Supported export encodings.
+     */
+    public enum ExportFormat {
+        /** One JSON object per line */
+        NDJSON,
+        /** A single JSON array */
+        JSON
+    }
+
+    /**
+     * Write all notifications of a recipient, newest first, to the given output stream.
+     * The stream is flushed but not closed.
+     *
+     * @param recipientId the recipient ID
+     * @param format the output encoding
+     * @param output the stream to write to
+     * @return the number of notifications written
+     * @throws IOException if writing to the output fails
+     */
+    @Transactional(readOnly = true)
+    public long exportNotifications(Long recipientId, ExportFormat format, OutputStream output) throws IOException {
+        long written = 0;
+        try (Stream<Notification> rows = notificationRepository.streamByRecipientId(recipientId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == ExportFormat.JSON) {
+                generator.writeStartArray();
+            }
+
+            Iterator<Notification> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Notification notification = iterator.next();
+                generator.writeObject(notificationMapper.toResponse(notification));
+                if (format == ExportFormat.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                // Detach each row once written so the persistence context does not grow with the export
+                entityManager.detach(notification);
+                written++;
+            }
+
+            if (format == ExportFormat.JSON) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        }
+        log.debug("Exported {} notifications for recipient {}", written, recipientId);
+        return written;
+    }
+}
@@ -0,0 +1,52 @@
+package com.relatia.notification_service.notification;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO summarising the outcome of a newline-delimited JSON import.
+ * Every line not listed as rejected was accepted, unless {@code rejectionsTruncated} is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a newline-delimited JSON notification import")
+public class NotificationImportResponse {
+
+    @Schema(description = "Number of non-blank lines read", example = "1000000")
+    private long linesRead;
+
+    @Schema(description = "Number of notifications stored", example = "999998")
+    private long accepted;
+
+    @Schema(description = "Number of lines rejected", example = "2")
+    private long rejected;
+
+    @Schema(description = "Rejected lines, capped at the configured maximum")
+    private List<LineRejection> rejections;
+
+    @Schema(description = "Whether more lines were rejected than are listed in rejections", example = "false")
+    private boolean rejectionsTruncated;
+
+    /**
+     * A single line that could not be imported.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "A line that could not be imported")
+    public static class LineRejection {
+
+        @Schema(description = "One-based line number in the request body", example = "42")
+        private long line;
+
+        @Schema(description = "Why the line was rejected", example = "title: Title is required")
+        private String reason;
+    }
+}
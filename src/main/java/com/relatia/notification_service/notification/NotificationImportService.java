@@ -0,0 +1,144 @@
+package com.relatia.notification_service.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.template.NotificationTemplateService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for importing notifications from newline-delimited JSON.
+ * The input is consumed line by line and written in fixed-size chunks, each in its own
+ * transaction, so memory use does not depend on the size of the input.
+ */
+@Slf4j
+@Service
+public class NotificationImportService {
+
+    private final NotificationMapper notificationMapper;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final NotificationProperties notificationProperties;
+    private final Validator validator;
+    private final NotificationTemplateService notificationTemplates;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader requestReader;
+
+    public NotificationImportService(NotificationMapper notificationMapper,
+                                     NotificationBatchWriter notificationBatchWriter,
+                                     NotificationProperties notificationProperties,
+                                     Validator validator,
+                                     NotificationTemplateService notificationTemplates,
+                                     ApplicationEventPublisher eventPublisher,
+                                     ObjectMapper objectMapper) {
+        this.notificationMapper = notificationMapper;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.notificationProperties = notificationProperties;
+        this.validator = validator;
+        this.notificationTemplates = notificationTemplates;
+        this.eventPublisher = eventPublisher;
+        this.requestReader = objectMapper.readerFor(NotificationRequest.class);
+    }
+
+    /**
+     * Import notifications from a stream with one {@link NotificationRequest} JSON object per line.
+     * Blank lines are skipped. Lines that are not valid JSON or fail validation are reported and
+     * skipped; all other lines are stored. Chunks committed before a database failure stay committed.
+     *
+     * @param input the newline-delimited JSON stream
+     * @return a summary of accepted and rejected lines
+     * @throws IOException if the stream cannot be read
+     */
+    public NotificationImportResponse importNotifications(InputStream input) throws IOException {
+        NotificationProperties.BulkImport settings = notificationProperties.getBulkImport();
+        int chunkSize = settings.getChunkSize();
+        List<Notification> chunk = new ArrayList<>(chunkSize);
+        List<NotificationImportResponse.LineRejection> rejections = new ArrayList<>();
+        long lineNumber = 0;
+        long linesRead = 0;
+        long accepted = 0;
+        long rejected = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                linesRead++;
+
+                String reason = null;
+                try {
+                    NotificationRequest request = requestReader.readValue(line);
+                    if (request == null) {
+                        reason = "Notification is required";
+                    } else {
+                        reason = describe(validator.validate(request));
+                        if (reason == null) {
+                            chunk.add(notificationMapper.toEntity(notificationTemplates.render(request)));
+                        }
+                    }
+                } catch (JsonProcessingException ex) {
+                    reason = "Malformed JSON: " + ex.getOriginalMessage();
+                } catch (BadRequestException ex) {
+                    reason = ex.getMessage();
+                }
+
+                if (reason != null) {
+                    rejected++;
+                    if (rejections.size() < settings.getMaxReportedRejections()) {
+                        rejections.add(new NotificationImportResponse.LineRejection(lineNumber, reason));
+                    }
+                }
+                if (chunk.size() == chunkSize) {
+                    accepted += writeChunk(chunk);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            accepted += writeChunk(chunk);
+        }
+
+        log.info("Imported {} notifications from {} lines, {} rejected", accepted, linesRead, rejected);
+        return NotificationImportResponse.builder()
+            .linesRead(linesRead)
+            .accepted(accepted)
+            .rejected(rejected)
+            .rejections(rejections)
+            .rejectionsTruncated(rejected > rejections.size())
+            .build();
+    }
+
+    private int writeChunk(List<Notification> chunk) {
+        int written = notificationBatchWriter.insertAll(chunk, chunk.size());
+        eventPublisher.publishEvent(NotificationsCreatedEvent.of(chunk));
+        chunk.clear();
+        return written;
+    }
+
+    private static String describe(Set<ConstraintViolation<NotificationRequest>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+}
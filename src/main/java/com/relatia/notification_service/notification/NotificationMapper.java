@@ -27,6 +27,30 @@ public class NotificationMapper {
                 .message(request.getMessage())
                 .recipientId(request.getRecipientId())
                 .type(request.getType())
+                .dedupKey(request.getDedupKey())
+                .read(false) // New notifications are unread by default
+                .build();
+    }
+
+    /**
+     * Convert a shared NotificationRequest template into a Notification entity for one recipient.
+     * The template's own recipient ID is ignored.
+     *
+     * @param template the notification content shared by all recipients
+     * @param recipientId the recipient of this copy
+     * @return the notification entity
+     */
+    public Notification toEntity(NotificationRequest template, Long recipientId) {
+        if (template == null) {
+            return null;
+        }
+
+        return Notification.builder()
+                .title(template.getTitle())
+                .message(template.getMessage())
+                .recipientId(recipientId)
+                .type(template.getType())
+                .dedupKey(template.getDedupKey())
                 .read(false) // New notifications are unread by default
                 .build();
     }
@@ -49,6 +73,9 @@ public class NotificationMapper {
                 .recipientId(notification.getRecipientId())
                 .read(notification.isRead())
                 .type(notification.getType())
+                .dedupKey(notification.getDedupKey())
+                .occurrences(notification.getOccurrences())
+                .deliveryStatus(notification.getDeliveryStatus())
                 .createdAt(notification.getCreatedAt())
                 .updatedAt(notification.getUpdatedAt())
                 .build();
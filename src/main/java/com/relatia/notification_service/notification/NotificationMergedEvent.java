@@ -0,0 +1,10 @@
+package com.relatia.notification_service.notification;
+
+/**
+ * Published when a repeated notification has been merged into an earlier unread one,
+ * replacing its title and message.
+ *
+ * @param notification the notification merged into
+ */
+public record NotificationMergedEvent(NotificationResponse notification) {
+}
@@ -0,0 +1,132 @@
+package com.relatia.notification_service.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the notification service operations.
+ * <p>
+ * Every meter is registered once, up front, and looked up by enum ordinal, so recording is a
+ * plain array access and an update of the meter: no tags, builders or samples are created per
+ * call. Together with {@code http.server.requests} (the whole request including serialization)
+ * and {@code spring.data.repository.invocations} (the repository calls), the
+ * {@code notification.operation} timers tell where the time of a request goes.
+ */
+@Component
+public class NotificationMetrics {
+
+    /**
+     * The timed service operations, tagged {@code operation} on {@code notification.operation}.
+     */
+    public enum Operation {
+        CREATE, CREATE_BATCH, READ, LIST, PAGE, SEARCH, COUNT, SUMMARY, MARK_READ, DELETE;
+
+        final String tagValue = name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * The list queries whose result sizes are tracked, tagged {@code query} on {@code notification.query.results}.
+     */
+    public enum Query {
+        ALL, UNREAD, PAGE, SEARCH;
+
+        final String tagValue = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final Timer[] operationTimers = new Timer[Operation.values().length];
+    private final DistributionSummary[] resultSizes = new DistributionSummary[Query.values().length];
+    private final Counter[] createdCounters = new Counter[Notification.NotificationType.values().length];
+    private final DistributionSummary recipientRows;
+    private final Counter markedReadCounter;
+
+    public NotificationMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            operationTimers[operation.ordinal()] = Timer.builder("notification.operation")
+                .description("Latency of notification service operations")
+                .tag("operation", operation.tagValue)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+        }
+        for (Query query : Query.values()) {
+            resultSizes[query.ordinal()] = DistributionSummary.builder("notification.query.results")
+                .description("Number of notifications returned by list queries")
+                .baseUnit("notifications")
+                .tag("query", query.tagValue)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(10_000d)
+                .register(meterRegistry);
+        }
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            createdCounters[type.ordinal()] = Counter.builder("notification.created")
+                .description("Notifications created")
+                .tag("type", type.name())
+                .register(meterRegistry);
+        }
+        this.recipientRows = DistributionSummary.builder("notification.recipient.rows")
+            .description("Number of notifications stored for a recipient, sampled on reads")
+            .baseUnit("notifications")
+            .publishPercentiles(0.5, 0.9, 0.99)
+            .publishPercentileHistogram()
+            .maximumExpectedValue(100_000d)
+            .register(meterRegistry);
+        this.markedReadCounter = Counter.builder("notification.marked-read")
+            .description("Notifications changed from unread to read")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record the duration of an operation.
+     *
+     * @param operation the operation
+     * @param startNanos the {@link System#nanoTime()} taken when the operation started
+     */
+    public void record(Operation operation, long startNanos) {
+        operationTimers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the number of notifications a list query returned.
+     *
+     * @param query the query
+     * @param size the number of notifications returned
+     */
+    public void recordResults(Query query, int size) {
+        resultSizes[query.ordinal()].record(size);
+    }
+
+    /**
+     * Record the total number of notifications stored for a recipient.
+     *
+     * @param rows the number of notifications
+     */
+    public void recordRecipientRows(long rows) {
+        recipientRows.record(rows);
+    }
+
+    /**
+     * Count a created notification.
+     *
+     * @param type the notification type
+     */
+    public void created(Notification.NotificationType type) {
+        createdCounters[type.ordinal()].increment();
+    }
+
+    /**
+     * Count notifications changed from unread to read.
+     *
+     * @param count the number of notifications
+     */
+    public void markedRead(int count) {
+        markedReadCounter.increment(count);
+    }
+}
@@ -0,0 +1,30 @@
+package com.relatia.notification_service.notification;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one keyset-paginated slice of a recipient's notifications.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of notifications with a cursor to the next page")
+public class NotificationPage {
+
+    @Schema(description = "Notifications on this page, newest first")
+    private List<NotificationResponse> items;
+
+    @Schema(description = "Opaque cursor for the next page, absent when this is the last page",
+            example = "MjAyMy0wNy0yN1QxMDoxNTozMHw0Mg")
+    private String nextCursor;
+
+    @Schema(description = "Whether more notifications are available after this page", example = "true")
+    private boolean hasMore;
+}
@@ -1,31 +1,180 @@
 package com.relatia.notification_service.notification;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for managing notification data.
  */
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationBulkUpdates {
     
     /**
-     * Find all notifications for a specific recipient.
+     * Select clause shared by the list queries: rows are read straight into
+     * {@link NotificationResponse} through its all-arguments constructor, so no entity is
+     * hydrated, registered in the persistence context or dirty-checked. The message is cut to
+     * {@code :messageLength} characters in the database, so summaries do not transfer the full
+     * text. Hibernate validates the constructor call when the repository starts.
+     */
+    String RESPONSE_SELECT = """
+            select new com.relatia.notification_service.notification.NotificationResponse(
+                n.id, n.title, left(n.message, :messageLength), n.recipientId, n.read, n.type,
+                n.dedupKey, n.occurrences, n.deliveryStatus, n.createdAt, n.updatedAt)
+            """;
+
+    /**
+     * Find all notifications for a specific recipient, newest first.
      *
      * @param recipientId the ID of the recipient
+     * @param messageLength the maximum number of message characters to return
      * @return list of notifications for the recipient
      */
-    List<Notification> findByRecipientIdOrderByCreatedAtDesc(Long recipientId);
-    
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.recipientId = :recipientId
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationResponse> findAllByRecipientId(@Param("recipientId") Long recipientId,
+                                                    @Param("messageLength") int messageLength);
+
     /**
-     * Find all unread notifications for a specific recipient.
+     * Find all unread notifications for a specific recipient, newest first.
      *
      * @param recipientId the ID of the recipient
+     * @param messageLength the maximum number of message characters to return
      * @return list of unread notifications for the recipient
      */
-    List<Notification> findByRecipientIdAndReadFalseOrderByCreatedAtDesc(Long recipientId);
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.recipientId = :recipientId and n.read = false
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationResponse> findUnreadByRecipientId(@Param("recipientId") Long recipientId,
+                                                       @Param("messageLength") int messageLength);
+
+    /**
+     * Find the first page of a recipient's notifications, newest first.
+     *
+     * @param recipientId the ID of the recipient
+     * @param messageLength the maximum number of message characters to return
+     * @param limit the maximum number of rows to return
+     * @return the newest notifications for the recipient
+     */
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.recipientId = :recipientId
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationResponse> findFirstPage(@Param("recipientId") Long recipientId,
+                                             @Param("messageLength") int messageLength,
+                                             Limit limit);
+
+    /**
+     * Find the page of a recipient's notifications that follows the given keyset position.
+     *
+     * @param recipientId the ID of the recipient
+     * @param createdAt creation timestamp of the last row of the previous page
+     * @param id ID of the last row of the previous page
+     * @param messageLength the maximum number of message characters to return
+     * @param limit the maximum number of rows to return
+     * @return the notifications strictly older than the given position
+     */
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.recipientId = :recipientId
+              and (n.createdAt, n.id) < (:createdAt, :id)
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationResponse> findPageAfter(@Param("recipientId") Long recipientId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             @Param("messageLength") int messageLength,
+                                             Limit limit);
+
+    /**
+     * Find the first page of a recipient's unread notifications, newest first.
+     *
+     * @param recipientId the ID of the recipient
+     * @param messageLength the maximum number of message characters to return
+     * @param limit the maximum number of rows to return
+     * @return the newest unread notifications for the recipient
+     */
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.recipientId = :recipientId and n.read = false
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationResponse> findFirstUnreadPage(@Param("recipientId") Long recipientId,
+                                                   @Param("messageLength") int messageLength,
+                                                   Limit limit);
+
+    /**
+     * Find the page of a recipient's unread notifications that follows the given keyset position.
+     *
+     * @param recipientId the ID of the recipient
+     * @param createdAt creation timestamp of the last row of the previous page
+     * @param id ID of the last row of the previous page
+     * @param messageLength the maximum number of message characters to return
+     * @param limit the maximum number of rows to return
+     * @return the unread notifications strictly older than the given position
+     */
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.recipientId = :recipientId and n.read = false
+              and (n.createdAt, n.id) < (:createdAt, :id)
+            order by n.createdAt desc, n.id desc
+            """)
+    List<NotificationResponse> findUnreadPageAfter(@Param("recipientId") Long recipientId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   @Param("messageLength") int messageLength,
+                                                   Limit limit);
+    
+    /**
+     * Find notifications by ID, oldest first. IDs of notifications that no longer exist are skipped.
+     *
+     * @param ids the notification IDs
+     * @param messageLength the maximum number of message characters to return
+     * @return the notifications found
+     */
+    @Query(RESPONSE_SELECT + """
+            from Notification n
+            where n.id in :ids
+            order by n.createdAt, n.id
+            """)
+    List<NotificationResponse> findAllByIdIn(@Param("ids") Collection<Long> ids,
+                                             @Param("messageLength") int messageLength);
+
+    /**
+     * Stream all notifications for a recipient, newest first, without materializing them in a list.
+     * Rows are fetched from the driver in blocks and loaded read-only, so Hibernate keeps no
+     * dirty-checking snapshots. Must be consumed inside a transaction and closed afterwards.
+     *
+     * @param recipientId the ID of the recipient
+     * @return a stream over the recipient's notifications
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select n from Notification n
+            where n.recipientId = :recipientId
+            order by n.createdAt desc, n.id desc
+            """)
+    Stream<Notification> streamByRecipientId(@Param("recipientId") Long recipientId);
     
     /**
      * Count all notifications for a specific recipient.
@@ -42,4 +191,49 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * @return count of unread notifications for the recipient
      */
     long countByRecipientIdAndReadFalse(Long recipientId);
-}
+
+    /**
+     * Count a recipient's notifications and unread notifications per type in one grouped query.
+     * Types without notifications have no row.
+     *
+     * @param recipientId the ID of the recipient
+     * @return rows of {@code [type, count, unreadCount]}
+     */
+    @Query("""
+            select n.type, count(n), sum(case when n.read = false then 1 else 0 end) from Notification n
+            where n.recipientId = :recipientId
+            group by n.type
+            """)
+    List<Object[]> countByTypeForRecipient(@Param("recipientId") Long recipientId);
+
+    /**
+     * Find the IDs of a recipient's unread notifications.
+     *
+     * @param recipientId the ID of the recipient
+     * @param limit the maximum number of IDs to return
+     * @return the IDs of the unread notifications
+     */
+    @Query("select n.id from Notification n where n.recipientId = :recipientId and n.read = false")
+    List<Long> findUnreadIdsByRecipientId(@Param("recipientId") Long recipientId, Limit limit);
+
+    /**
+     * Find the newest unread notification a new one with the same dedup key can be merged into.
+     *
+     * @param recipientId the ID of the recipient
+     * @param type the notification type
+     * @param dedupKey the dedup key
+     * @param since the oldest creation time that still counts as a repeat
+     * @return the notification to merge into, if any
+     */
+    @Query("""
+            select n from Notification n
+            where n.recipientId = :recipientId and n.type = :type and n.dedupKey = :dedupKey
+              and n.read = false and n.createdAt >= :since
+            order by n.createdAt desc
+            limit 1
+            """)
+    Optional<Notification> findCoalescingCandidate(@Param("recipientId") Long recipientId,
+                                                   @Param("type") Notification.NotificationType type,
+                                                   @Param("dedupKey") String dedupKey,
+                                                   @Param("since") LocalDateTime since);
+}
\ No newline at end of file
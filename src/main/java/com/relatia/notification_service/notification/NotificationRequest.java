@@ -1,24 +1,26 @@
 package com.relatia.notification_service.notification;
 
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
+import java.util.Map;
+
 /**
  * DTO for creating or updating a notification.
+ * The content is either given as {@code title} and {@code message}, or rendered from the template
+ * {@code templateId} with {@code variables}.
  */
 @Data
+@NotificationContent
 @Schema(description = "Request object for creating or updating a notification")
 public class NotificationRequest {
 
-    @NotBlank(message = "Title is required")
     @Size(max = 100, message = "Title must not exceed 100 characters")
     @Schema(description = "Title of the notification", example = "New Message")
     private String title;
 
-    @NotBlank(message = "Message is required")
     @Schema(description = "Content of the notification", example = "You have a new message from John Doe")
     private String message;
 
@@ -28,4 +30,18 @@ public class NotificationRequest {
 
     @Schema(description = "Type of the notification", example = "EMAIL")
     private Notification.NotificationType type = Notification.NotificationType.SYSTEM;
+
+    @Size(max = 100, message = "Dedup key must not exceed 100 characters")
+    @Schema(description = "Optional key identifying repeats of the same notification; repeats for the same " +
+            "recipient and type within the coalescing window are merged into one notification",
+            example = "invoice-4711-overdue")
+    private String dedupKey;
+
+    @Size(max = 100, message = "Template ID must not exceed 100 characters")
+    @Schema(description = "ID of a notification template to render title and message from, instead of sending them",
+            example = "invoice-overdue")
+    private String templateId;
+
+    @Schema(description = "Values of the template's variables", example = "{\"firstName\": \"Jane\", \"invoiceNumber\": \"4711\"}")
+    private Map<String, String> variables;
 }
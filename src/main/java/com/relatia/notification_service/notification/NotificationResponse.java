@@ -37,6 +37,15 @@ public class NotificationResponse {
     @Schema(description = "Type of the notification", example = "SYSTEM")
     private Notification.NotificationType type;
 
+    @Schema(description = "Key identifying repeats of the same notification", example = "invoice-4711-overdue")
+    private String dedupKey;
+
+    @Schema(description = "Number of notifications coalesced into this one", example = "1")
+    private int occurrences;
+
+    @Schema(description = "Delivery status over the notification's channel", example = "SENT")
+    private Notification.DeliveryStatus deliveryStatus;
+
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     @Schema(description = "Timestamp when the notification was created", example = "2023-07-27T10:15:30")
     private LocalDateTime createdAt;
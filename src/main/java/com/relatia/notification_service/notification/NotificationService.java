@@ -1,49 +1,193 @@
 package com.relatia.notification_service.notification;
 
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.delivery.DeliveryOutbox;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.exception.ApiValidationError;
 import com.relatia.notification_service.exception.ResourceNotFoundException;
+import com.relatia.notification_service.exception.TooManyRequestsException;
+import com.relatia.notification_service.template.NotificationTemplateService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing notifications.
+ * Queries run in read-only transactions: Hibernate skips dirty-check snapshots and flushes, and
+ * when a read replica is configured they are served from it.
  */
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    /** Notifications marked as read per UPDATE when marking a whole inbox, bounding the IN list */
+    private static final int MARK_READ_CHUNK_SIZE = 1_000;
+
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
+    private final NotificationProperties notificationProperties;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final Validator validator;
+    private final UnreadCountCache unreadCountCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeliveryOutbox deliveryOutbox;
+    private final NotificationCoalescer notificationCoalescer;
+    private final RecipientRateLimiter recipientRateLimiter;
+    private final NotificationMetrics metrics;
+    private final NotificationTemplateService notificationTemplates;
 
     /**
-     * Create a new notification.
+     * Create a new notification and schedule its delivery over the notification's channel.
+     * Delivery happens asynchronously once the transaction commits.
+     * A notification with a dedup key that repeats an unread one within the coalescing window is
+     * merged into it instead; otherwise the recipient's rate limit applies.
+     * A request that references a template is rendered first.
      *
      * @param request the notification request
-     * @return the created notification response
+     * @return the created or merged notification response
+     * @throws BadRequestException if the referenced template cannot be rendered
+     * @throws TooManyRequestsException if the recipient has exceeded the rate limit
      */
     @Transactional
     public NotificationResponse createNotification(NotificationRequest request) {
-        Notification notification = notificationMapper.toEntity(request);
-        Notification savedNotification = notificationRepository.save(notification);
-        return notificationMapper.toResponse(savedNotification);
+        long start = System.nanoTime();
+        try {
+            request = notificationTemplates.render(request);
+            Optional<Notification> merged = notificationCoalescer.merge(request);
+            if (merged.isPresent()) {
+                NotificationResponse response = notificationMapper.toResponse(merged.get());
+                eventPublisher.publishEvent(new NotificationMergedEvent(response));
+                return response;
+            }
+            long waitNanos = recipientRateLimiter.tryAcquire(request.getRecipientId());
+            if (waitNanos > 0) {
+                throw new TooManyRequestsException("Too many notifications for recipient " + request.getRecipientId(),
+                    Duration.ofNanos(waitNanos));
+            }
+            Notification notification = notificationMapper.toEntity(request);
+            Notification savedNotification = notificationRepository.save(notification);
+            deliveryOutbox.enqueue(savedNotification);
+            NotificationResponse response = notificationMapper.toResponse(savedNotification);
+            eventPublisher.publishEvent(new NotificationCreatedEvent(response));
+            metrics.created(savedNotification.getType());
+            return response;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.CREATE, start);
+        }
+    }
+
+    /**
+     * Create many notifications at once.
+     * Items are validated one by one; invalid items are reported back while all valid items
+     * are inserted in a single transaction using JDBC batching.
+     *
+     * @param request the batch request, either a template with recipients or a list of notifications
+     * @return a summary of accepted and rejected items
+     * @throws BadRequestException if the request shape is invalid or exceeds the maximum batch size
+     */
+    @Transactional
+    public NotificationBatchResponse createNotifications(NotificationBatchRequest request) {
+        long start = System.nanoTime();
+        try {
+            return insertBatch(request);
+        } finally {
+            metrics.record(NotificationMetrics.Operation.CREATE_BATCH, start);
+        }
+    }
+
+    private NotificationBatchResponse insertBatch(NotificationBatchRequest request) {
+        boolean templated = request.getTemplate() != null || request.getRecipientIds() != null;
+        boolean listed = request.getNotifications() != null;
+        if (templated == listed) {
+            throw new BadRequestException("Provide either template with recipientIds, or notifications");
+        }
+
+        int requested = templated ? sizeOf(request.getRecipientIds()) : request.getNotifications().size();
+        if (requested > notificationProperties.getBatch().getMaxSize()) {
+            throw new BadRequestException("Batch size " + requested + " exceeds the maximum of "
+                + notificationProperties.getBatch().getMaxSize());
+        }
+
+        List<Notification> accepted = new ArrayList<>(requested);
+        List<NotificationBatchResponse.ItemFailure> failures = new ArrayList<>();
+        if (templated) {
+            collectTemplated(request.getTemplate(), request.getRecipientIds(), accepted, failures);
+        } else {
+            collectListed(request.getNotifications(), accepted, failures);
+        }
+
+        notificationBatchWriter.insertAll(accepted, notificationProperties.getBatch().getChunkSize());
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(NotificationsCreatedEvent.of(accepted));
+        }
+        for (Notification notification : accepted) {
+            metrics.created(notification.getType());
+        }
+        return NotificationBatchResponse.builder()
+            .requested(requested)
+            .accepted(accepted.size())
+            .rejected(failures.size())
+            .failures(failures)
+            .build();
     }
 
     /**
      * Get a notification by ID.
+     * Not read-only, so it runs on the primary: the entity is served from and put into the
+     * second-level cache, which must not be filled from a lagging replica.
      *
      * @param id the notification ID
      * @return the notification response
      * @throws ResourceNotFoundException if notification is not found
      */
+    @Transactional
     public NotificationResponse getNotificationById(Long id) {
-        Notification notification = notificationRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
-        return notificationMapper.toResponse(notification);
+        long start = System.nanoTime();
+        try {
+            Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
+            return notificationMapper.toResponse(notification);
+        } finally {
+            metrics.record(NotificationMetrics.Operation.READ, start);
+        }
+    }
+
+    /**
+     * Get notifications by ID, oldest first. Notifications that no longer exist are skipped.
+     * Not read-only, so it runs on the primary: it serves changes that were just announced, which
+     * a lagging replica may not have yet.
+     *
+     * @param ids the notification IDs
+     * @return the notifications found
+     */
+    @Transactional
+    public List<NotificationResponse> getNotificationsByIds(Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            return ids.isEmpty() ? List.of()
+                : notificationRepository.findAllByIdIn(ids, notificationProperties.getPagination().messageLength(false));
+        } finally {
+            metrics.record(NotificationMetrics.Operation.LIST, start);
+        }
     }
 
     /**
@@ -52,10 +196,31 @@ public class NotificationService {
      * @param recipientId the recipient ID
      * @return list of notification responses
      */
+    @Transactional(readOnly = true)
     public List<NotificationResponse> getNotificationsByRecipientId(Long recipientId) {
-        return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId).stream()
-            .map(notificationMapper::toResponse)
-            .collect(Collectors.toList());
+        return getNotificationsByRecipientId(recipientId, false);
+    }
+
+    /**
+     * Get all notifications for a recipient.
+     * Rows are projected straight into responses without loading entities.
+     *
+     * @param recipientId the recipient ID
+     * @param summary whether to cut each message to the configured summary length
+     * @return list of notification responses
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getNotificationsByRecipientId(Long recipientId, boolean summary) {
+        long start = System.nanoTime();
+        try {
+            List<NotificationResponse> notifications = notificationRepository
+                .findAllByRecipientId(recipientId, notificationProperties.getPagination().messageLength(summary));
+            metrics.recordResults(NotificationMetrics.Query.ALL, notifications.size());
+            metrics.recordRecipientRows(notifications.size());
+            return notifications;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.LIST, start);
+        }
     }
 
     /**
@@ -64,10 +229,100 @@ public class NotificationService {
      * @param recipientId the recipient ID
      * @return list of unread notification responses
      */
+    @Transactional(readOnly = true)
     public List<NotificationResponse> getUnreadNotifications(Long recipientId) {
-        return notificationRepository.findByRecipientIdAndReadFalseOrderByCreatedAtDesc(recipientId).stream()
-            .map(notificationMapper::toResponse)
-            .collect(Collectors.toList());
+        return getUnreadNotifications(recipientId, false);
+    }
+
+    /**
+     * Get all unread notifications for a recipient.
+     * Rows are projected straight into responses without loading entities.
+     *
+     * @param recipientId the recipient ID
+     * @param summary whether to cut each message to the configured summary length
+     * @return list of unread notification responses
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getUnreadNotifications(Long recipientId, boolean summary) {
+        long start = System.nanoTime();
+        try {
+            List<NotificationResponse> notifications = notificationRepository
+                .findUnreadByRecipientId(recipientId, notificationProperties.getPagination().messageLength(summary));
+            metrics.recordResults(NotificationMetrics.Query.UNREAD, notifications.size());
+            return notifications;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.LIST, start);
+        }
+    }
+
+    /**
+     * Get one page of a recipient's notifications using keyset pagination.
+     * Each page is a bounded index range scan on {@code (createdAt, id)}, so its cost does not
+     * depend on how deep the cursor is.
+     *
+     * @param recipientId the recipient ID
+     * @param unread whether to return unread notifications only
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the requested page size, or {@code null} for the configured default
+     * @return the page of notification responses
+     */
+    @Transactional(readOnly = true)
+    public NotificationPage getNotificationPage(Long recipientId, boolean unread, String cursor, Integer limit) {
+        return getNotificationPage(recipientId, unread, cursor, limit, false);
+    }
+
+    /**
+     * Get one page of a recipient's notifications using keyset pagination.
+     * Rows are projected straight into responses without loading entities.
+     *
+     * @param recipientId the recipient ID
+     * @param unread whether to return unread notifications only
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the requested page size, or {@code null} for the configured default
+     * @param summary whether to cut each message to the configured summary length
+     * @return the page of notification responses
+     */
+    @Transactional(readOnly = true)
+    public NotificationPage getNotificationPage(Long recipientId, boolean unread, String cursor, Integer limit,
+                                                boolean summary) {
+        long start = System.nanoTime();
+        try {
+            int messageLength = notificationProperties.getPagination().messageLength(summary);
+            NotificationPage page = findPage(recipientId, unread, cursor, limit, messageLength);
+            metrics.recordResults(NotificationMetrics.Query.PAGE, page.getItems().size());
+            return page;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.PAGE, start);
+        }
+    }
+
+    private NotificationPage findPage(Long recipientId, boolean unread, String cursor, Integer limit,
+                                      int messageLength) {
+        int pageSize = notificationProperties.getPagination().resolveLimit(limit);
+        // Fetch one extra row to find out whether another page exists without a count query
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<NotificationResponse> rows;
+        if (StringUtils.hasText(cursor)) {
+            NotificationCursor position = NotificationCursor.decode(cursor);
+            rows = unread
+                ? notificationRepository.findUnreadPageAfter(
+                    recipientId, position.createdAt(), position.id(), messageLength, fetchLimit)
+                : notificationRepository.findPageAfter(
+                    recipientId, position.createdAt(), position.id(), messageLength, fetchLimit);
+        } else {
+            rows = unread
+                ? notificationRepository.findFirstUnreadPage(recipientId, messageLength, fetchLimit)
+                : notificationRepository.findFirstPage(recipientId, messageLength, fetchLimit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationResponse> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return NotificationPage.builder()
+            .items(page)
+            .nextCursor(hasMore ? NotificationCursor.after(page.get(pageSize - 1)).encode() : null)
+            .hasMore(hasMore)
+            .build();
     }
 
     /**
@@ -78,15 +333,94 @@ public class NotificationService {
      */
     @Transactional
     public NotificationResponse markAsRead(Long id) {
-        Notification notification = notificationRepository.findById(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
-        
-        if (!notification.isRead()) {
-            notification.setRead(true);
-            notification = notificationRepository.save(notification);
+        long start = System.nanoTime();
+        try {
+            Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
+
+            if (!notification.isRead()) {
+                notification.setRead(true);
+                notification = notificationRepository.save(notification);
+                eventPublisher.publishEvent(
+                    NotificationsReadEvent.of(Map.of(notification.getRecipientId(), List.of(id))));
+                metrics.markedRead(1);
+            }
+
+            return notificationMapper.toResponse(notification);
+        } finally {
+            metrics.record(NotificationMetrics.Operation.MARK_READ, start);
+        }
+    }
+
+    /**
+     * Mark several notifications as read with set-based UPDATEs, one per chunk of IDs.
+     * Entities are not loaded; IDs that do not exist or are already read are skipped, and only the
+     * notifications this call changed are counted and announced.
+     *
+     * @param ids the notification IDs
+     * @return the number of notifications that changed from unread to read
+     */
+    @Transactional
+    public int markAsRead(List<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<Long>> readByRecipient = new HashMap<>();
+            int updated = 0;
+            for (int from = 0; from < ids.size(); from += MARK_READ_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + MARK_READ_CHUNK_SIZE, ids.size()));
+                for (Map.Entry<Long, List<Long>> read : notificationRepository.markAsReadByIds(chunk, now).entrySet()) {
+                    readByRecipient.computeIfAbsent(read.getKey(), recipientId -> new ArrayList<>()).addAll(read.getValue());
+                    updated += read.getValue().size();
+                }
+            }
+            if (updated > 0) {
+                eventPublisher.publishEvent(NotificationsReadEvent.of(readByRecipient));
+                metrics.markedRead(updated);
+            }
+            return updated;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.MARK_READ, start);
+        }
+    }
+
+    /**
+     * Mark every unread notification of a recipient as read with one set-based UPDATE.
+     * Up to a chunk of unread IDs is read first: if that is all of them, they are updated by ID so
+     * only those rows are evicted from the entity cache and notifications arriving in between stay
+     * unread. Otherwise the recipient's rows are updated as a whole and the entity cache region is evicted.
+     *
+     * @param recipientId the recipient ID
+     * @return the number of notifications that changed from unread to read
+     */
+    @Transactional
+    public int markAllAsRead(Long recipientId) {
+        long start = System.nanoTime();
+        try {
+            List<Long> unreadIds = notificationRepository.findUnreadIdsByRecipientId(
+                recipientId, Limit.of(MARK_READ_CHUNK_SIZE + 1));
+            if (unreadIds.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            int updated;
+            NotificationsReadEvent event;
+            if (unreadIds.size() <= MARK_READ_CHUNK_SIZE) {
+                Map<Long, List<Long>> readByRecipient = notificationRepository.markAsReadByIds(unreadIds, now);
+                updated = readByRecipient.values().stream().mapToInt(List::size).sum();
+                event = NotificationsReadEvent.of(readByRecipient);
+            } else {
+                updated = notificationRepository.markAllAsReadByRecipientId(recipientId, now);
+                event = new NotificationsReadEvent(Map.of(recipientId, (long) updated), null);
+            }
+            if (updated > 0) {
+                eventPublisher.publishEvent(event);
+                metrics.markedRead(updated);
+            }
+            return updated;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.MARK_READ, start);
         }
-        
-        return notificationMapper.toResponse(notification);
     }
 
     /**
@@ -96,20 +430,33 @@ public class NotificationService {
      */
     @Transactional
     public void deleteNotification(Long id) {
-        if (!notificationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Notification not found with id: " + id);
+        long start = System.nanoTime();
+        try {
+            Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
+            notificationRepository.delete(notification);
+            eventPublisher.publishEvent(
+                new NotificationDeletedEvent(id, notification.getRecipientId(), !notification.isRead()));
+        } finally {
+            metrics.record(NotificationMetrics.Operation.DELETE, start);
         }
-        notificationRepository.deleteById(id);
     }
 
     /**
      * Get count of unread notifications for a recipient.
+     * Served from {@link UnreadCountCache}, falling back to the database on a miss.
+     * Misses are loaded from the primary, so a lagging replica cannot leave a stale count cached.
      *
      * @param recipientId the recipient ID
      * @return count of unread notifications
      */
     public long getUnreadCount(Long recipientId) {
-        return notificationRepository.countByRecipientIdAndReadFalse(recipientId);
+        long start = System.nanoTime();
+        try {
+            return unreadCountCache.get(recipientId, notificationRepository::countByRecipientIdAndReadFalse);
+        } finally {
+            metrics.record(NotificationMetrics.Operation.COUNT, start);
+        }
     }
     
     /**
@@ -118,7 +465,120 @@ public class NotificationService {
      * @param recipientId the recipient ID
      * @return count of notifications for the recipient
      */
+    @Transactional(readOnly = true)
     public long getCountByRecipientId(Long recipientId) {
-        return notificationRepository.countByRecipientId(recipientId);
+        long start = System.nanoTime();
+        try {
+            long count = notificationRepository.countByRecipientId(recipientId);
+            metrics.recordRecipientRows(count);
+            return count;
+        } finally {
+            metrics.record(NotificationMetrics.Operation.COUNT, start);
+        }
+    }
+
+    /**
+     * Get the total, unread and per-type counts of a recipient's notifications.
+     * All counts come from a single grouped query, so they are consistent with each other.
+     *
+     * @param recipientId the recipient ID
+     * @return the recipient's summary
+     */
+    @Transactional(readOnly = true)
+    public NotificationSummary getSummary(Long recipientId) {
+        long start = System.nanoTime();
+        try {
+            Map<Notification.NotificationType, Long> byType = new EnumMap<>(Notification.NotificationType.class);
+            Map<Notification.NotificationType, Long> unreadByType = new EnumMap<>(Notification.NotificationType.class);
+            for (Notification.NotificationType type : Notification.NotificationType.values()) {
+                byType.put(type, 0L);
+                unreadByType.put(type, 0L);
+            }
+            long total = 0;
+            long unread = 0;
+            for (Object[] row : notificationRepository.countByTypeForRecipient(recipientId)) {
+                Notification.NotificationType type = (Notification.NotificationType) row[0];
+                long count = ((Number) row[1]).longValue();
+                long unreadCount = ((Number) row[2]).longValue();
+                byType.put(type, count);
+                unreadByType.put(type, unreadCount);
+                total += count;
+                unread += unreadCount;
+            }
+            metrics.recordRecipientRows(total);
+            return NotificationSummary.builder()
+                .recipientId(recipientId)
+                .total(total)
+                .unread(unread)
+                .byType(byType)
+                .unreadByType(unreadByType)
+                .build();
+        } finally {
+            metrics.record(NotificationMetrics.Operation.SUMMARY, start);
+        }
+    }
+
+    private void collectTemplated(NotificationRequest template, List<Long> recipientIds,
+                                  List<Notification> accepted, List<NotificationBatchResponse.ItemFailure> failures) {
+        if (template == null || recipientIds == null) {
+            throw new BadRequestException("Both template and recipientIds are required for a templated batch");
+        }
+        // The template is shared by every item, so validate and render its content once instead of per recipient
+        List<ApiValidationError> templateErrors = toApiErrors(validator.validate(template)).stream()
+            .filter(error -> !"recipientId".equals(error.getField()))
+            .collect(Collectors.toList());
+        if (!templateErrors.isEmpty()) {
+            throw new BadRequestException("Invalid template: " + templateErrors.stream()
+                .map(error -> error.getField() + " " + error.getMessage())
+                .collect(Collectors.joining(", ")));
+        }
+        NotificationRequest content = notificationTemplates.render(template);
+
+        for (int i = 0; i < recipientIds.size(); i++) {
+            Long recipientId = recipientIds.get(i);
+            if (recipientId == null) {
+                failures.add(new NotificationBatchResponse.ItemFailure(i, List.of(new ApiValidationError(
+                    "NotificationBatchRequest", "recipientIds[" + i + "]", null, "Recipient ID is required"))));
+            } else {
+                accepted.add(notificationMapper.toEntity(content, recipientId));
+            }
+        }
+    }
+
+    private void collectListed(List<NotificationRequest> notifications,
+                               List<Notification> accepted, List<NotificationBatchResponse.ItemFailure> failures) {
+        for (int i = 0; i < notifications.size(); i++) {
+            NotificationRequest item = notifications.get(i);
+            List<ApiValidationError> errors = item == null
+                ? List.of(new ApiValidationError("NotificationRequest", "Notification is required"))
+                : toApiErrors(validator.validate(item));
+            if (errors.isEmpty()) {
+                try {
+                    accepted.add(notificationMapper.toEntity(notificationTemplates.render(item)));
+                } catch (BadRequestException ex) {
+                    errors = List.of(new ApiValidationError(
+                        "NotificationRequest", "templateId", item.getTemplateId(), ex.getMessage()));
+                }
+            }
+            if (!errors.isEmpty()) {
+                failures.add(new NotificationBatchResponse.ItemFailure(i, errors));
+            }
+        }
+    }
+
+    private static List<ApiValidationError> toApiErrors(Set<ConstraintViolation<NotificationRequest>> violations) {
+        List<ApiValidationError> errors = new ArrayList<>(violations.size());
+        for (ConstraintViolation<NotificationRequest> violation : violations) {
+            errors.add(new ApiValidationError(
+                NotificationRequest.class.getSimpleName(),
+                violation.getPropertyPath().toString(),
+                violation.getInvalidValue(),
+                violation.getMessage()));
+        }
+        return errors;
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
     }
 }
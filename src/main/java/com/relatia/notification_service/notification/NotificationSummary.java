@@ -0,0 +1,37 @@
+package com.relatia.notification_service.notification;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO with the notification counts of a recipient's inbox, in total and per type.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Notification counts of a recipient, in total and per type")
+public class NotificationSummary {
+
+    @Schema(description = "ID of the recipient", example = "123")
+    private Long recipientId;
+
+    @Schema(description = "Number of notifications", example = "42")
+    private long total;
+
+    @Schema(description = "Number of unread notifications", example = "5")
+    private long unread;
+
+    @Schema(description = "Number of notifications per type; every type is listed, with zero if it has none",
+            example = "{\"EMAIL\": 30, \"SMS\": 0, \"PUSH\": 10, \"SYSTEM\": 2}")
+    private Map<Notification.NotificationType, Long> byType;
+
+    @Schema(description = "Number of unread notifications per type; every type is listed, with zero if it has none",
+            example = "{\"EMAIL\": 3, \"SMS\": 0, \"PUSH\": 2, \"SYSTEM\": 0}")
+    private Map<Notification.NotificationType, Long> unreadByType;
+}
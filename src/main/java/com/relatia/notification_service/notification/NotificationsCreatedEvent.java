@@ -0,0 +1,28 @@
+package com.relatia.notification_service.notification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Published when notifications have been created in bulk.
+ *
+ * @param countsByRecipient number of new (unread) notifications per recipient ID
+ * @param notifications the stored notifications, for listeners that need their content
+ */
+public record NotificationsCreatedEvent(Map<Long, Long> countsByRecipient, List<Notification> notifications) {
+
+    /**
+     * Build the event for a set of newly stored notifications.
+     *
+     * @param notifications the stored notifications
+     * @return the event
+     */
+    public static NotificationsCreatedEvent of(Collection<Notification> notifications) {
+        // Copied, since callers may reuse their collection before after-commit listeners run
+        return new NotificationsCreatedEvent(notifications.stream()
+            .collect(Collectors.groupingBy(Notification::getRecipientId, Collectors.counting())),
+            List.copyOf(notifications));
+    }
+}
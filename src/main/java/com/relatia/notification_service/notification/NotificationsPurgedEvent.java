@@ -0,0 +1,20 @@
+package com.relatia.notification_service.notification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published when old notifications have been removed by the retention purger.
+ *
+ * @param unreadCountsByRecipient number of removed notifications that were still unread, per recipient ID
+ * @param idsByRecipient the IDs of all removed notifications, per recipient ID
+ */
+public record NotificationsPurgedEvent(Map<Long, Long> unreadCountsByRecipient, Map<Long, List<Long>> idsByRecipient) {
+
+    /**
+     * @return the IDs of all removed notifications
+     */
+    public List<Long> ids() {
+        return idsByRecipient.values().stream().flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,27 @@
+package com.relatia.notification_service.notification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Published when notifications have changed from unread to read.
+ *
+ * @param countsByRecipient number of notifications marked as read per recipient ID
+ * @param idsByRecipient the notifications marked as read, per recipient ID; {@code null} when they
+ *                       were marked as a whole, without collecting their IDs
+ */
+public record NotificationsReadEvent(Map<Long, Long> countsByRecipient, Map<Long, List<Long>> idsByRecipient) {
+
+    /**
+     * Build the event for the notifications that changed to read.
+     *
+     * @param idsByRecipient the notifications marked as read, per recipient ID
+     * @return the event
+     */
+    public static NotificationsReadEvent of(Map<Long, List<Long>> idsByRecipient) {
+        return new NotificationsReadEvent(idsByRecipient.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> (long) entry.getValue().size())),
+            Map.copyOf(idsByRecipient));
+    }
+}
@@ -0,0 +1,151 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.tenant.TenantScoped;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Per-recipient token bucket limiting how fast notifications can be created for one recipient.
+ * Each recipient may receive {@code notification.rate-limit.capacity} notifications in a burst,
+ * refilled at {@code refill-per-minute}.
+ * <p>
+ * Buckets live in primitive arrays split into independently locked stripes, so a check allocates
+ * nothing and contends only with checks for recipients in the same stripe. Each stripe is an
+ * open-addressing table; when the probed slots are all taken, the bucket refilled least recently
+ * is forgotten, which bounds memory and only ever errs towards letting a notification through.
+ * Every tenant has its own set of stripes, so recipients of one tenant never share or displace
+ * the buckets of another.
+ * A token is taken once a request has been rendered and was not merged into an earlier
+ * notification, before it is stored. It is not returned if storing fails and the transaction
+ * rolls back; this is intended, since it keeps a client that retries failing creates throttled too.
+ * Rejections are counted by the {@code notification.rate-limited} metric.
+ */
+@Component
+public class RecipientRateLimiter {
+
+    private static final int MAX_PROBES = 8;
+
+    private final boolean enabled;
+    private final double capacity;
+    private final double nanosPerToken;
+    private final TenantScoped<Stripe[]> stripes;
+    private final int stripeMask;
+    private final LongSupplier nanoClock;
+    private final Counter rateLimitedCounter;
+
+    @Autowired
+    public RecipientRateLimiter(NotificationProperties notificationProperties, MeterRegistry meterRegistry) {
+        this(notificationProperties, meterRegistry, System::nanoTime);
+    }
+
+    RecipientRateLimiter(NotificationProperties notificationProperties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        NotificationProperties.RateLimit settings = notificationProperties.getRateLimit();
+        this.enabled = settings.isEnabled();
+        this.capacity = settings.getCapacity();
+        this.nanosPerToken = 60_000_000_000d / settings.getRefillPerMinute();
+        int stripeCount = powerOfTwo(settings.getStripes());
+        int slots = powerOfTwo(settings.getSlotsPerStripe());
+        this.stripes = new TenantScoped<>(tenantId -> {
+            Stripe[] tenantStripes = new Stripe[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                tenantStripes[i] = new Stripe(slots);
+            }
+            return tenantStripes;
+        });
+        this.stripeMask = stripeCount - 1;
+        this.nanoClock = nanoClock;
+        this.rateLimitedCounter = Counter.builder("notification.rate-limited")
+            .description("Notifications rejected because their recipient exceeded the rate limit")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Take one token from the bucket of a recipient of the current tenant.
+     *
+     * @param recipientId the recipient ID
+     * @return 0 if the notification may be created, otherwise the nanoseconds until the next token
+     */
+    public long tryAcquire(long recipientId) {
+        if (!enabled) {
+            return 0;
+        }
+        long hash = recipientId * 0x9E3779B97F4A7C15L;
+        int spread = (int) (hash ^ (hash >>> 32));
+        Stripe stripe = stripes.current()[spread & stripeMask];
+        long waitNanos;
+        synchronized (stripe) {
+            waitNanos = stripe.acquire(recipientId, spread >>> Integer.bitCount(stripeMask), nanoClock.getAsLong());
+        }
+        if (waitNanos > 0) {
+            rateLimitedCounter.increment();
+        }
+        return waitNanos;
+    }
+
+    private static int powerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * One partition of the buckets, guarded by its own monitor. Slot {@code i} of the arrays holds
+     * one recipient's bucket.
+     */
+    private final class Stripe {
+
+        private final long[] keys;
+        private final double[] tokens;
+        private final long[] refilledAt;
+        private final boolean[] used;
+        private final int mask;
+
+        Stripe(int slots) {
+            this.keys = new long[slots];
+            this.tokens = new double[slots];
+            this.refilledAt = new long[slots];
+            this.used = new boolean[slots];
+            this.mask = slots - 1;
+        }
+
+        long acquire(long recipientId, int hash, long now) {
+            int slot = slotFor(recipientId, hash, now);
+            double available = Math.min(capacity, tokens[slot] + (now - refilledAt[slot]) / nanosPerToken);
+            refilledAt[slot] = now;
+            if (available >= 1) {
+                tokens[slot] = available - 1;
+                return 0;
+            }
+            tokens[slot] = available;
+            return (long) Math.ceil((1 - available) * nanosPerToken);
+        }
+
+        private int slotFor(long recipientId, int hash, long now) {
+            int stalest = -1;
+            for (int probe = 0; probe < MAX_PROBES && probe <= mask; probe++) {
+                int slot = (hash + probe) & mask;
+                if (!used[slot]) {
+                    return claim(slot, recipientId, now);
+                }
+                if (keys[slot] == recipientId) {
+                    return slot;
+                }
+                if (stalest < 0 || refilledAt[slot] - refilledAt[stalest] < 0) {
+                    stalest = slot;
+                }
+            }
+            return claim(stalest, recipientId, now);
+        }
+
+        private int claim(int slot, long recipientId, long now) {
+            used[slot] = true;
+            keys[slot] = recipientId;
+            tokens[slot] = capacity;
+            refilledAt[slot] = now;
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.relatia.notification_service.notification;
+
+/**
+ * A node-local cache holding state derived from a recipient's notifications.
+ * Implementations are evicted when another node reports a change for the recipient, with the
+ * recipient's tenant set as the current tenant.
+ */
+public interface RecipientScopedCache {
+
+    /**
+     * Drop everything cached for a recipient of the current tenant so the next read reloads it.
+     *
+     * @param recipientId the recipient ID
+     */
+    void evict(Long recipientId);
+}
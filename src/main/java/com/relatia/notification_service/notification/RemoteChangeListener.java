@@ -0,0 +1,39 @@
+package com.relatia.notification_service.notification;
+
+import java.util.Set;
+
+/**
+ * Node-local state that follows the notifications changed on other nodes.
+ * Each method is called once per bus event, after every {@link RecipientScopedCache} has been
+ * evicted for the event's recipients, with the recipients' tenant set as the current tenant.
+ * The notification IDs are {@code null} for events from nodes that do not report them.
+ */
+public interface RemoteChangeListener {
+
+    /**
+     * Notifications were created, or had a repeat merged into them.
+     *
+     * @param recipientIds the recipients of the notifications
+     * @param notificationIds the notification IDs, or {@code null} if not reported
+     */
+    default void onRemoteCreated(Set<Long> recipientIds, Set<Long> notificationIds) {
+    }
+
+    /**
+     * Notifications were marked as read.
+     *
+     * @param recipientIds the recipients of the notifications
+     * @param notificationIds the notification IDs, or {@code null} if not reported
+     */
+    default void onRemoteRead(Set<Long> recipientIds, Set<Long> notificationIds) {
+    }
+
+    /**
+     * Notifications were deleted or purged.
+     *
+     * @param recipientIds the recipients of the notifications
+     * @param notificationIds the notification IDs, or {@code null} if not reported
+     */
+    default void onRemoteDeleted(Set<Long> recipientIds, Set<Long> notificationIds) {
+    }
+}
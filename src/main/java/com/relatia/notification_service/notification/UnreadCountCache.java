@@ -0,0 +1,159 @@
+package com.relatia.notification_service.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.tenant.TenantScoped;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded, in-process cache of unread notification counts per recipient.
+ * Counts are loaded from the database on a miss and afterwards kept in step with writes by
+ * applying the deltas carried by notification events once their transaction has committed.
+ * Entries are evicted by size (LRU-like) and reloaded after a fixed age, which bounds the effect
+ * of any update this node did not see. Hit and miss statistics are published as
+ * {@code cache.*} metrics tagged {@code cache=notification.unread-count}.
+ * Every tenant has a cache of its own, sized and reported ({@code tenant} tag) separately, so a
+ * tenant with many recipients cannot evict the counts of another.
+ * The event listeners run first among the after-commit listeners, so listeners that read the
+ * count see the updated value.
+ */
+@Component
+public class UnreadCountCache implements RecipientScopedCache {
+
+    static final String CACHE_NAME = "notification.unread-count";
+
+    /** Number of change counters per tenant; recipients share them by hash */
+    private static final int GENERATION_STRIPES = 64;
+
+    private final TenantScoped<TenantCounts> counts;
+
+    public UnreadCountCache(NotificationProperties notificationProperties, MeterRegistry meterRegistry) {
+        NotificationProperties.UnreadCountCache settings = notificationProperties.getUnreadCountCache();
+        this.counts = new TenantScoped<>(tenantId -> {
+            Cache<Long, AtomicLong> cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, Tags.of("tenant", tenantId));
+            return new TenantCounts(cache, new AtomicLongArray(GENERATION_STRIPES));
+        });
+    }
+
+    /**
+     * Get the unread count of a recipient of the current tenant, loading it on a miss.
+     * The database query runs outside the cache's compute lock: that lock is a monitor, and
+     * blocking on JDBC while holding it would pin the carrier of a virtual thread. Concurrent
+     * misses for the same recipient may both query; the first result stored wins. A count that was
+     * adjusted or evicted while the query ran is returned but not stored, since the query may
+     * have read the database before that change.
+     *
+     * @param recipientId the recipient ID
+     * @param loader computes the count from the database
+     * @return the unread count
+     */
+    public long get(Long recipientId, ToLongFunction<Long> loader) {
+        TenantCounts tenantCounts = counts.current();
+        AtomicLong cached = tenantCounts.cache().getIfPresent(recipientId);
+        if (cached != null) {
+            return cached.get();
+        }
+        long generation = tenantCounts.generation(recipientId);
+        AtomicLong loaded = new AtomicLong(loader.applyAsLong(recipientId));
+        AtomicLong existing = tenantCounts.cache().asMap().putIfAbsent(recipientId, loaded);
+        if (existing != null) {
+            return existing.get();
+        }
+        if (tenantCounts.generation(recipientId) != generation) {
+            // Changed while loading; a change made after this check finds the entry and is applied to it
+            tenantCounts.cache().asMap().remove(recipientId, loaded);
+        }
+        return loaded.get();
+    }
+
+    @Override
+    public void evict(Long recipientId) {
+        TenantCounts tenantCounts = counts.current();
+        tenantCounts.changed(recipientId);
+        tenantCounts.cache().invalidate(recipientId);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onCreated(NotificationCreatedEvent event) {
+        NotificationResponse notification = event.notification();
+        if (!notification.isRead()) {
+            adjust(notification.getRecipientId(), 1);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBulkCreated(NotificationsCreatedEvent event) {
+        event.countsByRecipient().forEach((recipientId, count) -> adjust(recipientId, count));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onRead(NotificationsReadEvent event) {
+        event.countsByRecipient().forEach((recipientId, count) -> adjust(recipientId, -count));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onDeleted(NotificationDeletedEvent event) {
+        if (event.unread()) {
+            adjust(event.recipientId(), -1);
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    void onPurged(NotificationsPurgedEvent event) {
+        event.unreadCountsByRecipient().forEach((recipientId, count) -> adjust(recipientId, -count));
+    }
+
+    private void adjust(Long recipientId, long delta) {
+        // asMap().get does not count towards hit/miss statistics, and updating the counter in
+        // place keeps the entry's original write time so expiry still bounds drift
+        TenantCounts tenantCounts = counts.current();
+        tenantCounts.changed(recipientId);
+        Map<Long, AtomicLong> view = tenantCounts.cache().asMap();
+        AtomicLong count = view.get(recipientId);
+        if (count != null && count.addAndGet(delta) < 0) {
+            // We missed an update somewhere; let the next read go back to the database
+            view.remove(recipientId, count);
+        }
+    }
+
+    /**
+     * The counts of one tenant, and striped counters of the changes applied to them, which tell
+     * a load whether its recipient changed while it ran.
+     */
+    private record TenantCounts(Cache<Long, AtomicLong> cache, AtomicLongArray generations) {
+
+        long generation(Long recipientId) {
+            return generations.get(stripe(recipientId));
+        }
+
+        void changed(Long recipientId) {
+            generations.incrementAndGet(stripe(recipientId));
+        }
+
+        private int stripe(Long recipientId) {
+            return Long.hashCode(recipientId) & (generations.length() - 1);
+        }
+    }
+}
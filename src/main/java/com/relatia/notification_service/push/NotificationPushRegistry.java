@@ -0,0 +1,211 @@
+package com.relatia.notification_service.push;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.tenant.TenantScoped;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory fan-out of notification events to the open event streams of this node.
+ * <p>
+ * Open streams cost no thread: they are parked async requests, and events are written by a small
+ * shared sender pool. Every event gets a node-wide sequence number and is kept in a small ring per
+ * recipient for a while, so a client that reconnects with {@code Last-Event-ID} receives what it
+ * missed. When that is not possible (the ring overflowed, expired, or the ID comes from another
+ * node or an earlier run) the client is sent a {@code resync} event and should reload its inbox.
+ * <p>
+ * Streams and rings are kept per tenant: recipient IDs are only unique within a tenant, and a
+ * stream only ever receives the events of the tenant it was opened for.
+ */
+@Slf4j
+@Component
+public class NotificationPushRegistry implements DisposableBean {
+
+    static final String RESYNC = "resync";
+
+    private final NotificationProperties.Push properties;
+    private final Executor sender;
+    private final ExecutorService ownedSender;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final TenantScoped<TenantStreams> streams;
+
+    @Autowired
+    public NotificationPushRegistry(NotificationProperties notificationProperties, MeterRegistry meterRegistry) {
+        this(notificationProperties, meterRegistry, Executors.newFixedThreadPool(
+            notificationProperties.getPush().getSenderThreads(), new CustomizableThreadFactory("notification-push-")));
+    }
+
+    NotificationPushRegistry(NotificationProperties notificationProperties, MeterRegistry meterRegistry, Executor sender) {
+        this.properties = notificationProperties.getPush();
+        this.sender = sender;
+        this.ownedSender = sender instanceof ExecutorService executorService ? executorService : null;
+        this.streams = new TenantScoped<>(tenantId -> new TenantStreams(Caffeine.newBuilder()
+            .maximumSize(properties.getMaxReplayRecipients())
+            .expireAfterAccess(properties.getReplayRetention())
+            .build()));
+        Gauge.builder("notification.push.connections", connections, AtomicInteger::get)
+            .description("Open notification event streams")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream for a recipient of the current tenant.
+     *
+     * @param recipientId the recipient ID
+     * @param lastEventId the ID of the last event the client received, or {@code null} on a first connect
+     * @param snapshotName the event name of the snapshot
+     * @param snapshot the current state, sent first when there is nothing to replay
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long recipientId, String lastEventId, String snapshotName, Supplier<?> snapshot) {
+        TenantStreams tenant = streams.current();
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        PushSubscriber subscriber = new PushSubscriber(recipientId, emitter, properties.getQueueCapacity(), sender);
+        emitter.onCompletion(() -> unregister(tenant, subscriber));
+        emitter.onTimeout(() -> {
+            unregister(tenant, subscriber);
+            emitter.complete();
+        });
+        emitter.onError(ex -> unregister(tenant, subscriber));
+
+        Long lastSequence = parseSequence(lastEventId);
+        RecentEvents recent = tenant.recentEvents.get(recipientId, id -> new RecentEvents(properties.getReplaySize(), sequence.get()));
+        synchronized (recent) {
+            // Registering under the ring's lock orders the replay before any event published concurrently
+            tenant.subscribers.computeIfAbsent(recipientId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            connections.incrementAndGet();
+            List<PushEvent> missed = lastSequence != null ? recent.after(lastSequence) : null;
+            if (missed != null) {
+                missed.forEach(subscriber::offer);
+                return emitter;
+            }
+        }
+        if (lastEventId != null) {
+            subscriber.offer(new PushEvent(null, RESYNC, lastEventId));
+        }
+        subscriber.offer(new PushEvent(null, snapshotName, snapshot.get()));
+        return emitter;
+    }
+
+    /**
+     * Whether events for a recipient of the current tenant are of interest, because a stream is
+     * open or was open recently.
+     */
+    public boolean isTracked(Long recipientId) {
+        TenantStreams tenant = streams.current();
+        return tenant.subscribers.containsKey(recipientId) || tenant.recentEvents.asMap().containsKey(recipientId);
+    }
+
+    /**
+     * Publish an event to the open streams of a recipient of the current tenant and keep it for replay.
+     * Events for recipients that are not tracked are dropped.
+     *
+     * @param recipientId the recipient ID
+     * @param name the SSE event name
+     * @param data the payload
+     */
+    public void publish(Long recipientId, String name, Object data) {
+        TenantStreams tenant = streams.current();
+        RecentEvents recent = tenant.subscribers.containsKey(recipientId)
+            ? tenant.recentEvents.get(recipientId, id -> new RecentEvents(properties.getReplaySize(), sequence.get()))
+            : tenant.recentEvents.getIfPresent(recipientId);
+        if (recent == null) {
+            return;
+        }
+        synchronized (recent) {
+            long next = sequence.incrementAndGet();
+            PushEvent event = new PushEvent(epoch + "-" + next, name, data);
+            recent.add(next, event);
+            Set<PushSubscriber> open = tenant.subscribers.get(recipientId);
+            if (open != null) {
+                for (PushSubscriber subscriber : open) {
+                    if (!subscriber.offer(event)) {
+                        unregister(tenant, subscriber);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Send a keep-alive comment on idle streams, so proxies do not time them out and dead
+     * connections are detected.
+     */
+    @Scheduled(fixedDelayString = "${notification.push.heartbeat-interval:15s}")
+    public void heartbeat() {
+        streams.all().forEach(tenant ->
+            tenant.subscribers.values().forEach(open -> open.forEach(PushSubscriber::heartbeat)));
+    }
+
+    int connectionCount() {
+        return connections.get();
+    }
+
+    private void unregister(TenantStreams tenant, PushSubscriber subscriber) {
+        tenant.subscribers.computeIfPresent(subscriber.recipientId(), (id, open) -> {
+            if (open.remove(subscriber)) {
+                connections.decrementAndGet();
+            }
+            return open.isEmpty() ? null : open;
+        });
+    }
+
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        streams.all().forEach(tenant ->
+            tenant.subscribers.values().forEach(open -> open.forEach(PushSubscriber::close)));
+        if (ownedSender != null) {
+            ownedSender.shutdown();
+        }
+    }
+
+    /**
+     * The open streams and recent events of one tenant's recipients.
+     */
+    private static final class TenantStreams {
+
+        private final ConcurrentMap<Long, Set<PushSubscriber>> subscribers = new ConcurrentHashMap<>();
+        private final Cache<Long, RecentEvents> recentEvents;
+
+        TenantStreams(Cache<Long, RecentEvents> recentEvents) {
+            this.recentEvents = recentEvents;
+        }
+    }
+}
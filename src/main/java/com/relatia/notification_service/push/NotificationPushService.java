@@ -0,0 +1,138 @@
+package com.relatia.notification_service.push;
+
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationCreatedEvent;
+import com.relatia.notification_service.notification.NotificationDeletedEvent;
+import com.relatia.notification_service.notification.NotificationMapper;
+import com.relatia.notification_service.notification.NotificationMergedEvent;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.notification.NotificationsCreatedEvent;
+import com.relatia.notification_service.notification.NotificationsPurgedEvent;
+import com.relatia.notification_service.notification.NotificationsReadEvent;
+import com.relatia.notification_service.notification.RemoteChangeListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes committed notification changes to the recipients' open event streams.
+ * <p>
+ * Streams carry two kinds of events: {@code notification}, with each newly created notification
+ * and each one a repeat was merged into, and {@code unread-count}, with the recipient's unread
+ * count whenever it changes. Changes made on other nodes arrive as bus events; the notifications
+ * they name are loaded from the primary, and only for recipients with a stream on this node.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationPushService implements RemoteChangeListener {
+
+    static final String NOTIFICATION = "notification";
+    static final String UNREAD_COUNT = "unread-count";
+
+    private final NotificationPushRegistry registry;
+    private final NotificationService notificationService;
+    private final NotificationMapper notificationMapper;
+
+    /**
+     * Open an event stream for a recipient. A first connect starts with the current unread count;
+     * a reconnect replays the events missed since {@code lastEventId}.
+     *
+     * @param recipientId the recipient ID
+     * @param lastEventId the {@code Last-Event-ID} sent by the client, if any
+     * @return the emitter
+     */
+    public SseEmitter subscribe(Long recipientId, String lastEventId) {
+        return registry.subscribe(recipientId, lastEventId, UNREAD_COUNT, () -> unreadCount(recipientId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onCreated(NotificationCreatedEvent event) {
+        NotificationResponse notification = event.notification();
+        if (registry.isTracked(notification.getRecipientId())) {
+            registry.publish(notification.getRecipientId(), NOTIFICATION, notification);
+            publishUnreadCount(notification.getRecipientId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onMerged(NotificationMergedEvent event) {
+        NotificationResponse notification = event.notification();
+        // A merge replaces an unread notification, so the unread count stays the same
+        registry.publish(notification.getRecipientId(), NOTIFICATION, notification);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBulkCreated(NotificationsCreatedEvent event) {
+        for (Notification notification : event.notifications()) {
+            if (registry.isTracked(notification.getRecipientId())) {
+                registry.publish(notification.getRecipientId(), NOTIFICATION, notificationMapper.toResponse(notification));
+            }
+        }
+        event.countsByRecipient().keySet().forEach(this::publishUnreadCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onRead(NotificationsReadEvent event) {
+        event.countsByRecipient().keySet().forEach(this::publishUnreadCount);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onDeleted(NotificationDeletedEvent event) {
+        if (event.unread()) {
+            publishUnreadCount(event.recipientId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onPurged(NotificationsPurgedEvent event) {
+        event.unreadCountsByRecipient().keySet().forEach(this::publishUnreadCount);
+    }
+
+    @Override
+    public void onRemoteCreated(Set<Long> recipientIds, Set<Long> notificationIds) {
+        Set<Long> tracked = tracked(recipientIds);
+        if (tracked.isEmpty()) {
+            return;
+        }
+        if (notificationIds != null) {
+            for (NotificationResponse notification : notificationService.getNotificationsByIds(notificationIds)) {
+                if (tracked.contains(notification.getRecipientId())) {
+                    registry.publish(notification.getRecipientId(), NOTIFICATION, notification);
+                }
+            }
+        }
+        tracked.forEach(this::publishUnreadCount);
+    }
+
+    @Override
+    public void onRemoteRead(Set<Long> recipientIds, Set<Long> notificationIds) {
+        tracked(recipientIds).forEach(this::publishUnreadCount);
+    }
+
+    @Override
+    public void onRemoteDeleted(Set<Long> recipientIds, Set<Long> notificationIds) {
+        tracked(recipientIds).forEach(this::publishUnreadCount);
+    }
+
+    private Set<Long> tracked(Set<Long> recipientIds) {
+        if (recipientIds == null) {
+            return Set.of();
+        }
+        return recipientIds.stream().filter(registry::isTracked).collect(Collectors.toSet());
+    }
+
+    private void publishUnreadCount(Long recipientId) {
+        if (registry.isTracked(recipientId)) {
+            registry.publish(recipientId, UNREAD_COUNT, unreadCount(recipientId));
+        }
+    }
+
+    private UnreadCountChange unreadCount(Long recipientId) {
+        return new UnreadCountChange(recipientId, notificationService.getUnreadCount(recipientId));
+    }
+}
@@ -0,0 +1,12 @@
+package com.relatia.notification_service.push;
+
+/**
+ * An event sent on the notification streams.
+ *
+ * @param id the event ID clients send back as {@code Last-Event-ID}, or {@code null} for snapshots
+ *           that are not part of the replayable history
+ * @param name the SSE event name
+ * @param data the payload, written as JSON
+ */
+record PushEvent(String id, String name, Object data) {
+}
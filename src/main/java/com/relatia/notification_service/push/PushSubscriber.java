@@ -0,0 +1,123 @@
+package com.relatia.notification_service.push;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open event stream.
+ * <p>
+ * Publishers only enqueue; the writes to the connection happen on the shared sender pool, at
+ * most one drain per stream at a time, so a slow client never blocks the thread that publishes.
+ * When the client falls so far behind that its queue is full, the stream is closed and the
+ * client is expected to reconnect with {@code Last-Event-ID}.
+ */
+@Slf4j
+final class PushSubscriber {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Long recipientId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Object> queue;
+    private final Executor sender;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile boolean completed;
+
+    PushSubscriber(Long recipientId, SseEmitter emitter, int queueCapacity, Executor sender) {
+        this.recipientId = recipientId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sender = sender;
+    }
+
+    Long recipientId() {
+        return recipientId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Queue an event for this stream.
+     *
+     * @return {@code false} if the stream is closed or has just been closed because it fell behind
+     */
+    boolean offer(PushEvent event) {
+        if (closed) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            log.debug("Closing slow notification stream of recipient {}", recipientId);
+            close();
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    void heartbeat() {
+        if (!closed && queue.isEmpty() && queue.offer(HEARTBEAT)) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Close the stream once the event being written, if any, has been sent.
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                draining.set(false);
+                closed = true;
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Object item;
+            while (!closed && (item = queue.poll()) != null) {
+                emitter.send(item == HEARTBEAT
+                    ? SseEmitter.event().comment("heartbeat")
+                    : toSse((PushEvent) item));
+            }
+            if (closed && !completed) {
+                completed = true;
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away; the container reports the completion
+            closed = true;
+            completed = true;
+        } finally {
+            draining.set(false);
+        }
+        // Work may have arrived between the last poll and releasing the drain flag
+        if (closed ? !completed : !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(PushEvent event) {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON);
+        return event.id() != null ? builder.id(event.id()) : builder;
+    }
+}
@@ -0,0 +1,59 @@
+package com.relatia.notification_service.push;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recent events of one recipient.
+ * Event sequence numbers are node-wide, so a recipient's events are not contiguous; the ring
+ * instead remembers the sequence number up to which its history is incomplete.
+ * Not thread-safe; callers synchronize on the instance.
+ */
+final class RecentEvents {
+
+    private final long[] sequences;
+    private final PushEvent[] events;
+    private int next;
+    private int size;
+    private long incompleteUpTo;
+
+    /**
+     * @param capacity the number of events kept
+     * @param incompleteUpTo the last sequence number allocated before this ring started recording
+     */
+    RecentEvents(int capacity, long incompleteUpTo) {
+        this.sequences = new long[capacity];
+        this.events = new PushEvent[capacity];
+        this.incompleteUpTo = incompleteUpTo;
+    }
+
+    void add(long sequence, PushEvent event) {
+        if (size == events.length) {
+            incompleteUpTo = sequences[next];
+        } else {
+            size++;
+        }
+        sequences[next] = sequence;
+        events[next] = event;
+        next = (next + 1) % events.length;
+    }
+
+    /**
+     * @param sequence the sequence number of the last event the client received
+     * @return the events after it, oldest first, or {@code null} if some of them are no longer known
+     */
+    List<PushEvent> after(long sequence) {
+        if (sequence < incompleteUpTo) {
+            return null;
+        }
+        List<PushEvent> missed = new ArrayList<>();
+        int oldest = (next - size + events.length) % events.length;
+        for (int i = 0; i < size; i++) {
+            int index = (oldest + i) % events.length;
+            if (sequences[index] > sequence) {
+                missed.add(events[index]);
+            }
+        }
+        return missed;
+    }
+}
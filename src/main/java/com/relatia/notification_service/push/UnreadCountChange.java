@@ -0,0 +1,15 @@
+package com.relatia.notification_service.push;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Payload of the {@code unread-count} stream event.
+ *
+ * @param recipientId the ID of the recipient
+ * @param unreadCount the recipient's current number of unread notifications
+ */
+@Schema(description = "Current unread count of a recipient, pushed whenever it changes")
+public record UnreadCountChange(
+        @Schema(description = "ID of the recipient user", example = "123") Long recipientId,
+        @Schema(description = "Number of unread notifications", example = "5") long unreadCount) {
+}
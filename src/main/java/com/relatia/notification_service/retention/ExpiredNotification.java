@@ -0,0 +1,13 @@
+package com.relatia.notification_service.retention;
+
+import java.time.LocalDateTime;
+
+/**
+ * Key of a notification selected for removal.
+ *
+ * @param id the notification ID
+ * @param recipientId the recipient of the notification
+ * @param createdAt the creation time, the first half of the scan's keyset
+ */
+public record ExpiredNotification(Long id, Long recipientId, LocalDateTime createdAt) {
+}
@@ -0,0 +1,170 @@
+package com.relatia.notification_service.retention;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationsPurgedEvent;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Removes notifications that are past their retention period, optionally copying them to
+ * {@code notifications_archive} first.
+ * <p>
+ * Expired rows are found with one keyset scan per notification type and read state, and removed
+ * in chunks of {@code notification.retention.chunk-size}, each in its own short transaction, so
+ * the purge never holds locks on many rows at once or builds up a large transaction.
+ * Tenants are purged one after the other, each scan restricted to one tenant, so the events of a
+ * chunk always concern a single tenant.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.retention", name = "enabled", havingValue = "true")
+public class NotificationRetentionPurger {
+
+    private final NotificationRetentionRepository retentionRepository;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationProperties.Retention properties;
+    private final Timer purgeTimer;
+    private final Counter removedCounter;
+
+    public NotificationRetentionPurger(NotificationRetentionRepository retentionRepository,
+                                       TenantRegistry tenantRegistry,
+                                       PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher eventPublisher,
+                                       NotificationProperties notificationProperties,
+                                       MeterRegistry meterRegistry) {
+        this.retentionRepository = retentionRepository;
+        this.tenantRegistry = tenantRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = notificationProperties.getRetention();
+        String mode = properties.getMode().name().toLowerCase(Locale.ROOT);
+        this.purgeTimer = Timer.builder("notification.retention.purge")
+            .description("Duration of retention purges")
+            .tag("mode", mode)
+            .register(meterRegistry);
+        this.removedCounter = Counter.builder("notification.retention.removed")
+            .description("Notifications removed by retention purges")
+            .tag("mode", mode)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Remove every notification that is past its retention period.
+     *
+     * @return the number of notifications removed and how long it took
+     */
+    @Scheduled(cron = "${notification.retention.cron:0 0 3 * * *}")
+    public RetentionReport purge() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        long removed = 0;
+        int chunks = 0;
+        for (String tenantId : tenantRegistry.tenantIds()) {
+            TenantPurge purged = TenantContext.callAs(tenantId, () -> purgeTenant(now));
+            removed += purged.removed();
+            chunks += purged.chunks();
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        purgeTimer.record(duration);
+        removedCounter.increment(removed);
+        log.info("Retention purge removed {} notifications ({}) in {} chunks, took {} ms",
+            removed, properties.getMode(), chunks, duration.toMillis());
+        return new RetentionReport(removed, properties.getMode(), chunks, duration);
+    }
+
+    /**
+     * Remove the current tenant's notifications that are past their retention period.
+     *
+     * @param now the time the purge started
+     * @return the number of notifications removed and transactions used
+     */
+    private TenantPurge purgeTenant(LocalDateTime now) {
+        long removed = 0;
+        int chunks = 0;
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            NotificationProperties.RetentionRule rule = properties.ruleFor(type);
+            for (boolean read : new boolean[] {true, false}) {
+                Duration maxAge = read ? rule.getReadOlderThan() : rule.getUnreadOlderThan();
+                if (maxAge == null) {
+                    continue;
+                }
+                LocalDateTime cutoff = now.minus(maxAge);
+                ExpiredNotification last = null;
+                while (true) {
+                    ExpiredNotification after = last;
+                    RemovedChunk chunk = transactionTemplate.execute(status ->
+                        removeChunk(type, read, cutoff, after, now));
+                    List<ExpiredNotification> scanned = chunk.scanned();
+                    if (scanned.isEmpty()) {
+                        break;
+                    }
+                    removed += chunk.removed();
+                    chunks++;
+                    if (scanned.size() < properties.getChunkSize()) {
+                        break;
+                    }
+                    last = scanned.get(scanned.size() - 1);
+                }
+            }
+        }
+        return new TenantPurge(removed, chunks);
+    }
+
+    private RemovedChunk removeChunk(Notification.NotificationType type, boolean read, LocalDateTime cutoff,
+                                     ExpiredNotification after, LocalDateTime now) {
+        Limit limit = Limit.of(properties.getChunkSize());
+        List<ExpiredNotification> scanned = after == null
+            ? retentionRepository.findExpired(type, read, cutoff, limit)
+            : retentionRepository.findExpiredAfter(type, read, cutoff, after.createdAt(), after.id(), limit);
+        if (scanned.isEmpty()) {
+            return new RemovedChunk(scanned, 0);
+        }
+        // Rows read or deleted since the scan are skipped; the rest stay as scanned until removed
+        List<ExpiredNotification> expired = retentionRepository.lockExpired(
+            scanned.stream().map(ExpiredNotification::id).toList(), read, cutoff);
+        if (expired.isEmpty()) {
+            return new RemovedChunk(scanned, 0);
+        }
+        List<Long> ids = expired.stream().map(ExpiredNotification::id).toList();
+        if (properties.getMode() == NotificationProperties.RetentionMode.ARCHIVE) {
+            retentionRepository.archiveByIds(ids, now);
+        }
+        retentionRepository.deleteByIds(ids);
+        Map<Long, Long> unreadCounts = read ? Map.of() : expired.stream()
+            .collect(Collectors.groupingBy(ExpiredNotification::recipientId, Collectors.counting()));
+        Map<Long, List<Long>> idsByRecipient = expired.stream().collect(Collectors.groupingBy(
+            ExpiredNotification::recipientId, Collectors.mapping(ExpiredNotification::id, Collectors.toList())));
+        eventPublisher.publishEvent(new NotificationsPurgedEvent(unreadCounts, idsByRecipient));
+        return new RemovedChunk(scanned, expired.size());
+    }
+
+    private record TenantPurge(long removed, int chunks) {
+    }
+
+    /**
+     * A chunk of the keyset scan and how many of its notifications were removed.
+     */
+    private record RemovedChunk(List<ExpiredNotification> scanned, int removed) {
+    }
+}
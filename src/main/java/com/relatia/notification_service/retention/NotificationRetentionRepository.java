@@ -0,0 +1,101 @@
+package com.relatia.notification_service.retention;
+
+import com.relatia.notification_service.notification.Notification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries used by the retention purger. The scans seek on
+ * {@code idx_notifications_retention (tenant_id, notification_type, is_read, created_at, id)}.
+ */
+public interface NotificationRetentionRepository extends org.springframework.data.repository.Repository<Notification, Long> {
+
+    @Query("""
+            select new com.relatia.notification_service.retention.ExpiredNotification(n.id, n.recipientId, n.createdAt)
+            from Notification n
+            where n.type = :type and n.read = :read and n.createdAt < :cutoff
+            order by n.createdAt, n.id
+            """)
+    List<ExpiredNotification> findExpired(@Param("type") Notification.NotificationType type,
+                                          @Param("read") boolean read,
+                                          @Param("cutoff") LocalDateTime cutoff,
+                                          Limit limit);
+
+    @Query("""
+            select new com.relatia.notification_service.retention.ExpiredNotification(n.id, n.recipientId, n.createdAt)
+            from Notification n
+            where n.type = :type and n.read = :read and n.createdAt < :cutoff
+              and (n.createdAt, n.id) > (:createdAt, :id)
+            order by n.createdAt, n.id
+            """)
+    List<ExpiredNotification> findExpiredAfter(@Param("type") Notification.NotificationType type,
+                                               @Param("read") boolean read,
+                                               @Param("cutoff") LocalDateTime cutoff,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Limit limit);
+
+    /**
+     * Lock the scanned notifications that still match the scan. The removal and the unread counts
+     * it reports are based on these rows, so a notification read or deleted after the scan is
+     * neither removed nor counted twice.
+     *
+     * @param ids the IDs returned by the scan
+     * @param read the read state the scan selected
+     * @param cutoff the scan's cutoff
+     * @return the notifications that are still expired, locked until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.relatia.notification_service.retention.ExpiredNotification(n.id, n.recipientId, n.createdAt)
+            from Notification n
+            where n.id in :ids and n.read = :read and n.createdAt < :cutoff
+            """)
+    List<ExpiredNotification> lockExpired(@Param("ids") Collection<Long> ids,
+                                          @Param("read") boolean read,
+                                          @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Copy notifications to the archive table.
+     * The statement declares the archive as the only table it changes, so Hibernate does not
+     * evict the notification second-level cache for it.
+     *
+     * @param ids the notification IDs
+     * @param archivedAt the archive timestamp
+     * @return the number of rows copied
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notifications_archive"))
+    @Query(nativeQuery = true, value = """
+            insert into notifications_archive (id, tenant_id, title, message, recipient_id, is_read, notification_type,
+                                               dedup_key, occurrences, delivery_status, created_at, updated_at,
+                                               version, archived_at)
+            select id, tenant_id, title, message, recipient_id, is_read, notification_type,
+                   dedup_key, occurrences, delivery_status, created_at, updated_at,
+                   version, :archivedAt
+            from notifications
+            where id in (:ids)
+            """)
+    int archiveByIds(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Delete notifications; their pending deliveries are removed by the foreign key cascade.
+     *
+     * @param ids the notification IDs
+     * @return the number of rows deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Notification n where n.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
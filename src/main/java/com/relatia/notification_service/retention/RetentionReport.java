@@ -0,0 +1,16 @@
+package com.relatia.notification_service.retention;
+
+import com.relatia.notification_service.config.NotificationProperties;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a retention purge.
+ *
+ * @param removed the number of notifications removed from the live table
+ * @param mode whether they were archived or deleted
+ * @param chunks the number of transactions used
+ * @param duration the wall-clock time of the purge
+ */
+public record RetentionReport(long removed, NotificationProperties.RetentionMode mode, int chunks, Duration duration) {
+}
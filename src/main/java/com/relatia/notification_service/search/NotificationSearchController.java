@@ -0,0 +1,77 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.exception.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.relatia.notification_service.constants.GlobalConstants.NOTIFICATION_API;
+
+/**
+ * REST controller for searching notifications by keyword.
+ */
+@Tag(
+    name = "Notification Search",
+    description = "Full-text search over notification titles and messages"
+)
+@RequestMapping(
+    path = NOTIFICATION_API,
+    produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RestController
+@RequiredArgsConstructor
+@ApiResponses({
+    @ApiResponse(
+        responseCode = "500",
+        description = "Internal Server Error",
+        content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+})
+public class NotificationSearchController {
+
+    private final NotificationSearchService searchService;
+
+    @Operation(
+        summary = "Search notifications",
+        description = "Finds the tenant's notifications whose title or message match the query, best match " +
+                "first, optionally for one recipient. All terms must match; \"quoted phrases\", prefix*, " +
+                "-excluded and a | b are supported. Pass the returned nextCursor to fetch the following page. " +
+                "New notifications become searchable within about a second."
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Search results retrieved successfully",
+            content = @Content(schema = @Schema(implementation = NotificationSearchPage.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Missing or too long query, invalid cursor or limit",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/search")
+    public NotificationSearchPage searchNotifications(
+            @Parameter(description = "Keywords to search for", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "ID of the recipient to search; all recipients when absent")
+            @RequestParam(name = "recipientId", required = false) Long recipientId,
+            @Parameter(description = "Cursor returned with the previous page")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Maximum number of notifications to return")
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @Parameter(description = "Return only the beginning of each message")
+            @RequestParam(name = "summary", required = false, defaultValue = "false") boolean summary) {
+        return searchService.search(query, recipientId, cursor, limit, summary);
+    }
+}
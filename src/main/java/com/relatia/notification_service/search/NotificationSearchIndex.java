@@ -0,0 +1,435 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationCreatedEvent;
+import com.relatia.notification_service.notification.NotificationDeletedEvent;
+import com.relatia.notification_service.notification.NotificationMergedEvent;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.notification.NotificationsCreatedEvent;
+import com.relatia.notification_service.notification.NotificationsPurgedEvent;
+import com.relatia.notification_service.notification.RemoteChangeListener;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSelector;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Node-local Lucene index over the title and message of every notification.
+ * <p>
+ * The index follows this node's changes after they commit, and the notifications other nodes
+ * report as created or deleted; marking as read changes nothing that is indexed. On startup it is
+ * rebuilt from the database in the background, while searches keep being served from whatever the
+ * index already holds. Rebuilds and re-reads run on the primary, since a lagging replica would
+ * leave notifications out of the index until the next rebuild. Documents
+ * carry only what is needed to match and rank a hit; the notifications themselves are loaded
+ * from the database, which also drops hits on documents that have gone stale.
+ * <p>
+ * Writes become searchable on the next refresh, at most {@code notification.search.refresh-interval}
+ * later. Failed index writes are logged and repaired by the next rebuild; they never fail the
+ * request that caused them.
+ */
+@Slf4j
+@Component
+public class NotificationSearchIndex implements RemoteChangeListener, DisposableBean {
+
+    private static final String KEY = "key";
+    private static final String ID = "id";
+    private static final String TENANT = "tenant";
+    private static final String RECIPIENT = "recipient";
+    private static final String GENERATION = "generation";
+    private static final String TITLE = "title";
+    private static final String MESSAGE = "message";
+
+    /** Title matches rank above message matches */
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 2f, MESSAGE, 1f);
+
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE,
+        LongField.newSortField(ID, true, SortedNumericSelector.Type.MIN));
+
+    private final NotificationSearchRepository searchRepository;
+    private final TenantRegistry tenantRegistry;
+    private final TransactionTemplate readTransaction;
+    private final NotificationProperties.Search properties;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ExecutorService rebuilder =
+        Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-rebuild-"));
+    private final ConcurrentMap<String, Set<Long>> staleNotifications = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Long>> staleRecipients = new ConcurrentHashMap<>();
+    /**
+     * Stamped on every document written; a rebuild starts a new generation and removes the
+     * documents of older ones that it did not rewrite.
+     */
+    private final AtomicLong generation = new AtomicLong(System.currentTimeMillis());
+    private volatile boolean closing;
+
+    public NotificationSearchIndex(NotificationSearchRepository searchRepository,
+                                   TenantRegistry tenantRegistry,
+                                   PlatformTransactionManager transactionManager,
+                                   NotificationProperties notificationProperties) throws IOException {
+        this.searchRepository = searchRepository;
+        this.tenantRegistry = tenantRegistry;
+        // Not read-only, so reads are served by the primary rather than a replica
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.properties = notificationProperties.getSearch();
+        this.directory = properties.getIndexPath() != null
+            ? FSDirectory.open(properties.getIndexPath())
+            : new ByteBuffersDirectory();
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Find notifications of the current tenant matching a query, best match first.
+     * The query uses simple syntax: terms must all match, {@code "quoted phrases"},
+     * {@code prefix*}, {@code -excluded} and {@code a | b} are supported.
+     *
+     * @param text the query
+     * @param recipientId the recipient to search, or {@code null} for all recipients of the tenant
+     * @param after the position after which to continue, or {@code null} for the best matches
+     * @param limit the maximum number of hits to return
+     * @return the IDs of the hits in rank order, with the position of each
+     */
+    public List<SearchHit> search(String text, Long recipientId, SearchCursor after, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+            .add(parser.parse(text), BooleanClause.Occur.MUST)
+            .add(new TermQuery(new Term(TENANT, TenantContext.getTenantId())), BooleanClause.Occur.FILTER);
+        if (recipientId != null) {
+            query.add(LongField.newExactQuery(RECIPIENT, recipientId), BooleanClause.Occur.FILTER);
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // IDs are unique, so the hit at the cursor is the only one that ties on both sort
+                // fields; placing the cursor on the last document skips it whatever its doc number
+                FieldDoc position = after == null ? null : new FieldDoc(searcher.getIndexReader().maxDoc() - 1,
+                    after.score(), new Object[] {after.score(), after.id()});
+                TopFieldDocs top = searcher.searchAfter(position, query.build(), limit, RANKING, true);
+                List<SearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    Object[] fields = ((FieldDoc) scoreDoc).fields;
+                    hits.add(new SearchHit((Long) fields[1], new SearchCursor((Float) fields[0], (Long) fields[1])));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Re-read every notification from the database into the index, one tenant partition and
+     * chunk at a time, then remove the documents of notifications that no longer exist.
+     *
+     * @return the number of notifications indexed
+     */
+    public long rebuild() {
+        long started = System.nanoTime();
+        long rebuildGeneration = generation.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+        long indexed = 0;
+        for (String partition : tenantRegistry.partitions()) {
+            indexed += TenantContext.callAs(partition, () -> indexAll(
+                after -> searchRepository.findDocumentsAfter(after, Limit.of(properties.getRebuildChunkSize()))));
+        }
+        if (closing) {
+            return indexed;
+        }
+        write(index -> {
+            index.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, rebuildGeneration - 1));
+            index.commit();
+        });
+        refreshSearcher();
+        log.info("Rebuilt search index with {} notifications in {} ms", indexed,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return indexed;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (properties.isRebuildOnStartup()) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    log.error("Rebuilding the search index failed", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedule the notifications of the current tenant to be re-read from the database before the
+     * next refresh. Without notification IDs, all notifications of the recipients are re-read.
+     */
+    @Override
+    public void onRemoteCreated(Set<Long> recipientIds, Set<Long> notificationIds) {
+        if (notificationIds != null) {
+            stale(staleNotifications).addAll(notificationIds);
+        } else if (recipientIds != null) {
+            stale(staleRecipients).addAll(recipientIds);
+        }
+    }
+
+    /**
+     * Remove the notifications of the current tenant from the index. Without notification IDs,
+     * all notifications of the recipients are re-read before the next refresh.
+     */
+    @Override
+    public void onRemoteDeleted(Set<Long> recipientIds, Set<Long> notificationIds) {
+        if (notificationIds != null) {
+            deleteAll(TenantContext.getTenantId(), notificationIds);
+        } else if (recipientIds != null) {
+            stale(staleRecipients).addAll(recipientIds);
+        }
+    }
+
+    /**
+     * Re-read the notifications reported by other nodes and make all writes so far searchable.
+     */
+    @Scheduled(fixedDelayString = "${notification.search.refresh-interval:1s}")
+    public void refresh() {
+        staleNotifications.forEach((tenantId, ids) -> {
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                List<Long> chunk = new ArrayList<>();
+                while (chunk.size() < properties.getRebuildChunkSize() && iterator.hasNext()) {
+                    // An ID reported again after this removal is picked up by the next refresh
+                    chunk.add(iterator.next());
+                    iterator.remove();
+                }
+                TenantContext.runAs(tenantId, () -> indexDocuments(
+                    readTransaction.execute(status -> searchRepository.findDocumentsByIds(chunk))));
+            }
+        });
+        staleRecipients.forEach((tenantId, recipientIds) -> {
+            Iterator<Long> iterator = recipientIds.iterator();
+            while (iterator.hasNext()) {
+                Long recipientId = iterator.next();
+                // A recipient reported again after this removal is picked up by the next refresh
+                iterator.remove();
+                TenantContext.runAs(tenantId, () -> reindexRecipient(recipientId));
+            }
+        });
+        refreshSearcher();
+    }
+
+    /**
+     * Make the index directory reflect all writes so far, so a restarted node starts from it.
+     */
+    @Scheduled(fixedDelayString = "${notification.search.commit-interval:1m}")
+    public void commit() {
+        write(IndexWriter::commit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onCreated(NotificationCreatedEvent event) {
+        index(event.notification());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onMerged(NotificationMergedEvent event) {
+        index(event.notification());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onBulkCreated(NotificationsCreatedEvent event) {
+        String tenantId = TenantContext.getTenantId();
+        long current = generation.get();
+        write(index -> {
+            for (Notification notification : event.notifications()) {
+                index.updateDocument(key(tenantId, notification.getId()), document(tenantId, notification.getId(),
+                    notification.getRecipientId(), notification.getTitle(), notification.getMessage(), current));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onDeleted(NotificationDeletedEvent event) {
+        Term key = key(TenantContext.getTenantId(), event.id());
+        write(index -> index.deleteDocuments(key));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onPurged(NotificationsPurgedEvent event) {
+        deleteAll(TenantContext.getTenantId(), event.ids());
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        closing = true;
+        rebuilder.shutdown();
+        rebuilder.awaitTermination(30, TimeUnit.SECONDS);
+        searcherManager.close();
+        // Closing commits pending changes
+        writer.close();
+        directory.close();
+    }
+
+    private void index(NotificationResponse notification) {
+        String tenantId = TenantContext.getTenantId();
+        Document document = document(tenantId, notification.getId(), notification.getRecipientId(),
+            notification.getTitle(), notification.getMessage(), generation.get());
+        write(index -> index.updateDocument(key(tenantId, notification.getId()), document));
+    }
+
+    private static Set<Long> stale(ConcurrentMap<String, Set<Long>> byTenant) {
+        return byTenant.computeIfAbsent(TenantContext.getTenantId(), tenantId -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void deleteAll(String tenantId, Collection<Long> ids) {
+        List<BytesRef> keys = ids.stream().map(id -> key(tenantId, id).bytes()).toList();
+        write(index -> index.deleteDocuments(new TermInSetQuery(KEY, keys)));
+    }
+
+    private void reindexRecipient(Long recipientId) {
+        String tenantId = TenantContext.getTenantId();
+        write(index -> index.deleteDocuments(new BooleanQuery.Builder()
+            .add(new TermQuery(new Term(TENANT, tenantId)), BooleanClause.Occur.FILTER)
+            .add(LongField.newExactQuery(RECIPIENT, recipientId), BooleanClause.Occur.FILTER)
+            .build()));
+        indexAll(after -> searchRepository.findRecipientDocumentsAfter(recipientId, after,
+            Limit.of(properties.getRebuildChunkSize())));
+        log.debug("Reindexed recipient {} of {}", recipientId, tenantId);
+    }
+
+    /**
+     * Index the documents returned chunk by chunk, each chunk read in its own transaction.
+     *
+     * @param chunkAfter reads the chunk following the given ID
+     * @return the number of documents indexed
+     */
+    private long indexAll(Function<Long, List<SearchDocument>> chunkAfter) {
+        long indexed = 0;
+        Long after = 0L;
+        while (!closing) {
+            Long from = after;
+            List<SearchDocument> chunk = readTransaction.execute(status -> chunkAfter.apply(from));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            indexDocuments(chunk);
+            indexed += chunk.size();
+            after = chunk.get(chunk.size() - 1).id();
+        }
+        return indexed;
+    }
+
+    private void indexDocuments(List<SearchDocument> documents) {
+        long current = generation.get();
+        write(index -> {
+            for (SearchDocument document : documents) {
+                index.updateDocument(key(document.tenantId(), document.id()), document(document.tenantId(),
+                    document.id(), document.recipientId(), document.title(), document.message(), current));
+            }
+        });
+    }
+
+    private void write(IndexWrite write) {
+        try {
+            write.apply(writer);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Search index update failed, it is repaired by the next rebuild", ex);
+        }
+    }
+
+    private void refreshSearcher() {
+        try {
+            // maybeRefresh returns at once while another thread refreshes, possibly before this thread's writes
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Search index refresh failed", ex);
+        }
+    }
+
+    private static Term key(String tenantId, Long id) {
+        return new Term(KEY, tenantId + '/' + id);
+    }
+
+    private static Document document(String tenantId, Long id, Long recipientId, String title, String message,
+                                     long generation) {
+        Document document = new Document();
+        document.add(new StringField(KEY, tenantId + '/' + id, Field.Store.NO));
+        document.add(new StringField(TENANT, tenantId, Field.Store.NO));
+        document.add(new LongField(ID, id, Field.Store.NO));
+        document.add(new LongField(RECIPIENT, recipientId, Field.Store.NO));
+        document.add(new LongPoint(GENERATION, generation));
+        document.add(new TextField(TITLE, title, Field.Store.NO));
+        document.add(new TextField(MESSAGE, message, Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * One hit of a search.
+     *
+     * @param id the ID of the matching notification
+     * @param position the cursor pointing just past this hit
+     */
+    public record SearchHit(Long id, SearchCursor position) {
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void apply(IndexWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,31 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.notification.NotificationResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of ranked search results.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of search results with a cursor to the next page")
+public class NotificationSearchPage {
+
+    @Schema(description = "Matching notifications on this page, best match first")
+    private List<NotificationResponse> items;
+
+    @Schema(description = "Opaque cursor for the next page, absent when this is the last page",
+            example = "Mi4zNTE4MDF8NDI")
+    private String nextCursor;
+
+    @Schema(description = "Whether more matches are available after this page", example = "true")
+    private boolean hasMore;
+}
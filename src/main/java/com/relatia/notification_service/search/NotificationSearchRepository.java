@@ -0,0 +1,62 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationRepository;
+import com.relatia.notification_service.notification.NotificationResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queries used to fill the search index and to load the notifications a search matched.
+ * Documents are read in keyset chunks ordered by ID, so a rebuild never holds more than one
+ * chunk in memory.
+ */
+public interface NotificationSearchRepository extends org.springframework.data.repository.Repository<Notification, Long> {
+
+    @Query("""
+            select new com.relatia.notification_service.search.SearchDocument(
+                n.id, n.tenantId, n.recipientId, n.title, n.message)
+            from Notification n
+            where n.id > :after
+            order by n.id
+            """)
+    List<SearchDocument> findDocumentsAfter(@Param("after") Long after, Limit limit);
+
+    @Query("""
+            select new com.relatia.notification_service.search.SearchDocument(
+                n.id, n.tenantId, n.recipientId, n.title, n.message)
+            from Notification n
+            where n.recipientId = :recipientId and n.id > :after
+            order by n.id
+            """)
+    List<SearchDocument> findRecipientDocumentsAfter(@Param("recipientId") Long recipientId,
+                                                     @Param("after") Long after,
+                                                     Limit limit);
+
+    @Query("""
+            select new com.relatia.notification_service.search.SearchDocument(
+                n.id, n.tenantId, n.recipientId, n.title, n.message)
+            from Notification n
+            where n.id in :ids
+            """)
+    List<SearchDocument> findDocumentsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find notifications by ID, in no particular order. IDs of notifications that no longer exist
+     * are skipped.
+     *
+     * @param ids the notification IDs
+     * @param messageLength the maximum number of message characters to return
+     * @return the notifications found
+     */
+    @Query(NotificationRepository.RESPONSE_SELECT + """
+            from Notification n
+            where n.id in :ids
+            """)
+    List<NotificationResponse> findResponsesByIds(@Param("ids") Collection<Long> ids,
+                                                  @Param("messageLength") int messageLength);
+}
@@ -0,0 +1,86 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.notification.NotificationMetrics;
+import com.relatia.notification_service.notification.NotificationResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for full-text search over notifications.
+ * Matching and ranking happen in the {@link NotificationSearchIndex}; the page of hits is then
+ * loaded from the database in one query, so results always show the current state.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationSearchService {
+
+    /** Longest query accepted, so a single request cannot expand into an arbitrarily large query */
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final NotificationSearchIndex searchIndex;
+    private final NotificationSearchRepository searchRepository;
+    private final NotificationProperties notificationProperties;
+    private final NotificationMetrics metrics;
+
+    /**
+     * Search the notifications of the current tenant, best match first.
+     *
+     * @param query the query, see {@link NotificationSearchIndex#search}
+     * @param recipientId the recipient to search, or {@code null} for all recipients
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param limit the requested page size, or {@code null} for the configured default
+     * @param summary whether to cut each message to the configured summary length
+     * @return the page of matching notifications
+     * @throws BadRequestException if the query is blank or too long, or the cursor or limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public NotificationSearchPage search(String query, Long recipientId, String cursor, Integer limit,
+                                         boolean summary) {
+        long start = System.nanoTime();
+        try {
+            if (!StringUtils.hasText(query)) {
+                throw new BadRequestException("Query is required");
+            }
+            if (query.length() > MAX_QUERY_LENGTH) {
+                throw new BadRequestException("Query must not be longer than " + MAX_QUERY_LENGTH + " characters");
+            }
+            int pageSize = notificationProperties.getPagination().resolveLimit(limit);
+            SearchCursor after = StringUtils.hasText(cursor) ? SearchCursor.decode(cursor) : null;
+            // Fetch one extra hit to find out whether another page exists
+            List<NotificationSearchIndex.SearchHit> hits = searchIndex.search(query, recipientId, after, pageSize + 1);
+            boolean hasMore = hits.size() > pageSize;
+            List<NotificationSearchIndex.SearchHit> page = hasMore ? hits.subList(0, pageSize) : hits;
+
+            Map<Long, NotificationResponse> found = page.isEmpty() ? Map.of()
+                : searchRepository.findResponsesByIds(page.stream().map(NotificationSearchIndex.SearchHit::id).toList(),
+                        notificationProperties.getPagination().messageLength(summary)).stream()
+                    .collect(Collectors.toMap(NotificationResponse::getId, Function.identity()));
+            List<NotificationResponse> items = new ArrayList<>(page.size());
+            for (NotificationSearchIndex.SearchHit hit : page) {
+                // Hits on notifications deleted since they were indexed are skipped
+                NotificationResponse notification = found.get(hit.id());
+                if (notification != null) {
+                    items.add(notification);
+                }
+            }
+            metrics.recordResults(NotificationMetrics.Query.SEARCH, items.size());
+            return NotificationSearchPage.builder()
+                .items(items)
+                .nextCursor(hasMore ? page.get(pageSize - 1).position().encode() : null)
+                .hasMore(hasMore)
+                .build();
+        } finally {
+            metrics.record(NotificationMetrics.Operation.SEARCH, start);
+        }
+    }
+}
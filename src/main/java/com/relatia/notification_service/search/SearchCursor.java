@@ -0,0 +1,52 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position inside a ranked search result.
+ * Hits are ordered by {@code (score desc, id desc)}, so the last hit of a page identifies where
+ * the next page starts. Scores depend on the whole index, so a page fetched after the index
+ * changed may start slightly off; IDs are never returned twice within one unchanged index.
+ *
+ * @param score relevance score of the last hit returned
+ * @param id    ID of the last hit returned, used as a tie-breaker for equal scores
+ */
+public record SearchCursor(float score, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encode this cursor into its opaque, URL-safe representation.
+     *
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = Float.toString(score) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded the opaque cursor sent by the client
+     * @return the decoded cursor
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static SearchCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new BadRequestException("Invalid cursor: " + encoded);
+            }
+            return new SearchCursor(
+                    Float.parseFloat(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor: " + encoded, ex);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.relatia.notification_service.search;
+
+/**
+ * The indexed fields of a notification, as read by {@link NotificationSearchRepository}.
+ *
+ * @param id the notification ID
+ * @param tenantId the tenant the notification belongs to
+ * @param recipientId the recipient of the notification
+ * @param title the title
+ * @param message the message
+ */
+public record SearchDocument(Long id, String tenantId, Long recipientId, String title, String message) {
+}
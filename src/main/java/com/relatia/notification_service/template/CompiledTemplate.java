@@ -0,0 +1,102 @@
+package com.relatia.notification_service.template;
+
+import com.relatia.notification_service.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A template parsed once into a render plan: the literal text between placeholders and the
+ * variable name of each {@code {{placeholder}}}, in order.
+ * <p>
+ * Rendering walks the plan and appends into a single builder sized from the literal length, so it
+ * does no scanning or intermediate allocation; a template without placeholders renders to its
+ * source string. Instances are immutable and safe to share between threads.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    /** Expected characters per variable value when sizing the output */
+    private static final int VALUE_LENGTH_ESTIMATE = 16;
+
+    /** {@code literals[i]} precedes {@code variables[i]}; the last literal follows the last variable */
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse a template. Placeholders are variable names in double braces, e.g. {@code {{firstName}}};
+     * whitespace around the name is ignored.
+     *
+     * @param source the template text
+     * @return the compiled template
+     * @throws BadRequestException if a placeholder is not closed or has no name
+     */
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new BadRequestException("Unclosed placeholder at index " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).strip();
+            if (name.isEmpty()) {
+                throw new BadRequestException("Empty placeholder at index " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(name);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new));
+    }
+
+    /**
+     * Render the template.
+     *
+     * @param values variable values by name
+     * @return the rendered text
+     * @throws BadRequestException if a variable used by the template has no value
+     */
+    public String render(Map<String, String> values) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(literalLength + variables.length * VALUE_LENGTH_ESTIMATE);
+        for (int i = 0; i < variables.length; i++) {
+            String value = values == null ? null : values.get(variables[i]);
+            if (value == null) {
+                throw new BadRequestException("Missing template variable: " + variables[i]);
+            }
+            out.append(literals[i]).append(value);
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    /**
+     * @return the distinct variable names used by the template, in order of first use
+     */
+    public Set<String> variables() {
+        Set<String> names = new LinkedHashSet<>(variables.length * 2);
+        Collections.addAll(names, variables);
+        return names;
+    }
+}
@@ -0,0 +1,113 @@
+package com.relatia.notification_service.template;
+
+import com.relatia.notification_service.exception.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import static com.relatia.notification_service.constants.GlobalConstants.NOTIFICATION_TEMPLATE_API;
+
+/**
+ * REST controller for managing notification templates.
+ * Notification requests reference a template by ID and supply its variables instead of a rendered title and message.
+ */
+@Tag(
+    name = "Notification Templates",
+    description = "APIs for managing server-side notification templates with {{placeholder}} variables"
+)
+@RequestMapping(
+    path = NOTIFICATION_TEMPLATE_API,
+    produces = MediaType.APPLICATION_JSON_VALUE
+)
+@RestController
+@RequiredArgsConstructor
+@ApiResponses({
+    @ApiResponse(
+        responseCode = "500",
+        description = "Internal Server Error",
+        content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+    )
+})
+public class NotificationTemplateController {
+
+    private final NotificationTemplateService templateService;
+
+    @Operation(
+        summary = "Create or replace a template",
+        description = "Stores the title and message templates under the given ID, replacing any existing template"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Template stored successfully",
+            content = @Content(schema = @Schema(implementation = NotificationTemplateResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input or malformed placeholder",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @PutMapping("/{templateId}")
+    public NotificationTemplateResponse saveTemplate(
+            @Parameter(description = "ID of the template", required = true)
+            @PathVariable String templateId,
+            @Valid @RequestBody NotificationTemplateRequest request) {
+        return templateService.saveTemplate(templateId, request);
+    }
+
+    @Operation(
+        summary = "Get a template",
+        description = "Retrieves a template and the variables it uses"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "200",
+            description = "Template found",
+            content = @Content(schema = @Schema(implementation = NotificationTemplateResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Template not found",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @GetMapping("/{templateId}")
+    public NotificationTemplateResponse getTemplate(
+            @Parameter(description = "ID of the template", required = true)
+            @PathVariable String templateId) {
+        return templateService.getTemplate(templateId);
+    }
+
+    @Operation(
+        summary = "Delete a template",
+        description = "Deletes a template; notifications already created from it are kept"
+    )
+    @ApiResponses({
+        @ApiResponse(
+            responseCode = "204",
+            description = "Template deleted successfully"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Template not found",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    @DeleteMapping("/{templateId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTemplate(
+            @Parameter(description = "ID of the template", required = true)
+            @PathVariable String templateId) {
+        templateService.deleteTemplate(templateId);
+    }
+}
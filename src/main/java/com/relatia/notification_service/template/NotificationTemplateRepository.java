@@ -0,0 +1,9 @@
+package com.relatia.notification_service.template;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository for {@link NotificationTemplate} entities.
+ */
+public interface NotificationTemplateRepository extends JpaRepository<NotificationTemplate, String> {
+}
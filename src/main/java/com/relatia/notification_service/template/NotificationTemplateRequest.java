@@ -0,0 +1,24 @@
+package com.relatia.notification_service.template;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * DTO for creating or replacing a notification template.
+ */
+@Data
+@Schema(description = "Request object for creating or replacing a notification template")
+public class NotificationTemplateRequest {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must not exceed 200 characters")
+    @Schema(description = "Title template; the rendered title must not exceed 100 characters",
+            example = "Invoice {{invoiceNumber}} is overdue")
+    private String title;
+
+    @NotBlank(message = "Message is required")
+    @Schema(description = "Message template", example = "Hi {{firstName}}, invoice {{invoiceNumber}} is {{days}} days overdue.")
+    private String message;
+}
@@ -0,0 +1,42 @@
+package com.relatia.notification_service.template;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * DTO for notification template responses.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Response object for notification template operations")
+public class NotificationTemplateResponse {
+
+    @Schema(description = "Identifier of the template", example = "invoice-overdue")
+    private String id;
+
+    @Schema(description = "Title template", example = "Invoice {{invoiceNumber}} is overdue")
+    private String title;
+
+    @Schema(description = "Message template", example = "Hi {{firstName}}, invoice {{invoiceNumber}} is {{days}} days overdue.")
+    private String message;
+
+    @Schema(description = "Variables a notification request must supply", example = "[\"invoiceNumber\", \"firstName\", \"days\"]")
+    private Set<String> variables;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Timestamp when the template was created", example = "2023-07-27T10:15:30")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    @Schema(description = "Timestamp when the template was last updated", example = "2023-07-27T10:15:30")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,159 @@
+package com.relatia.notification_service.template;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.exception.ResourceNotFoundException;
+import com.relatia.notification_service.notification.NotificationRequest;
+import com.relatia.notification_service.tenant.TenantScoped;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stores notification templates and renders notification requests that reference one.
+ * <p>
+ * Each template is parsed once into a {@link CompiledTemplate} and kept in a bounded in-memory
+ * cache, so a campaign sending the same template to many recipients only pays for filling in
+ * variables. Changes made through this node replace its cache entry right away; other nodes pick
+ * them up when their entry expires. Templates belong to a tenant, and every tenant has a cache of
+ * its own, reported with a {@code tenant} tag, so the same template ID can name different
+ * templates for different tenants.
+ */
+@Service
+public class NotificationTemplateService {
+
+    static final String CACHE_NAME = "notification.templates";
+    private static final int MAX_TEMPLATE_ID_LENGTH = 100;
+    private static final int MAX_TITLE_LENGTH = 100;
+
+    private final NotificationTemplateRepository templateRepository;
+    private final TenantScoped<LoadingCache<String, Compiled>> compiled;
+
+    public NotificationTemplateService(NotificationTemplateRepository templateRepository,
+                                       NotificationProperties notificationProperties,
+                                       MeterRegistry meterRegistry) {
+        this.templateRepository = templateRepository;
+        NotificationProperties.Templates properties = notificationProperties.getTemplates();
+        this.compiled = new TenantScoped<>(tenantId -> {
+            // Unknown IDs load as null, which Caffeine does not cache; loads run as the calling tenant
+            LoadingCache<String, Compiled> cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build(id -> templateRepository.findById(id).map(Compiled::of).orElse(null));
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME, Tags.of("tenant", tenantId));
+            return cache;
+        });
+    }
+
+    /**
+     * Create or replace a template.
+     *
+     * @param id the template ID
+     * @param request the title and message templates
+     * @return the stored template
+     * @throws BadRequestException if the ID is invalid or a template has a malformed placeholder
+     */
+    public NotificationTemplateResponse saveTemplate(String id, NotificationTemplateRequest request) {
+        if (!StringUtils.hasText(id) || id.length() > MAX_TEMPLATE_ID_LENGTH) {
+            throw new BadRequestException("Template ID must be 1 to " + MAX_TEMPLATE_ID_LENGTH + " characters");
+        }
+        Compiled plan = Compiled.of(request.getTitle(), request.getMessage());
+        NotificationTemplate template = templateRepository.findById(id)
+            .orElseGet(() -> NotificationTemplate.builder().id(id).build());
+        template.setTitle(request.getTitle());
+        template.setMessage(request.getMessage());
+        NotificationTemplate saved = templateRepository.save(template);
+        compiled.current().put(id, plan);
+        return toResponse(saved, plan);
+    }
+
+    /**
+     * Get a template by ID.
+     *
+     * @param id the template ID
+     * @return the template
+     * @throws ResourceNotFoundException if the template is not found
+     */
+    public NotificationTemplateResponse getTemplate(String id) {
+        NotificationTemplate template = templateRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Notification template not found with id: " + id));
+        return toResponse(template, Compiled.of(template));
+    }
+
+    /**
+     * Delete a template. Notifications already rendered from it are not affected.
+     *
+     * @param id the template ID
+     * @throws ResourceNotFoundException if the template is not found
+     */
+    public void deleteTemplate(String id) {
+        if (!templateRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Notification template not found with id: " + id);
+        }
+        templateRepository.deleteById(id);
+        compiled.current().invalidate(id);
+    }
+
+    /**
+     * Fill in the title and message of a request that references a template.
+     *
+     * @param request the notification request
+     * @return the request itself if it has no template ID, otherwise a copy with the rendered title and message
+     * @throws BadRequestException if the template does not exist, a variable is missing or the
+     *         rendered title is too long
+     */
+    public NotificationRequest render(NotificationRequest request) {
+        String templateId = request.getTemplateId();
+        if (templateId == null) {
+            return request;
+        }
+        Compiled plan = compiled.current().get(templateId);
+        if (plan == null) {
+            throw new BadRequestException("Unknown notification template: " + templateId);
+        }
+        String title = plan.title().render(request.getVariables());
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new BadRequestException("Rendered title must not exceed " + MAX_TITLE_LENGTH + " characters");
+        }
+
+        NotificationRequest rendered = new NotificationRequest();
+        rendered.setTitle(title);
+        rendered.setMessage(plan.message().render(request.getVariables()));
+        rendered.setRecipientId(request.getRecipientId());
+        rendered.setType(request.getType());
+        rendered.setDedupKey(request.getDedupKey());
+        return rendered;
+    }
+
+    private static NotificationTemplateResponse toResponse(NotificationTemplate template, Compiled plan) {
+        Set<String> variables = new LinkedHashSet<>(plan.title().variables());
+        variables.addAll(plan.message().variables());
+        return NotificationTemplateResponse.builder()
+            .id(template.getId())
+            .title(template.getTitle())
+            .message(template.getMessage())
+            .variables(variables)
+            .createdAt(template.getCreatedAt())
+            .updatedAt(template.getUpdatedAt())
+            .build();
+    }
+
+    private record Compiled(CompiledTemplate title, CompiledTemplate message) {
+
+        static Compiled of(NotificationTemplate template) {
+            return of(template.getTitle(), template.getMessage());
+        }
+
+        static Compiled of(String title, String message) {
+            return new Compiled(CompiledTemplate.compile(title), CompiledTemplate.compile(message));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.relatia.notification_service.tenant;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Hands Hibernate connections pointed at the schema of the session's tenant.
+ * Tenants with a schema of their own get connections from a data source of their own, whose
+ * connections are switched to that schema once a pool has been picked, and switched back before
+ * they return to it; all other tenants, and the root pseudo-tenant, use the application data source
+ * unchanged.
+ */
+class SchemaPerTenantConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    private final DataSource dataSource;
+    private final Map<String, DataSource> schemaDataSources;
+
+    SchemaPerTenantConnectionProvider(DataSource dataSource, Map<String, DataSource> schemaDataSources) {
+        this.dataSource = dataSource;
+        this.schemaDataSources = schemaDataSources;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantId) throws SQLException {
+        return schemaDataSources.getOrDefault(tenantId, dataSource).getConnection();
+    }
+
+    @Override
+    public void releaseConnection(String tenantId, Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return (T) this;
+        }
+        if (unwrapType.isInstance(dataSource)) {
+            return (T) dataSource;
+        }
+        throw new IllegalArgumentException("Cannot unwrap to " + unwrapType);
+    }
+}
@@ -0,0 +1,88 @@
+package com.relatia.notification_service.tenant;
+
+/**
+ * Holds the tenant the current thread works for.
+ * <p>
+ * Requests get their tenant from {@link TenantFilter}; work done outside a request runs for the
+ * {@link #DEFAULT_TENANT default tenant} unless it is wrapped in {@link #callAs}. A transaction
+ * always belongs to the tenant that was current when it began, and so do the after-commit
+ * listeners of its events, which run on the same thread.
+ */
+public final class TenantContext {
+
+    /** Tenant of requests without a tenant header, and of all data stored before tenancy was introduced */
+    public static final String DEFAULT_TENANT = "default";
+
+    /**
+     * Pseudo-tenant that sees the rows of every tenant in the shared schema. Only for background
+     * jobs that do not create notifications; see {@link TenantIdentifierResolver#isRoot}.
+     */
+    public static final String ROOT = "*";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * @return the tenant of the current thread, or the default tenant if none was set
+     */
+    public static String getTenantId() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * Run a task for the given tenant, restoring the previous tenant afterwards.
+     *
+     * @param tenantId the tenant ID
+     * @param task the task
+     * @return the task's result
+     * @throws E if the task throws it
+     */
+    public static <T, E extends Exception> T callAs(String tenantId, TenantTask<T, E> task) throws E {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        try {
+            return task.call();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Run a task for the given tenant, restoring the previous tenant afterwards.
+     *
+     * @param tenantId the tenant ID
+     * @param task the task
+     */
+    public static void runAs(String tenantId, Runnable task) {
+        callAs(tenantId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * A unit of work run for a tenant.
+     *
+     * @param <T> the result type
+     * @param <E> the checked exception the work may throw
+     */
+    @FunctionalInterface
+    public interface TenantTask<T, E extends Exception> {
+        T call() throws E;
+    }
+}
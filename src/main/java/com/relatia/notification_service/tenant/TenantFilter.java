@@ -0,0 +1,65 @@
+package com.relatia.notification_service.tenant;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.exception.BadRequestException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Sets the tenant of each request from the tenant header ({@code notification.tenancy.header}).
+ * Requests without the header belong to the default tenant; requests naming a tenant that is not
+ * served are rejected with 400 before they reach a controller.
+ * <p>
+ * Runs as a servlet filter rather than an interceptor so the tenant is set before the
+ * open-in-view interceptor opens the request's persistence context.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TenantFilter extends OncePerRequestFilter {
+
+    private final TenantRegistry tenantRegistry;
+    private final String header;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public TenantFilter(TenantRegistry tenantRegistry,
+                        NotificationProperties notificationProperties,
+                        @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.tenantRegistry = tenantRegistry;
+        this.header = notificationProperties.getTenancy().getHeader();
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(header);
+        if (!StringUtils.hasText(tenantId)) {
+            tenantId = TenantContext.DEFAULT_TENANT;
+        } else if (!tenantRegistry.isKnown(tenantId)) {
+            exceptionResolver.resolveException(request, response, null,
+                new BadRequestException("Unknown tenant: " + tenantId));
+            return;
+        }
+        TenantContext.set(tenantId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
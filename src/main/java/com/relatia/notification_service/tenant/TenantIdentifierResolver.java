@@ -0,0 +1,30 @@
+package com.relatia.notification_service.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Tells Hibernate which tenant a new session belongs to, from {@link TenantContext}.
+ * Registered by class name ({@code hibernate.tenant_identifier_resolver}) rather than as a bean,
+ * so it is also in place in JPA test slices.
+ * <p>
+ * Sessions filter every query on {@link com.relatia.notification_service.notification.Notification}
+ * by their tenant and stamp new rows with it, except sessions of the {@link TenantContext#ROOT}
+ * pseudo-tenant, which are not filtered.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.getTenantId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return TenantContext.ROOT.equals(tenantId);
+    }
+}
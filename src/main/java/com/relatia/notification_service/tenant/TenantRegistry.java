@@ -0,0 +1,91 @@
+package com.relatia.notification_service.tenant;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The tenants this deployment serves, from {@code notification.tenancy}, and where their data lives.
+ * The default tenant is always served and lives in the default schema.
+ */
+@Component
+public class TenantRegistry {
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+    private static final Pattern SCHEMA = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{0,62}");
+
+    private final Set<String> tenantIds;
+    private final Map<String, String> schemas;
+
+    public TenantRegistry(NotificationProperties notificationProperties) {
+        NotificationProperties.Tenancy tenancy = notificationProperties.getTenancy();
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(TenantContext.DEFAULT_TENANT);
+        ids.addAll(tenancy.getTenants());
+        ids.addAll(tenancy.getSchemas().keySet());
+        for (String tenantId : ids) {
+            if (!TENANT_ID.matcher(tenantId).matches()) {
+                throw new IllegalStateException("Invalid tenant ID in notification.tenancy: " + tenantId);
+            }
+        }
+        Map<String, String> dedicated = new LinkedHashMap<>();
+        tenancy.getSchemas().forEach((tenantId, schema) -> {
+            if (TenantContext.DEFAULT_TENANT.equals(tenantId)) {
+                throw new IllegalStateException("The default tenant always uses the default schema");
+            }
+            if (schema == null || !SCHEMA.matcher(schema).matches()) {
+                throw new IllegalStateException("Invalid schema for tenant " + tenantId + ": " + schema);
+            }
+            if (dedicated.containsValue(schema)) {
+                throw new IllegalStateException("Schema " + schema + " is assigned to more than one tenant");
+            }
+            dedicated.put(tenantId, schema);
+        });
+        this.tenantIds = Collections.unmodifiableSet(ids);
+        this.schemas = Collections.unmodifiableMap(dedicated);
+    }
+
+    /**
+     * @param tenantId a tenant ID, possibly {@code null}
+     * @return whether the tenant is served by this deployment
+     */
+    public boolean isKnown(String tenantId) {
+        return tenantId != null && tenantIds.contains(tenantId);
+    }
+
+    /**
+     * @return every tenant served, the default tenant first
+     */
+    public Set<String> tenantIds() {
+        return tenantIds;
+    }
+
+    /**
+     * @return the tenants with a schema of their own, mapped to that schema
+     */
+    public Map<String, String> schemas() {
+        return schemas;
+    }
+
+    /**
+     * The tenants a background job has to run as to reach every row once: the
+     * {@link TenantContext#ROOT root} pseudo-tenant for the shared schema, then each tenant with a
+     * schema of its own.
+     *
+     * @return the tenant IDs to run as
+     */
+    public List<String> partitions() {
+        List<String> partitions = new ArrayList<>(schemas.size() + 1);
+        partitions.add(TenantContext.ROOT);
+        partitions.addAll(schemas.keySet());
+        return partitions;
+    }
+}
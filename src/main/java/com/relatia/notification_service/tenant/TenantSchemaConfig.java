@@ -0,0 +1,60 @@
+package com.relatia.notification_service.tenant;
+
+import com.relatia.notification_service.config.DataSourceRouter;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Schema-per-tenant mode for the tenants listed under {@code notification.tenancy.schemas}.
+ * <p>
+ * Each such tenant gets the full set of tables in its own schema, created and migrated by Flyway
+ * right after the default schema, and its sessions are given connections switched to that schema.
+ * With a replica configured, the switch is made on the connection of the pool the transaction is
+ * routed to, so a tenant's read-only transactions still reach the replica.
+ * Without dedicated schemas nothing changes: all tenants share the default schema and are kept
+ * apart by the tenant column alone.
+ */
+@Configuration(proxyBeanMethods = false)
+public class TenantSchemaConfig {
+
+    @Bean
+    public FlywayMigrationStrategy tenantSchemaMigrationStrategy(TenantRegistry tenantRegistry) {
+        return flyway -> {
+            flyway.migrate();
+            tenantRegistry.schemas().values().forEach(schema -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .schemas(schema)
+                .defaultSchema(schema)
+                .load()
+                .migrate());
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenantConnectionProviderCustomizer(
+            DataSource dataSource,
+            ObjectProvider<DataSourceRouter> dataSourceRouter,
+            TenantRegistry tenantRegistry) {
+        return properties -> {
+            if (tenantRegistry.schemas().isEmpty()) {
+                return;
+            }
+            // The schema is set on the pool's own connection, after a routing proxy has picked the pool
+            DataSourceRouter router = dataSourceRouter.getIfAvailable(() -> decorator -> decorator.apply(dataSource));
+            Map<String, DataSource> schemaDataSources = new HashMap<>();
+            tenantRegistry.schemas().forEach((tenantId, schema) ->
+                schemaDataSources.put(tenantId, router.route(pool -> new TenantSchemaDataSource(pool, schema))));
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER,
+                new SchemaPerTenantConnectionProvider(dataSource, schemaDataSources));
+        };
+    }
+}
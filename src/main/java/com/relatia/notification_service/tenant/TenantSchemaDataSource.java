@@ -0,0 +1,64 @@
+package com.relatia.notification_service.tenant;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections of the target pool switched to one tenant's schema, and switches them
+ * back to the pool's default schema when they are closed.
+ */
+class TenantSchemaDataSource extends DelegatingDataSource {
+
+    private final String schema;
+    private volatile String defaultSchema;
+
+    TenantSchemaDataSource(DataSource targetDataSource, String schema) {
+        super(targetDataSource);
+        this.schema = schema;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return switchSchema(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return switchSchema(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection switchSchema(Connection connection) throws SQLException {
+        try {
+            if (defaultSchema == null) {
+                defaultSchema = connection.getSchema();
+            }
+            connection.setSchema(schema);
+        } catch (SQLException ex) {
+            connection.close();
+            throw ex;
+        }
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    try {
+                        if (!connection.isClosed()) {
+                            connection.setSchema(defaultSchema);
+                        }
+                    } finally {
+                        connection.close();
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException ex) {
+                    throw ex.getTargetException();
+                }
+            });
+    }
+}
@@ -0,0 +1,52 @@
+package com.relatia.notification_service.tenant;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * One instance of some in-memory state per tenant, created on first use.
+ * <p>
+ * Keeping hot state such as caches and rate limiter buckets apart per tenant means entries of
+ * different tenants can never be confused, and a busy tenant only evicts its own entries. Each
+ * instance is bounded on its own, and the number of instances by the tenants the
+ * {@link TenantRegistry} accepts.
+ *
+ * @param <T> the type of the per-tenant state
+ */
+public final class TenantScoped<T> {
+
+    private final ConcurrentMap<String, T> instances = new ConcurrentHashMap<>();
+    private final Function<String, T> factory;
+
+    /**
+     * @param factory creates the state of a tenant, given its ID
+     */
+    public TenantScoped(Function<String, T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return the state of the current tenant, see {@link TenantContext}
+     */
+    public T current() {
+        return get(TenantContext.getTenantId());
+    }
+
+    /**
+     * @param tenantId the tenant ID
+     * @return the state of the tenant
+     */
+    public T get(String tenantId) {
+        T instance = instances.get(tenantId);
+        return instance != null ? instance : instances.computeIfAbsent(tenantId, factory);
+    }
+
+    /**
+     * @return the state of every tenant that has used it so far
+     */
+    public Collection<T> all() {
+        return instances.values();
+    }
+}
@@ -0,0 +1,5 @@
+-- Inbox summary, answered from the index alone:
+-- select notification_type, count(*), sum(case when is_read = false ...) where tenant_id = ? and recipient_id = ?
+-- group by notification_type
+create index idx_notifications_recipient_type
+    on notifications (tenant_id, recipient_id, notification_type, is_read);
@@ -0,0 +1,7 @@
+-- Templates belong to a tenant, and template IDs are unique per tenant. Existing templates belong
+-- to the default tenant; new rows always get their tenant from the application, so the column
+-- keeps no default.
+alter table notification_templates add column tenant_id varchar(64) default 'default' not null;
+alter table notification_templates alter column tenant_id drop default;
+alter table notification_templates drop constraint pk_notification_templates;
+alter table notification_templates add constraint pk_notification_templates primary key (tenant_id, template_id);
@@ -0,0 +1,21 @@
+-- Notifications and the ID sequence used for batched inserts.
+-- The increment matches the allocationSize of the entity's sequence generator.
+create sequence notifications_seq start with 1 increment by 50;
+
+create table notifications (
+    id                bigint       not null,
+    title             varchar(100) not null,
+    message           text         not null,
+    recipient_id      bigint       not null,
+    is_read           boolean      not null,
+    notification_type varchar(50)  not null,
+    created_at        timestamp(6) not null,
+    updated_at        timestamp(6),
+    version           bigint,
+    constraint pk_notifications primary key (id)
+);
+
+-- Inbox listing, keyset pagination, export and total counts:
+-- where recipient_id = ? order by created_at desc, id desc
+create index idx_notifications_recipient_created
+    on notifications (recipient_id, created_at desc, id desc);
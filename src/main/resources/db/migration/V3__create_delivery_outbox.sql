@@ -0,0 +1,27 @@
+-- Delivery status of each notification and the outbox of deliveries still to be sent.
+-- Notifications that existed before delivery was introduced were never sent and never will be.
+alter table notifications add column delivery_status varchar(20) default 'NOT_REQUIRED' not null;
+
+create sequence notification_deliveries_seq start with 1 increment by 50;
+
+create table notification_deliveries (
+    id              bigint       not null,
+    notification_id bigint       not null,
+    channel         varchar(50)  not null,
+    attempts        integer      not null,
+    next_attempt_at timestamp(6) not null,
+    last_error      varchar(500),
+    created_at      timestamp(6) not null,
+    version         bigint,
+    constraint pk_notification_deliveries primary key (id),
+    constraint fk_notification_deliveries_notification foreign key (notification_id)
+        references notifications (id) on delete cascade
+);
+
+-- Outbox scan: where channel = ? and next_attempt_at <= ? order by next_attempt_at
+create index idx_notification_deliveries_due
+    on notification_deliveries (channel, next_attempt_at);
+
+-- Cascading deletes from notifications
+create index idx_notification_deliveries_notification
+    on notification_deliveries (notification_id);
@@ -0,0 +1,20 @@
+-- Notifications moved out of the live table by the retention purger.
+create table notifications_archive (
+    id                bigint       not null,
+    title             varchar(100) not null,
+    message           text         not null,
+    recipient_id      bigint       not null,
+    is_read           boolean      not null,
+    notification_type varchar(50)  not null,
+    delivery_status   varchar(20)  not null,
+    created_at        timestamp(6) not null,
+    updated_at        timestamp(6),
+    version           bigint,
+    archived_at       timestamp(6) not null,
+    constraint pk_notifications_archive primary key (id)
+);
+
+-- Retention scan, one pass per type and read state:
+-- where notification_type = ? and is_read = ? and created_at < ? order by created_at, id
+create index idx_notifications_retention
+    on notifications (notification_type, is_read, created_at, id);
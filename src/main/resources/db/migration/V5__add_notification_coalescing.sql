@@ -0,0 +1,9 @@
+-- Coalescing of repeated notifications: the sender's dedup key and how many occurrences a row stands for.
+alter table notifications add column dedup_key varchar(100);
+alter table notifications add column occurrences integer default 1 not null;
+alter table notifications_archive add column dedup_key varchar(100);
+alter table notifications_archive add column occurrences integer default 1 not null;
+
+-- Coalescing lookup: where recipient_id = ? and dedup_key = ? and created_at >= ?
+create index idx_notifications_dedup
+    on notifications (recipient_id, dedup_key, created_at desc);
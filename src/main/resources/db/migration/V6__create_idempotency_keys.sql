@@ -0,0 +1,15 @@
+-- Idempotency-Key header values seen by POST /api/v1/notifications and the notification each one created.
+create table idempotency_keys (
+    idempotency_key varchar(100) not null,
+    notification_id bigint       not null,
+    created_at      timestamp(6) not null,
+    constraint pk_idempotency_keys primary key (idempotency_key),
+    constraint fk_idempotency_keys_notification foreign key (notification_id)
+        references notifications (id) on delete cascade
+);
+
+-- Expiry sweep: where created_at < ?
+create index idx_idempotency_keys_created on idempotency_keys (created_at);
+
+-- Cascading deletes from notifications
+create index idx_idempotency_keys_notification on idempotency_keys (notification_id);
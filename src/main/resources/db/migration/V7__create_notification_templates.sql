@@ -0,0 +1,10 @@
+-- Server-side title and message templates with {{placeholder}} variables, referenced by notification requests.
+create table notification_templates (
+    template_id varchar(100) not null,
+    title       varchar(200) not null,
+    message     text         not null,
+    created_at  timestamp(6) not null,
+    updated_at  timestamp(6),
+    version     bigint,
+    constraint pk_notification_templates primary key (template_id)
+);
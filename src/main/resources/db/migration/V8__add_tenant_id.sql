@@ -0,0 +1,26 @@
+-- Tenant of each notification. Existing rows belong to the default tenant; new rows always
+-- get their tenant from the application, so the column keeps no default.
+alter table notifications add column tenant_id varchar(64) default 'default' not null;
+alter table notifications alter column tenant_id drop default;
+alter table notifications_archive add column tenant_id varchar(64) default 'default' not null;
+alter table notifications_archive alter column tenant_id drop default;
+
+-- Idempotency keys are unique per tenant.
+alter table idempotency_keys add column tenant_id varchar(64) default 'default' not null;
+alter table idempotency_keys alter column tenant_id drop default;
+alter table idempotency_keys drop constraint pk_idempotency_keys;
+alter table idempotency_keys add constraint pk_idempotency_keys primary key (tenant_id, idempotency_key);
+
+-- Every query is restricted to one tenant, so the tenant leads each index.
+drop index idx_notifications_recipient_created;
+create index idx_notifications_recipient_created
+    on notifications (tenant_id, recipient_id, created_at desc, id desc);
+
+drop index idx_notifications_dedup;
+create index idx_notifications_dedup
+    on notifications (tenant_id, recipient_id, dedup_key, created_at desc);
+
+-- Retention scan, one pass per tenant, type and read state
+drop index idx_notifications_retention;
+create index idx_notifications_retention
+    on notifications (tenant_id, notification_type, is_read, created_at, id);
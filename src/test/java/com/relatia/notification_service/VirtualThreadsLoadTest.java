@@ -0,0 +1,148 @@
+package com.relatia.notification_service;
+
+import com.relatia.notification_service.notification.NotificationBatchRequest;
+import com.relatia.notification_service.notification.NotificationRequest;
+import com.relatia.notification_service.notification.NotificationService;
+import jakarta.servlet.Filter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the service with and without the {@code virtual-threads} profile under a burst of
+ * concurrent requests whose handling blocks, as it does when the database is slow.
+ * Both runs cap Tomcat at the same number of platform threads; with virtual threads that cap
+ * no longer applies and requests only queue for database connections.
+ */
+@Slf4j
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadTest {
+
+    private static final int PLATFORM_THREADS = 50;
+    private static final int CONCURRENT_REQUESTS = 400;
+    private static final long SIMULATED_IO_MILLIS = 50;
+
+    @Test
+    void virtualThreadsServeMoreConcurrentRequestsWithLowerTailLatency() throws Exception {
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+
+        log.info("Platform threads: p99={}ms maxConcurrent={}", platform.p99Millis(), platform.maxConcurrent());
+        log.info("Virtual threads:  p99={}ms maxConcurrent={}", virtual.p99Millis(), virtual.maxConcurrent());
+        assertThat(platform.maxConcurrent()).isLessThanOrEqualTo(PLATFORM_THREADS);
+        assertThat(virtual.maxConcurrent()).isGreaterThan(PLATFORM_THREADS);
+        assertThat(virtual.p99Millis()).isLessThan(platform.p99Millis());
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                NotificationServiceApplication.class, BlockingRequestConfig.class).run(
+                "--spring.profiles.active=" + (virtualThreads ? "test,virtual-threads" : "test"),
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.cloud.bus.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF")) {
+            seed(context.getBean(NotificationService.class));
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/notifications/page?recipientId=1");
+            fire(uri); // warm-up, so both modes are measured with a compiled hot path
+            BlockingRequestConfig.MAX_IN_FLIGHT.set(0);
+            List<Long> latencies = fire(uri);
+            return new LoadResult(percentile(latencies, 0.99), BlockingRequestConfig.MAX_IN_FLIGHT.get());
+        }
+    }
+
+    private static void seed(NotificationService notificationService) {
+        NotificationRequest template = new NotificationRequest();
+        template.setTitle("Load test");
+        template.setMessage("Load test notification");
+        NotificationBatchRequest batch = new NotificationBatchRequest();
+        batch.setTemplate(template);
+        batch.setRecipientIds(Collections.nCopies(100, 1L));
+        notificationService.createNotifications(batch);
+    }
+
+    private static List<Long> fire(URI uri) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService callers = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    assertThat(response.statusCode()).isEqualTo(200);
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                }));
+            }
+            start.countDown();
+            List<Long> latencies = new ArrayList<>(CONCURRENT_REQUESTS);
+            for (Future<Long> result : results) {
+                latencies.add(result.get(2, TimeUnit.MINUTES));
+            }
+            return latencies;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static long percentile(List<Long> values, double percentile) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+    }
+
+    private record LoadResult(long p99Millis, int maxConcurrent) {
+    }
+
+    /**
+     * Counts requests in flight and holds each one for a fixed time, standing in for a slow query.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class BlockingRequestConfig {
+
+        static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+        private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+        @Bean
+        FilterRegistrationBean<Filter> blockingRequestFilter() {
+            Filter filter = (request, response, chain) -> {
+                MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(SIMULATED_IO_MILLIS);
+                    chain.doFilter(request, response);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    IN_FLIGHT.decrementAndGet();
+                }
+            };
+            return new FilterRegistrationBean<>(filter);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.relatia.notification_service.bus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.NotificationsReadEvent;
+import com.relatia.notification_service.notification.NotificationsCreatedEvent;
+import com.relatia.notification_service.notification.RemoteChangeListener;
+import com.relatia.notification_service.notification.UnreadCountCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.bus.BusBridge;
+import org.springframework.cloud.bus.BusConsumer;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.DefaultBusPathMatcher;
+import org.springframework.cloud.bus.PathServiceMatcher;
+import org.springframework.cloud.bus.RemoteApplicationEventListener;
+import org.springframework.cloud.bus.event.PathDestinationFactory;
+import org.springframework.cloud.bus.event.RemoteApplicationEvent;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Wires two nodes together through the in-memory {@link LocalBus} using the real Spring Cloud Bus
+ * consumer and service matcher, and checks that changes on one node invalidate the other's caches.
+ */
+class NotificationBusTest {
+
+    private final LocalBus localBus = new LocalBus();
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("notification-service:9000:a");
+        nodeB = new Node("notification-service:9000:b");
+    }
+
+    @Test
+    void whenNotificationReadOnOneNode_thenOtherNodeReloadsCount() {
+        nodeA.cache.get(1L, nodeA::load);
+        nodeB.cache.get(1L, nodeB::load);
+
+        nodeA.publisher.onRead(NotificationsReadEvent.of(Map.of(1L, List.of(10L))));
+        nodeA.publisher.flush();
+
+        nodeA.cache.get(1L, nodeA::load);
+        nodeB.cache.get(1L, nodeB::load);
+        assertEquals(1, nodeA.loads.get(), "origin node keeps its locally maintained count");
+        assertEquals(2, nodeB.loads.get(), "remote node must reload after invalidation");
+    }
+
+    @Test
+    void whenManyChangesForSameRecipient_thenCoalescedIntoOneEvent() {
+        AtomicInteger delivered = new AtomicInteger();
+        localBus.register(event -> {
+            if (event instanceof NotificationBusEvent) {
+                delivered.incrementAndGet();
+            }
+        });
+
+        for (int i = 0; i < 50; i++) {
+            nodeA.publisher.onBulkCreated(new NotificationsCreatedEvent(Map.of(1L, 1L, 2L, 1L), List.of()));
+        }
+        nodeA.publisher.flush();
+        nodeA.publisher.flush();
+
+        assertEquals(1, delivered.get());
+    }
+
+    @Test
+    void whenRecipientsExceedEventLimit_thenSplitAcrossEvents() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getBus().setMaxRecipientsPerEvent(2);
+        Node small = new Node("notification-service:9000:c", properties);
+        AtomicInteger delivered = new AtomicInteger();
+        localBus.register(event -> {
+            if (event instanceof NotificationBusEvent) {
+                delivered.incrementAndGet();
+            }
+        });
+
+        small.publisher.onBulkCreated(new NotificationsCreatedEvent(Map.of(1L, 1L, 2L, 1L, 3L, 1L), List.of()));
+        small.publisher.flush();
+
+        assertEquals(2, delivered.get());
+    }
+
+    @Test
+    void whenNotificationsReadOnOneNode_thenOtherNodeIsToldTheirIdsOncePerEvent() {
+        List<Set<Long>> reported = new ArrayList<>();
+        new Node("notification-service:9000:c", new NotificationProperties(), new RemoteChangeListener() {
+            @Override
+            public void onRemoteRead(Set<Long> recipientIds, Set<Long> notificationIds) {
+                reported.add(notificationIds);
+            }
+        });
+
+        nodeA.publisher.onRead(NotificationsReadEvent.of(Map.of(1L, List.of(10L, 11L), 2L, List.of(20L))));
+        nodeA.publisher.flush();
+
+        assertEquals(List.of(Set.of(10L, 11L, 20L)), reported);
+    }
+
+    @Test
+    void whenNotificationsReadWithoutTheirIds_thenOtherNodeIsToldAnyOfTheRecipientsMayHaveChanged() {
+        List<Set<Long>> reported = new ArrayList<>();
+        new Node("notification-service:9000:c", new NotificationProperties(), new RemoteChangeListener() {
+            @Override
+            public void onRemoteRead(Set<Long> recipientIds, Set<Long> notificationIds) {
+                assertNull(notificationIds);
+                reported.add(recipientIds);
+            }
+        });
+
+        nodeA.publisher.onRead(new NotificationsReadEvent(Map.of(1L, 1_500L), null));
+        nodeA.publisher.flush();
+
+        assertEquals(List.of(Set.of(1L)), reported);
+    }
+
+    @Test
+    void whenNotificationsExceedEventLimit_thenEachEventCarriesTheRecipientsOfItsNotifications() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getBus().setMaxRecipientsPerEvent(2);
+        Node small = new Node("notification-service:9000:c", properties);
+        List<Set<Long>> reportedRecipients = new ArrayList<>();
+        List<Set<Long>> reportedNotifications = new ArrayList<>();
+        new Node("notification-service:9000:d", new NotificationProperties(), new RemoteChangeListener() {
+            @Override
+            public void onRemoteRead(Set<Long> recipientIds, Set<Long> notificationIds) {
+                reportedRecipients.add(recipientIds);
+                reportedNotifications.add(notificationIds);
+            }
+        });
+        Map<Long, List<Long>> idsByRecipient = Map.of(1L, List.of(10L, 11L, 12L), 2L, List.of(20L), 3L, List.of(30L));
+
+        small.publisher.onRead(NotificationsReadEvent.of(idsByRecipient));
+        small.publisher.flush();
+
+        Set<Long> allReported = new HashSet<>();
+        for (int i = 0; i < reportedNotifications.size(); i++) {
+            Set<Long> recipientIds = reportedRecipients.get(i);
+            assertTrue(recipientIds.size() <= 2 && reportedNotifications.get(i).size() <= 2);
+            for (Long notificationId : reportedNotifications.get(i)) {
+                Long owner = notificationId / 10;
+                assertTrue(recipientIds.contains(owner),
+                        "notification " + notificationId + " sent without its recipient in " + recipientIds);
+            }
+            allReported.addAll(reportedNotifications.get(i));
+        }
+        assertEquals(Set.of(10L, 11L, 12L, 20L, 30L), allReported);
+    }
+
+    @Test
+    void whenSerialized_thenBusEventRoundTrips() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerSubtypes(NotificationDeletedBusEvent.class);
+
+        String json = objectMapper.writeValueAsString(
+                new NotificationDeletedBusEvent(this, "notification-service:9000:a", "acme", Set.of(7L, 8L),
+                        Set.of(70L, 80L)));
+        RemoteApplicationEvent decoded = objectMapper.readValue(json, RemoteApplicationEvent.class);
+
+        NotificationDeletedBusEvent event = assertInstanceOf(NotificationDeletedBusEvent.class, decoded);
+        assertEquals("acme", event.getTenantId());
+        assertEquals(Set.of(7L, 8L), event.getRecipientIds());
+        assertEquals(Set.of(70L, 80L), event.getNotificationIds());
+        assertEquals("notification-service:9000:a", event.getOriginService());
+    }
+
+    /**
+     * One application node: its caches, bus publisher and listener, and the Spring Cloud Bus plumbing
+     * that forwards local remote events to the bus and publishes received ones locally.
+     */
+    private class Node {
+
+        final AtomicInteger loads = new AtomicInteger();
+        final UnreadCountCache cache;
+        final NotificationBusPublisher publisher;
+
+        Node(String busId) {
+            this(busId, new NotificationProperties());
+        }
+
+        Node(String busId, NotificationProperties properties, RemoteChangeListener... changeListeners) {
+            PathServiceMatcher serviceMatcher = new PathServiceMatcher(
+                    new DefaultBusPathMatcher(new AntPathMatcher(":")), busId);
+            cache = new UnreadCountCache(properties, new SimpleMeterRegistry());
+            NotificationBusListener listener = new NotificationBusListener(serviceMatcher, List.of(cache),
+                    List.of(changeListeners));
+
+            StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+            RemoteApplicationEventListener[] outbound = new RemoteApplicationEventListener[1];
+            BusConsumer consumer = new BusConsumer(event -> {
+                if (event instanceof NotificationBusEvent busEvent) {
+                    listener.onNotificationBusEvent(busEvent);
+                }
+                if (event instanceof RemoteApplicationEvent remote) {
+                    outbound[0].onApplicationEvent(remote);
+                }
+            }, serviceMatcher, beanFactory.getBeanProvider(BusBridge.class), new BusProperties(),
+                    new PathDestinationFactory());
+            LocalBusBridge bridge = new LocalBusBridge(localBus, consumer);
+            beanFactory.addBean("busBridge", bridge);
+            outbound[0] = new RemoteApplicationEventListener(serviceMatcher, bridge);
+
+            publisher = new NotificationBusPublisher(consumerPublisher(listener, outbound), serviceMatcher, properties);
+        }
+
+        long load(Long recipientId) {
+            loads.incrementAndGet();
+            return 3;
+        }
+
+        private org.springframework.context.ApplicationEventPublisher consumerPublisher(
+                NotificationBusListener listener, RemoteApplicationEventListener[] outbound) {
+            return event -> {
+                if (event instanceof NotificationBusEvent busEvent) {
+                    listener.onNotificationBusEvent(busEvent);
+                    outbound[0].onApplicationEvent(busEvent);
+                }
+            };
+        }
+    }
+}
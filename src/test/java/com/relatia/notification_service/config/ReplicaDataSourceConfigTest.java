@@ -0,0 +1,175 @@
+package com.relatia.notification_service.config;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationExportService;
+import com.relatia.notification_service.notification.NotificationExportService.ExportFormat;
+import com.relatia.notification_service.notification.NotificationRequest;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.search.NotificationSearchIndex;
+import com.relatia.notification_service.tenant.TenantContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the service against two local H2 databases standing in for a primary and its replica.
+ * There is no replication between them, so the rows a call returns show which one served it,
+ * and a row inserted into the replica alone stands in for one it has not caught up with yet.
+ */
+class ReplicaDataSourceConfigTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    private static final String ACME = "acme";
+    private static final String ACME_SCHEMA = "tenant_acme";
+
+    private ConfigurableApplicationContext context;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        for (String schema : List.of("PUBLIC", ACME_SCHEMA)) {
+            Flyway.configure()
+                    .dataSource(replicaDataSource)
+                    .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                    .schemas(schema)
+                    .defaultSchema(schema)
+                    .load()
+                    .migrate();
+        }
+        replica = new JdbcTemplate(replicaDataSource);
+        context = new SpringApplicationBuilder(NotificationServiceApplication.class).run(
+                "--spring.profiles.active=test",
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=" + PRIMARY_URL,
+                "--notification.datasource.replica.url=" + REPLICA_URL,
+                "--notification.datasource.replica.username=sa",
+                "--notification.datasource.replica.password=",
+                "--notification.tenancy.schemas." + ACME + "=" + ACME_SCHEMA,
+                "--notification.delivery.enabled=false",
+                "--spring.cloud.bus.enabled=false");
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+        replica.execute("drop all objects");
+    }
+
+    @Test
+    void readOnlyQueriesAreServedByTheReplicaAndWritesByThePrimary() {
+        // given
+        NotificationService notificationService = context.getBean(NotificationService.class);
+        NotificationResponse written = notificationService.createNotification(request("Written to primary"));
+        insertIntoReplica(1, "Replicated 1");
+        insertIntoReplica(2, "Replicated 2");
+
+        // when
+        List<NotificationResponse> listed = notificationService.getNotificationsByRecipientId(1L);
+        long counted = notificationService.getCountByRecipientId(1L);
+        long unread = notificationService.getUnreadCount(1L);
+        int markedRead = notificationService.markAsRead(List.of(written.getId()));
+
+        // then
+        assertThat(listed).extracting(NotificationResponse::getTitle)
+                .containsExactlyInAnyOrder("Replicated 1", "Replicated 2");
+        assertEquals(2, counted);
+        assertEquals(1, unread);
+        assertEquals(1, markedRead);
+        assertEquals(0, replica.queryForObject(
+                "select count(*) from notifications where is_read = true", Integer.class));
+    }
+
+    @Test
+    void readOnlyQueriesOfASchemaTenantAreServedByTheReplica() {
+        // given
+        NotificationService notificationService = context.getBean(NotificationService.class);
+        TenantContext.callAs(ACME, () -> notificationService.createNotification(request("Written to primary")));
+        replica.update("""
+                insert into "tenant_acme".notifications (id, tenant_id, title, message, recipient_id, is_read,
+                                                         notification_type, created_at)
+                values (1, 'acme', 'Replicated to acme', 'Copied from the primary', 1, false, 'SYSTEM',
+                        current_timestamp)
+                """);
+
+        // when
+        List<NotificationResponse> listed = TenantContext.callAs(ACME,
+                () -> notificationService.getNotificationsByRecipientId(1L));
+
+        // then
+        assertThat(listed).extracting(NotificationResponse::getTitle).containsExactly("Replicated to acme");
+        assertThat(new JdbcTemplate(context.getBean(DataSource.class))
+                .queryForList("select title from \"tenant_acme\".notifications", String.class))
+                .containsExactly("Written to primary");
+    }
+
+    @Test
+    void rowsReadFromALaggingReplicaAreNotCached() throws Exception {
+        // given
+        NotificationService notificationService = context.getBean(NotificationService.class);
+        NotificationResponse written = notificationService.createNotification(request("Written to primary"));
+        notificationService.markAsRead(written.getId());
+        insertIntoReplica(written.getId(), "Not yet replicated");
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+
+        // when
+        long exported = context.getBean(NotificationExportService.class)
+                .exportNotifications(1L, ExportFormat.JSON, new ByteArrayOutputStream());
+        NotificationResponse fetched = notificationService.getNotificationById(written.getId());
+
+        // then
+        assertEquals(1, exported);
+        assertEquals("Written to primary", fetched.getTitle());
+        assertTrue(fetched.isRead());
+    }
+
+    @Test
+    void searchIndexIsRebuiltFromThePrimary() {
+        // given
+        NotificationResponse written = context.getBean(NotificationService.class)
+                .createNotification(request("Rebuilt from primary"));
+        NotificationSearchIndex searchIndex = context.getBean(NotificationSearchIndex.class);
+
+        // when
+        searchIndex.rebuild();
+
+        // then
+        assertThat(searchIndex.search("rebuilt", 1L, null, 10))
+                .extracting(NotificationSearchIndex.SearchHit::id).containsExactly(written.getId());
+    }
+
+    private void insertIntoReplica(long id, String title) {
+        replica.update("""
+                insert into notifications (id, tenant_id, title, message, recipient_id, is_read, notification_type,
+                                           created_at)
+                values (?, 'default', ?, 'Copied from the primary', 1, false, 'SYSTEM', current_timestamp)
+                """, id, title);
+    }
+
+    private static NotificationRequest request(String title) {
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle(title);
+        request.setMessage("Routing test");
+        request.setRecipientId(1L);
+        request.setType(Notification.NotificationType.SYSTEM);
+        return request;
+    }
+}
@@ -0,0 +1,185 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationRepository;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the outbox and dispatcher against the embedded database with fake channel senders.
+ * Transactions are committed for real because the workers read the outbox from their own threads.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+@Import(DeliveryOutbox.class)
+@EnableConfigurationProperties(NotificationProperties.class)
+@TestPropertySource(properties = {
+        "notification.delivery.max-attempts=2",
+        "notification.delivery.retry-backoff=0s"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliveryDispatcherTest {
+
+    @Autowired
+    private DeliveryOutbox outbox;
+
+    @Autowired
+    private DeliveryOutboxRepository outboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationProperties properties;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private DeliveryDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+        outboxRepository.deleteAll();
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void whenDispatching_thenEachChannelSenderReceivesItsNotificationsAndStatusIsSent() {
+        // given
+        FakeChannelSender email = new FakeChannelSender(Notification.NotificationType.EMAIL);
+        FakeChannelSender sms = new FakeChannelSender(Notification.NotificationType.SMS);
+        dispatcher = new DeliveryDispatcher(outbox, List.of(email, sms), new TenantRegistry(properties), properties);
+        Long emailId = create(Notification.NotificationType.EMAIL);
+        Long smsId = create(Notification.NotificationType.SMS);
+        Long systemId = create(Notification.NotificationType.SYSTEM);
+
+        // when
+        dispatcher.dispatch();
+
+        // then
+        awaitStatus(emailId, Notification.DeliveryStatus.SENT);
+        awaitStatus(smsId, Notification.DeliveryStatus.SENT);
+        assertThat(email.sent()).extracting(DeliveryMessage::notificationId).containsExactly(emailId);
+        assertThat(sms.sent()).extracting(DeliveryMessage::notificationId).containsExactly(smsId);
+        assertEquals(Notification.DeliveryStatus.NOT_REQUIRED, statusOf(systemId));
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void whenSendFails_thenDeliveryIsRetriedOnNextScan() {
+        // given
+        FakeChannelSender push = new FakeChannelSender(Notification.NotificationType.PUSH, 1);
+        dispatcher = new DeliveryDispatcher(outbox, List.of(push), new TenantRegistry(properties), properties);
+        Long id = create(Notification.NotificationType.PUSH);
+
+        // when
+        dispatcher.dispatch();
+        await(() -> outboxRepository.findAll().stream().anyMatch(entry -> entry.getAttempts() == 1));
+        dispatcher.dispatch();
+
+        // then
+        awaitStatus(id, Notification.DeliveryStatus.SENT);
+        assertThat(push.attempted()).extracting(DeliveryMessage::attempt).containsExactly(1, 2);
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void whenAttemptsAreExhausted_thenNotificationIsMarkedFailed() {
+        // given
+        FakeChannelSender push = new FakeChannelSender(Notification.NotificationType.PUSH, Integer.MAX_VALUE);
+        dispatcher = new DeliveryDispatcher(outbox, List.of(push), new TenantRegistry(properties), properties);
+        Long id = create(Notification.NotificationType.PUSH);
+
+        // when
+        dispatcher.dispatch();
+        await(() -> outboxRepository.findAll().stream().anyMatch(entry -> entry.getAttempts() == 1));
+        dispatcher.dispatch();
+
+        // then
+        awaitStatus(id, Notification.DeliveryStatus.FAILED);
+        assertEquals(2, push.attempted().size());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void whenDeliveryIsClaimed_thenOtherScansSkipItUntilTheLeaseExpires() {
+        // given
+        create(Notification.NotificationType.EMAIL);
+
+        // when
+        List<PendingDelivery> first = outbox.claim(Notification.NotificationType.EMAIL, 10);
+        List<PendingDelivery> second = outbox.claim(Notification.NotificationType.EMAIL, 10);
+
+        // then
+        assertEquals(1, first.size());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    void whenTwoSendersShareAChannel_thenStartupFails() {
+        List<ChannelSender> senders = List.of(
+                new FakeChannelSender(Notification.NotificationType.SMS),
+                new FakeChannelSender(Notification.NotificationType.SMS));
+
+        assertThrows(IllegalStateException.class, () -> new DeliveryDispatcher(outbox, senders, new TenantRegistry(properties), properties));
+    }
+
+    private Long create(Notification.NotificationType type) {
+        return transactionTemplate.execute(status -> {
+            Notification notification = notificationRepository.save(Notification.builder()
+                    .title("Title")
+                    .message("Message")
+                    .recipientId(1L)
+                    .type(type)
+                    .build());
+            outbox.enqueue(notification);
+            return notification.getId();
+        });
+    }
+
+    private Notification.DeliveryStatus statusOf(Long id) {
+        return notificationRepository.findById(id).orElseThrow().getDeliveryStatus();
+    }
+
+    private void awaitStatus(Long id, Notification.DeliveryStatus expected) {
+        await(() -> statusOf(id) == expected);
+        assertEquals(expected, statusOf(id));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.relatia.notification_service.delivery;
+
+import com.relatia.notification_service.notification.Notification;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory sender for tests: records every message and fails the first {@code failures} sends.
+ */
+class FakeChannelSender implements ChannelSender {
+
+    private final Notification.NotificationType channel;
+    private final AtomicInteger remainingFailures;
+    private final List<DeliveryMessage> sent = new CopyOnWriteArrayList<>();
+    private final List<DeliveryMessage> attempted = new CopyOnWriteArrayList<>();
+
+    FakeChannelSender(Notification.NotificationType channel) {
+        this(channel, 0);
+    }
+
+    FakeChannelSender(Notification.NotificationType channel, int failures) {
+        this.channel = channel;
+        this.remainingFailures = new AtomicInteger(failures);
+    }
+
+    @Override
+    public Notification.NotificationType channel() {
+        return channel;
+    }
+
+    @Override
+    public void send(DeliveryMessage message) {
+        attempted.add(message);
+        if (remainingFailures.getAndDecrement() > 0) {
+            throw new IllegalStateException("Gateway unavailable");
+        }
+        sent.add(message);
+    }
+
+    List<DeliveryMessage> sent() {
+        return sent;
+    }
+
+    List<DeliveryMessage> attempted() {
+        return attempted;
+    }
+}
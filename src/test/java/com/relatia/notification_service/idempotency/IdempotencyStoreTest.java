@@ -0,0 +1,183 @@
+package com.relatia.notification_service.idempotency;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationMapper;
+import com.relatia.notification_service.notification.NotificationRepository;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the store against the embedded database with real commits, as concurrent duplicates
+ * arrive on their own threads and transactions.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void whenRequestIsReplayed_thenOriginalResponseIsReturnedWithoutAnotherInsert() {
+        IdempotencyStore store = newStore();
+
+        NotificationResponse first = store.createOnce("key-1", this::create);
+        NotificationResponse replay = store.createOnce("key-1", this::create);
+
+        assertEquals(first.getId(), replay.getId());
+        assertEquals(1, creations.get());
+        assertEquals(1, notificationRepository.count());
+    }
+
+    @Test
+    void whenKeyIsNotInMemory_thenItIsFoundInTheDatabase() {
+        NotificationResponse first = newStore().createOnce("key-1", this::create);
+
+        NotificationResponse replay = newStore().createOnce("key-1", this::create);
+
+        assertEquals(first.getId(), replay.getId());
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    void whenDuplicatesArriveConcurrently_thenThereIsASingleWrite() throws Exception {
+        IdempotencyStore store = newStore();
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<NotificationResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return store.createOnce("key-1", this::slowCreate);
+                }));
+            }
+            start.countDown();
+
+            List<Long> ids = new ArrayList<>();
+            for (Future<NotificationResponse> response : responses) {
+                ids.add(response.get(10, TimeUnit.SECONDS).getId());
+            }
+            assertThat(ids).containsOnly(ids.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, creations.get());
+        assertEquals(1, notificationRepository.count());
+    }
+
+    @Test
+    void whenAnotherInstanceRecordsTheKeyConcurrently_thenItsNotificationIsReturned() {
+        AtomicLong otherId = new AtomicLong();
+
+        NotificationResponse response = newStore().createOnce("key-1", () -> {
+            otherId.set(recordedByAnotherInstance("key-1"));
+            return create();
+        });
+
+        assertEquals(otherId.get(), response.getId());
+        assertEquals(1, notificationRepository.count());
+    }
+
+    @Test
+    void whenCreationFails_thenKeyCanBeRetried() {
+        IdempotencyStore store = newStore();
+
+        assertThrows(IllegalStateException.class, () -> store.createOnce("key-1", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        NotificationResponse retried = store.createOnce("key-1", this::create);
+
+        assertNotNull(retried.getId());
+        assertEquals(1, creations.get());
+    }
+
+    private IdempotencyStore newStore() {
+        NotificationProperties properties = new NotificationProperties();
+        return new IdempotencyStore(keyRepository, notificationRepository, notificationMapper,
+                new TenantRegistry(properties), transactionManager, properties, new SimpleMeterRegistry());
+    }
+
+    private NotificationResponse create() {
+        creations.incrementAndGet();
+        Notification notification = Notification.builder()
+                .title("Idempotent")
+                .message("Created once")
+                .recipientId(1L)
+                .type(Notification.NotificationType.SYSTEM)
+                .build();
+        return notificationMapper.toResponse(notificationRepository.save(notification));
+    }
+
+    private NotificationResponse slowCreate() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return create();
+    }
+
+    /**
+     * Commits a notification and its key in a separate transaction, as another instance handling
+     * a duplicate of the same request would.
+     */
+    private long recordedByAnotherInstance(String key) {
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return other.execute(status -> {
+            NotificationResponse response = create();
+            keyRepository.insert(TenantContext.DEFAULT_TENANT, key, response.getId(), LocalDateTime.now());
+            return response.getId();
+        });
+    }
+}
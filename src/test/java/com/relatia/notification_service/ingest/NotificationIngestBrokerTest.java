@@ -0,0 +1,194 @@
+package com.relatia.notification_service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.NotificationBatchRequest;
+import com.relatia.notification_service.notification.NotificationBatchResponse;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the ingest listener in its real container against a RabbitMQ broker, so acknowledgement,
+ * prefetch, batching and dead-lettering are the broker's rather than a mocked channel's.
+ * Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringJUnitConfig(NotificationIngestBrokerTest.BrokerTestConfig.class)
+@TestPropertySource(properties = {
+        "notification.ingest.enabled=true",
+        "notification.ingest.queue=" + NotificationIngestBrokerTest.QUEUE,
+        "notification.ingest.dead-letter-queue=" + NotificationIngestBrokerTest.DEAD_LETTER_QUEUE,
+        "notification.ingest.prefetch=1",
+        "notification.ingest.batch-size=5",
+        "notification.ingest.receive-timeout=1s",
+        "notification.tenancy.tenants=acme",
+        "spring.rabbitmq.listener.simple.auto-startup=false"
+})
+class NotificationIngestBrokerTest {
+
+    static final String QUEUE = "notification.ingest.test";
+    static final String DEAD_LETTER_QUEUE = "notification.ingest.test.dlq";
+
+    @Container
+    @ServiceConnection
+    static final RabbitMQContainer RABBIT = new RabbitMQContainer("rabbitmq:4.1");
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private AmqpAdmin amqpAdmin;
+
+    @Autowired
+    private RabbitListenerEndpointRegistry listenerRegistry;
+
+    @BeforeEach
+    void setUp() {
+        amqpAdmin.initialize();
+        amqpAdmin.purgeQueue(QUEUE, false);
+        amqpAdmin.purgeQueue(DEAD_LETTER_QUEUE, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        listenerRegistry.stop();
+    }
+
+    @Test
+    void whenMessagesArePublished_thenTheyAreStoredInOneBatchAndAcknowledged() {
+        when(notificationService.createNotifications(any())).thenAnswer(invocation ->
+                accepted(invocation.<NotificationBatchRequest>getArgument(0).getNotifications().size()));
+        for (long recipientId = 1; recipientId <= 5; recipientId++) {
+            publish(json(recipientId), null);
+        }
+
+        listenerRegistry.start();
+
+        // Prefetch is raised to the batch size; with a prefetch of one each batch would hold a single message
+        ArgumentCaptor<NotificationBatchRequest> batch = ArgumentCaptor.forClass(NotificationBatchRequest.class);
+        verify(notificationService, timeout(10_000)).createNotifications(batch.capture());
+        assertThat(batch.getValue().getNotifications())
+                .extracting(request -> request.getRecipientId())
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertSettled();
+        assertThat(rabbitTemplate.receive(DEAD_LETTER_QUEUE)).isNull();
+    }
+
+    @Test
+    void whenMessagesAreMalformedOrForUnknownTenants_thenOnlyThoseAreDeadLettered() {
+        when(notificationService.createNotifications(any())).thenReturn(accepted(1));
+        publish("{not json", null);
+        publish(json(1L), null);
+        publish(json(2L), "unknown");
+
+        listenerRegistry.start();
+
+        verify(notificationService, timeout(10_000)).createNotifications(any());
+        Message malformed = rabbitTemplate.receive(DEAD_LETTER_QUEUE, 5_000);
+        Message unknownTenant = rabbitTemplate.receive(DEAD_LETTER_QUEUE, 5_000);
+        assertThat(malformed).isNotNull();
+        assertThat(new String(malformed.getBody(), StandardCharsets.UTF_8)).isEqualTo("{not json");
+        assertThat(malformed.getMessageProperties().<String>getHeader("x-first-death-reason")).isEqualTo("rejected");
+        assertThat(unknownTenant).isNotNull();
+        assertThat(unknownTenant.getMessageProperties().<String>getHeader("X-Tenant-ID")).isEqualTo("unknown");
+        assertSettled();
+    }
+
+    @Test
+    void whenStoringFails_thenTheBatchIsRedeliveredAndStoredOneByOne() {
+        when(notificationService.createNotifications(any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(accepted(1));
+        publish(json(1L), null);
+        publish(json(2L), null);
+
+        listenerRegistry.start();
+
+        // The requeued batch comes back redelivered, so it is stored one message at a time
+        ArgumentCaptor<NotificationBatchRequest> batches = ArgumentCaptor.forClass(NotificationBatchRequest.class);
+        verify(notificationService, timeout(20_000).times(3)).createNotifications(batches.capture());
+        assertThat(batches.getAllValues())
+                .extracting(request -> request.getNotifications().size())
+                .containsExactly(2, 1, 1);
+        assertSettled();
+        assertThat(rabbitTemplate.receive(DEAD_LETTER_QUEUE)).isNull();
+    }
+
+    /**
+     * Stop the consumers, which returns any unacknowledged message to the queue, and check that
+     * none is left.
+     */
+    private void assertSettled() {
+        listenerRegistry.stop();
+        assertThat(amqpAdmin.getQueueInfo(QUEUE).getMessageCount()).isZero();
+    }
+
+    private void publish(String body, String tenantId) {
+        MessageBuilder message = MessageBuilder.withBody(body.getBytes(StandardCharsets.UTF_8));
+        if (tenantId != null) {
+            message.setHeader("X-Tenant-ID", tenantId);
+        }
+        rabbitTemplate.send("", QUEUE, message.build());
+    }
+
+    private static String json(long recipientId) {
+        return "{\"title\":\"Hello\",\"message\":\"From the queue\",\"recipientId\":" + recipientId + "}";
+    }
+
+    private static NotificationBatchResponse accepted(int count) {
+        return NotificationBatchResponse.builder().requested(count).accepted(count).failures(List.of()).build();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, RabbitAutoConfiguration.class})
+    @EnableConfigurationProperties(NotificationProperties.class)
+    @Import({NotificationIngestConfig.class, NotificationIngestListener.class, TenantRegistry.class})
+    static class BrokerTestConfig {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
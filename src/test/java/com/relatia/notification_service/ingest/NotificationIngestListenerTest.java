@@ -0,0 +1,167 @@
+package com.relatia.notification_service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.exception.ApiValidationError;
+import com.relatia.notification_service.notification.NotificationBatchRequest;
+import com.relatia.notification_service.notification.NotificationBatchResponse;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessagePropertiesBuilder;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationIngestListenerTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private Channel channel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationIngestListener listener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        NotificationProperties properties = new NotificationProperties();
+        properties.getTenancy().getTenants().add("acme");
+        listener = new NotificationIngestListener(notificationService, new TenantRegistry(properties), properties,
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void whenBatchIsStored_thenItIsAcknowledgedOnceAfterCommit() throws Exception {
+        when(notificationService.createNotifications(any())).thenReturn(accepted(3));
+
+        listener.onMessages(List.of(valid(1, 10L), valid(2, 20L), valid(3, 30L)), channel);
+
+        ArgumentCaptor<NotificationBatchRequest> batch = ArgumentCaptor.forClass(NotificationBatchRequest.class);
+        InOrder inOrder = inOrder(notificationService, channel);
+        inOrder.verify(notificationService).createNotifications(batch.capture());
+        inOrder.verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+        assertEquals(3, batch.getValue().getNotifications().size());
+        assertEquals(30L, batch.getValue().getNotifications().get(2).getRecipientId());
+        assertEquals(3.0, outcome("accepted"));
+    }
+
+    @Test
+    void whenMessagesAreMalformedOrInvalid_thenOnlyThoseAreDeadLettered() throws Exception {
+        NotificationBatchResponse response = NotificationBatchResponse.builder()
+                .requested(2).accepted(1).rejected(1)
+                .failures(List.of(new NotificationBatchResponse.ItemFailure(1, List.of(
+                        new ApiValidationError("NotificationRequest", "title", null, "Title is required")))))
+                .build();
+        when(notificationService.createNotifications(any())).thenReturn(response);
+
+        listener.onMessages(List.of(valid(1, 10L), message(2, "{not json", false), valid(3, 30L)), channel);
+
+        verify(channel).basicNack(2, false, false);
+        verify(channel).basicNack(3, false, false);
+        verify(channel).basicAck(1, true);
+        verifyNoMoreInteractions(channel);
+        assertEquals(2.0, outcome("dead-lettered"));
+    }
+
+    @Test
+    void whenStoringFails_thenBatchIsRequeuedWithoutAck() throws Exception {
+        when(notificationService.createNotifications(any()))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        listener.onMessages(List.of(valid(1, 10L), valid(2, 20L)), channel);
+
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicNack(2, false, true);
+        verifyNoMoreInteractions(channel);
+        assertEquals(2.0, outcome("requeued"));
+    }
+
+    @Test
+    void whenMessagesBelongToSeveralTenants_thenEachTenantIsStoredAsItsOwnBatch() throws Exception {
+        List<String> tenants = new ArrayList<>();
+        when(notificationService.createNotifications(any())).thenAnswer(invocation -> {
+            tenants.add(TenantContext.getTenantId());
+            return accepted(invocation.<NotificationBatchRequest>getArgument(0).getNotifications().size());
+        });
+
+        listener.onMessages(List.of(valid(1, 10L), forTenant(valid(2, 20L), "acme"), valid(3, 30L),
+                forTenant(valid(4, 40L), "unknown")), channel);
+
+        assertEquals(List.of(TenantContext.DEFAULT_TENANT, "acme"), tenants);
+        verify(channel).basicNack(4, false, false);
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+        assertEquals(3.0, outcome("accepted"));
+        assertEquals(1.0, outcome("dead-lettered"));
+    }
+
+    @Test
+    void whenRedeliveredBatchFails_thenMessagesAreStoredOneByOne() throws Exception {
+        when(notificationService.createNotifications(any()))
+                .thenThrow(new DataAccessResourceFailureException("poison in batch"))
+                .thenReturn(accepted(1))
+                .thenThrow(new IllegalStateException("poison"));
+
+        listener.onMessages(List.of(redelivered(1, 10L), redelivered(2, 20L)), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, false);
+        verifyNoMoreInteractions(channel);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("notification.ingest.messages").tag("outcome", outcome).counter().count();
+    }
+
+    private static NotificationBatchResponse accepted(int count) {
+        return NotificationBatchResponse.builder().requested(count).accepted(count).failures(List.of()).build();
+    }
+
+    private static Message valid(long deliveryTag, long recipientId) {
+        return message(deliveryTag, json(recipientId), false);
+    }
+
+    private static Message forTenant(Message message, String tenantId) {
+        message.getMessageProperties().setHeader("X-Tenant-ID", tenantId);
+        return message;
+    }
+
+    private static Message redelivered(long deliveryTag, long recipientId) {
+        return message(deliveryTag, json(recipientId), true);
+    }
+
+    private static String json(long recipientId) {
+        return "{\"title\":\"Hello\",\"message\":\"From the queue\",\"recipientId\":" + recipientId + "}";
+    }
+
+    private static Message message(long deliveryTag, String body, boolean redelivered) {
+        return MessageBuilder.withBody(body.getBytes(StandardCharsets.UTF_8))
+                .andProperties(MessagePropertiesBuilder.newInstance()
+                        .setDeliveryTag(deliveryTag)
+                        .setRedelivered(redelivered)
+                        .build())
+                .build();
+    }
+}
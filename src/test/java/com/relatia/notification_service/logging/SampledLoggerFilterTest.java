@@ -0,0 +1,88 @@
+package com.relatia.notification_service.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledLoggerFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private SampledLoggerFilter filter;
+    private Logger slowQueries;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SampledLoggerFilter(clock::get);
+        filter.setContext(context);
+        filter.setLoggerName("org.hibernate.SQL_SLOW");
+        filter.setMaxPerInterval(2);
+        filter.setIntervalMillis(1_000);
+        filter.start();
+        slowQueries = context.getLogger("org.hibernate.SQL_SLOW");
+        slowQueries.setLevel(Level.INFO);
+    }
+
+    @Test
+    void whenBudgetIsUsedUp_thenEventsAreDroppedUntilNextInterval() {
+        assertEquals(FilterReply.NEUTRAL, decide(slowQueries));
+        assertEquals(FilterReply.NEUTRAL, decide(slowQueries));
+        assertEquals(FilterReply.DENY, decide(slowQueries));
+
+        clock.addAndGet(1_000);
+
+        assertEquals(FilterReply.NEUTRAL, decide(slowQueries));
+    }
+
+    @Test
+    void whenOtherLoggerLogs_thenItIsNotSampled() {
+        Logger other = context.getLogger("com.relatia.notification_service");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(other));
+        }
+    }
+
+    @Test
+    void whenLoggerIsDisabled_thenBudgetIsNotConsumed() {
+        slowQueries.setLevel(Level.WARN);
+        for (int i = 0; i < 5; i++) {
+            decide(slowQueries);
+        }
+        slowQueries.setLevel(Level.INFO);
+
+        assertEquals(FilterReply.NEUTRAL, decide(slowQueries));
+    }
+
+    @Test
+    void whenRegisteredWithTheContext_thenLoggedEventsAreSampled() {
+        // given
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        slowQueries.addAppender(appender);
+        context.addTurboFilter(filter);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            slowQueries.info("Slow query took {} milliseconds [select 1]", 300 + i);
+        }
+        slowQueries.debug("Below the logger's level");
+
+        // then
+        assertEquals(2, appender.list.size());
+        assertEquals("Slow query took 300 milliseconds [select 1]", appender.list.get(0).getFormattedMessage());
+    }
+
+    private FilterReply decide(Logger logger) {
+        return filter.decide(null, logger, Level.INFO, "Slow query took 300 milliseconds [select 1]", null, null);
+    }
+}
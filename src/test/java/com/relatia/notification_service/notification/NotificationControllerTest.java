@@ -2,6 +2,9 @@ package com.relatia.notification_service.notification;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.relatia.notification_service.exception.ErrorResponse;
+import com.relatia.notification_service.exception.TooManyRequestsException;
+import com.relatia.notification_service.idempotency.IdempotencyStore;
+import com.relatia.notification_service.push.NotificationPushService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,13 +15,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +39,18 @@ class NotificationControllerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private NotificationImportService notificationImportService;
+
+    @Mock
+    private NotificationExportService notificationExportService;
+
+    @Mock
+    private NotificationPushService notificationPushService;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
     @InjectMocks
     private NotificationController notificationController;
 
@@ -77,6 +97,87 @@ class NotificationControllerTest {
         verify(notificationService, times(1)).createNotification(any(NotificationRequest.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void createNotification_WithIdempotencyKey_ShouldCreateOnce() throws Exception {
+        when(idempotencyStore.createOnce(eq("order-42-shipped"), any(Supplier.class))).thenReturn(testNotification);
+
+        mockMvc.perform(post("/api/v1/notifications")
+                .header("Idempotency-Key", "order-42-shipped")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(notificationService, never()).createNotification(any(NotificationRequest.class));
+    }
+
+    @Test
+    void createNotification_WithOverlongIdempotencyKey_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/notifications")
+                .header("Idempotency-Key", "k".repeat(101))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    void createNotification_WhenRateLimited_ShouldReturnTooManyRequests() throws Exception {
+        when(notificationService.createNotification(any(NotificationRequest.class)))
+                .thenThrow(new TooManyRequestsException("Too many notifications for recipient 123", Duration.ofMillis(1500)));
+
+        mockMvc.perform(post("/api/v1/notifications")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message", is("Too many notifications for recipient 123")));
+    }
+
+    @Test
+    void createNotifications_ShouldReturnBatchSummary() throws Exception {
+        NotificationBatchRequest batchRequest = new NotificationBatchRequest();
+        batchRequest.setTemplate(testRequest);
+        batchRequest.setRecipientIds(List.of(1L, 2L));
+        NotificationBatchResponse summary = NotificationBatchResponse.builder()
+                .requested(2)
+                .accepted(2)
+                .rejected(0)
+                .failures(List.of())
+                .build();
+        when(notificationService.createNotifications(any(NotificationBatchRequest.class))).thenReturn(summary);
+
+        mockMvc.perform(post("/api/v1/notifications/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(2)))
+                .andExpect(jsonPath("$.failures", hasSize(0)));
+
+        verify(notificationService, times(1)).createNotifications(any(NotificationBatchRequest.class));
+    }
+
+    @Test
+    void importNotifications_ShouldStreamBodyToImportService() throws Exception {
+        NotificationImportResponse summary = NotificationImportResponse.builder()
+                .linesRead(2)
+                .accepted(2)
+                .rejections(List.of())
+                .build();
+        when(notificationImportService.importNotifications(any())).thenReturn(summary);
+
+        mockMvc.perform(post("/api/v1/notifications/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(objectMapper.writeValueAsString(testRequest) + "\n" + objectMapper.writeValueAsString(testRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(2)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+
+        verify(notificationImportService, times(1)).importNotifications(any());
+    }
+
     @Test
     void getNotification_ShouldReturnNotification() throws Exception {
         when(notificationService.getNotificationById(1L)).thenReturn(testNotification);
@@ -92,7 +193,7 @@ class NotificationControllerTest {
     @Test
     void getNotifications_ShouldReturnNotifications() throws Exception {
         List<NotificationResponse> notifications = Arrays.asList(testNotification);
-        when(notificationService.getNotificationsByRecipientId(123L)).thenReturn(notifications);
+        when(notificationService.getNotificationsByRecipientId(123L, false)).thenReturn(notifications);
 
         mockMvc.perform(get("/api/v1/notifications")
                 .param("recipientId", "123"))
@@ -100,13 +201,13 @@ class NotificationControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].recipientId", is(123)));
 
-        verify(notificationService, times(1)).getNotificationsByRecipientId(123L);
+        verify(notificationService, times(1)).getNotificationsByRecipientId(123L, false);
     }
 
     @Test
     void getUnreadNotifications_ShouldReturnUnread() throws Exception {
         List<NotificationResponse> notifications = Arrays.asList(testNotification);
-        when(notificationService.getUnreadNotifications(123L)).thenReturn(notifications);
+        when(notificationService.getUnreadNotifications(123L, false)).thenReturn(notifications);
 
         mockMvc.perform(get("/api/v1/notifications")
                 .param("recipientId", "123")
@@ -115,7 +216,62 @@ class NotificationControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].read", is(false)));
 
-        verify(notificationService, times(1)).getUnreadNotifications(123L);
+        verify(notificationService, times(1)).getUnreadNotifications(123L, false);
+    }
+
+    @Test
+    void getNotificationPage_ShouldReturnItemsAndCursor() throws Exception {
+        NotificationPage page = NotificationPage.builder()
+                .items(List.of(testNotification))
+                .nextCursor("next")
+                .hasMore(true)
+                .build();
+        when(notificationService.getNotificationPage(123L, true, "current", 1, false)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/notifications/page")
+                .param("recipientId", "123")
+                .param("unread", "true")
+                .param("cursor", "current")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")))
+                .andExpect(jsonPath("$.hasMore", is(true)));
+
+        verify(notificationService, times(1)).getNotificationPage(123L, true, "current", 1, false);
+    }
+
+    @Test
+    void getNotificationPage_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(notificationService.getNotificationPage(123L, false, "bogus", null, false))
+                .thenThrow(new com.relatia.notification_service.exception.BadRequestException("Invalid cursor: bogus"));
+
+        mockMvc.perform(get("/api/v1/notifications/page")
+                .param("recipientId", "123")
+                .param("cursor", "bogus"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("Invalid cursor")));
+    }
+
+    @Test
+    void exportNotifications_ShouldStreamNdjsonAttachment() throws Exception {
+        when(notificationExportService.exportNotifications(eq(123L), eq(NotificationExportService.ExportFormat.NDJSON), any()))
+                .thenAnswer(invocation -> {
+                    java.io.OutputStream output = invocation.getArgument(2);
+                    output.write("{\"id\":1}\n".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        org.springframework.test.web.servlet.MvcResult result = mockMvc.perform(get("/api/v1/notifications/export")
+                .param("recipientId", "123"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", containsString("notifications-123.ndjson")))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
     }
 
     @Test
@@ -130,6 +286,41 @@ class NotificationControllerTest {
         verify(notificationService, times(1)).markAsRead(1L);
     }
 
+    @Test
+    void markAsReadBulk_ShouldReturnUpdatedCount() throws Exception {
+        when(notificationService.markAsRead(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(put("/api/v1/notifications/read")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(2)));
+
+        verify(notificationService, times(1)).markAsRead(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void markAsReadBulk_WithoutIds_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(put("/api/v1/notifications/read")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(notificationService, never()).markAsRead(anyList());
+    }
+
+    @Test
+    void markAllAsRead_ShouldReturnUpdatedCount() throws Exception {
+        when(notificationService.markAllAsRead(123L)).thenReturn(5);
+
+        mockMvc.perform(put("/api/v1/notifications/read-all")
+                .param("recipientId", "123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated", is(5)));
+
+        verify(notificationService, times(1)).markAllAsRead(123L);
+    }
+
     @Test
     void deleteNotification_ShouldReturnNoContent() throws Exception {
         doNothing().when(notificationService).deleteNotification(1L);
@@ -153,6 +344,28 @@ class NotificationControllerTest {
         verify(notificationService, times(1)).getUnreadCount(123L);
     }
 
+    @Test
+    void getSummary_ShouldReturnCountsPerType() throws Exception {
+        NotificationSummary summary = NotificationSummary.builder()
+                .recipientId(123L)
+                .total(3)
+                .unread(1)
+                .byType(Map.of(Notification.NotificationType.EMAIL, 3L))
+                .unreadByType(Map.of(Notification.NotificationType.EMAIL, 1L))
+                .build();
+        when(notificationService.getSummary(123L)).thenReturn(summary);
+
+        mockMvc.perform(get("/api/v1/notifications/summary")
+                .param("recipientId", "123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.unread", is(1)))
+                .andExpect(jsonPath("$.byType.EMAIL", is(3)))
+                .andExpect(jsonPath("$.unreadByType.EMAIL", is(1)));
+
+        verify(notificationService, times(1)).getSummary(123L);
+    }
+
     @Test
     void createNotification_WithInvalidData_ShouldReturnBadRequest() throws Exception {
         NotificationRequest invalidRequest = new NotificationRequest();
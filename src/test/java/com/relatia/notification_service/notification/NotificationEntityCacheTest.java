@@ -0,0 +1,245 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.delivery.DeliveryOutbox;
+import com.relatia.notification_service.delivery.DeliveryOutboxRepository;
+import com.relatia.notification_service.template.NotificationTemplateRepository;
+import com.relatia.notification_service.template.NotificationTemplateService;
+import com.relatia.notification_service.exception.ResourceNotFoundException;
+import com.relatia.notification_service.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that single-notification lookups are served from the second-level cache and that no
+ * write path leaves a stale entry behind. Every service call commits in its own transaction and
+ * session, as it would behind the transactional proxy, so only the shared cache carries state
+ * between calls.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationEntityCacheTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private DeliveryOutboxRepository deliveryOutboxRepository;
+
+    @Autowired
+    private NotificationTemplateRepository templateRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private NotificationService notificationService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        NotificationProperties properties = new NotificationProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DeliveryOutbox deliveryOutbox = new DeliveryOutbox(deliveryOutboxRepository, notificationRepository, properties);
+        notificationService = new NotificationService(notificationRepository, notificationMapper, properties,
+                new NotificationBatchWriter(entityManager, deliveryOutbox),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new UnreadCountCache(properties, meterRegistry), eventPublisher, deliveryOutbox,
+                new NotificationCoalescer(notificationRepository, properties, meterRegistry),
+                new RecipientRateLimiter(properties, meterRegistry),
+                new NotificationMetrics(meterRegistry),
+                new NotificationTemplateService(templateRepository, properties, meterRegistry));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+    }
+
+    @Test
+    void whenFetchedTwice_thenSecondLookupIsACacheHit() {
+        Long id = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(id));
+        statistics.clear();
+
+        inTransaction(() -> notificationService.getNotificationById(id));
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenMarkedAsRead_thenCachedNotificationIsNotStale() {
+        Long id = create(1L);
+        NotificationResponse before = inTransaction(() -> notificationService.getNotificationById(id));
+
+        inTransaction(() -> notificationService.markAsRead(id));
+
+        NotificationResponse after = inTransaction(() -> notificationService.getNotificationById(id));
+        assertFalse(before.isRead());
+        assertTrue(after.isRead());
+    }
+
+    @Test
+    void whenMarkedAsReadInBulk_thenCachedNotificationIsNotStale() {
+        Long first = create(1L);
+        Long second = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(first));
+        inTransaction(() -> notificationService.getNotificationById(second));
+
+        inTransaction(() -> notificationService.markAsRead(List.of(first)));
+        inTransaction(() -> notificationService.markAllAsRead(1L));
+
+        assertTrue(inTransaction(() -> notificationService.getNotificationById(first)).isRead());
+        assertTrue(inTransaction(() -> notificationService.getNotificationById(second)).isRead());
+    }
+
+    @Test
+    void whenMoreThanAChunkIsMarkedAsRead_thenCachedNotificationIsNotStale() {
+        Long id = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(id));
+        inTransaction(() -> notificationRepository.saveAll(IntStream.range(0, 1_000)
+                .mapToObj(i -> Notification.builder().title("Bulk").message("Unread").recipientId(1L)
+                        .type(Notification.NotificationType.SYSTEM).build())
+                .toList()));
+
+        assertEquals(1_001, inTransaction(() -> notificationService.markAllAsRead(1L)));
+
+        assertTrue(inTransaction(() -> notificationService.getNotificationById(id)).isRead());
+    }
+
+    @Test
+    void whenDeleted_thenCachedNotificationIsGone() {
+        Long id = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(id));
+
+        inTransaction(() -> {
+            notificationService.deleteNotification(id);
+            return null;
+        });
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> inTransaction(() -> notificationService.getNotificationById(id)));
+    }
+
+    @Test
+    void whenAnotherNodeReportsAChange_thenCachedNotificationIsEvicted() {
+        Long id = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(id));
+
+        new NotificationEntityCacheEvictor(entityManagerFactory).onRemoteRead(Set.of(1L), Set.of(id));
+
+        // cache keys carry the tenant, so probe with a lookup rather than Cache#contains
+        statistics.clear();
+        inTransaction(() -> notificationService.getNotificationById(id));
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+    }
+
+    @Test
+    void whenOneNotificationIsMarkedAsRead_thenOthersStayCached() {
+        Long changed = create(1L);
+        Long other = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(changed));
+        inTransaction(() -> notificationService.getNotificationById(other));
+
+        inTransaction(() -> notificationService.markAsRead(List.of(changed)));
+
+        assertCached(other);
+    }
+
+    @Test
+    void whenARepeatIsMerged_thenOtherNotificationsStayCached() {
+        Long other = create(2L);
+        inTransaction(() -> notificationService.getNotificationById(other));
+
+        assertEquals(1, inTransaction(() -> notificationRepository.coalesceInto(create(1L), "Again", "Merged",
+                LocalDateTime.now())));
+
+        assertCached(other);
+    }
+
+    @Test
+    void whenADeliveryIsRecorded_thenOtherNotificationsStayCached() {
+        Long delivered = create(1L);
+        Long other = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(other));
+
+        inTransaction(() -> notificationRepository.updateDeliveryStatus(delivered, TenantContext.DEFAULT_TENANT,
+                Notification.DeliveryStatus.SENT));
+
+        assertCached(other);
+    }
+
+    @Test
+    void whenAnotherNodeReportsAChange_thenOtherNotificationsStayCached() {
+        Long changed = create(1L);
+        Long other = create(1L);
+        inTransaction(() -> notificationService.getNotificationById(other));
+
+        new NotificationEntityCacheEvictor(entityManagerFactory).onRemoteRead(Set.of(1L), Set.of(changed));
+
+        assertCached(other);
+    }
+
+    private void assertCached(Long id) {
+        statistics.clear();
+        inTransaction(() -> notificationService.getNotificationById(id));
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Long create(Long recipientId) {
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle("Cached");
+        request.setMessage("Read many times");
+        request.setRecipientId(recipientId);
+        return inTransaction(() -> notificationService.createNotification(request)).getId();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+}
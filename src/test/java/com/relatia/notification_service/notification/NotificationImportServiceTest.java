@@ -0,0 +1,116 @@
+package com.relatia.notification_service.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.delivery.DeliveryOutbox;
+import com.relatia.notification_service.delivery.DeliveryOutboxRepository;
+import com.relatia.notification_service.template.NotificationTemplateRepository;
+import com.relatia.notification_service.template.NotificationTemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+class NotificationImportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private DeliveryOutboxRepository deliveryOutboxRepository;
+
+    @Autowired
+    private NotificationTemplateRepository templateRepository;
+
+    private NotificationProperties properties;
+    private NotificationImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        properties.getBulkImport().setChunkSize(2);
+        importService = new NotificationImportService(notificationMapper,
+                new NotificationBatchWriter(entityManager.getEntityManager(),
+                        new DeliveryOutbox(deliveryOutboxRepository, notificationRepository, properties)), properties,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new NotificationTemplateService(templateRepository, properties, new SimpleMeterRegistry()),
+                event -> { }, new ObjectMapper());
+    }
+
+    @Test
+    void whenImportingMixedLines_thenValidLinesStoredAndInvalidLinesReported() throws Exception {
+        // given
+        String body = String.join("\n",
+                line("First", 1L),
+                "",
+                line("Second", 2L),
+                "{not json",
+                "{\"message\":\"missing title and recipient\"}",
+                line("Third", 1L),
+                line("Fourth", 3L),
+                line("Fifth", 1L));
+
+        // when
+        NotificationImportResponse response = importService.importNotifications(stream(body));
+
+        // then
+        assertEquals(7, response.getLinesRead());
+        assertEquals(5, response.getAccepted());
+        assertEquals(2, response.getRejected());
+        assertFalse(response.isRejectionsTruncated());
+        assertThat(response.getRejections()).extracting(NotificationImportResponse.LineRejection::getLine)
+                .containsExactly(4L, 5L);
+        assertThat(response.getRejections().get(0).getReason()).startsWith("Malformed JSON");
+        assertThat(response.getRejections().get(1).getReason())
+                .isEqualTo("recipientId: Recipient ID is required, title: Title is required");
+        assertEquals(5, notificationRepository.count());
+        assertEquals(3, notificationRepository.countByRecipientId(1L));
+    }
+
+    @Test
+    void whenRejectionsExceedReportingCap_thenSummaryIsTruncated() throws Exception {
+        // given
+        properties.getBulkImport().setMaxReportedRejections(1);
+        String body = "{}\n{}\n{}\n";
+
+        // when
+        NotificationImportResponse response = importService.importNotifications(stream(body));
+
+        // then
+        assertEquals(3, response.getRejected());
+        assertEquals(0, response.getAccepted());
+        assertThat(response.getRejections()).hasSize(1);
+        assertTrue(response.isRejectionsTruncated());
+    }
+
+    private static String line(String title, Long recipientId) {
+        return "{\"title\":\"" + title + "\",\"message\":\"Imported\",\"recipientId\":" + recipientId
+                + ",\"type\":\"EMAIL\"}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,184 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.retention.NotificationRetentionRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the queries {@link NotificationRepository} and the retention repository send to the
+ * database are served by the indexes created in the Flyway migrations rather than by table scans.
+ * Each repository method is called for real; the SQL Hibernate generates for it is captured by a
+ * {@link StatementInspector} and explained by H2.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.relatia.notification_service.notification.NotificationIndexPlanTest$CapturedStatements")
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+class NotificationIndexPlanTest {
+
+    private static final String RECIPIENT_CREATED_INDEX = "IDX_NOTIFICATIONS_RECIPIENT_CREATED";
+    private static final String RECIPIENT_UNREAD_INDEX = "IDX_NOTIFICATIONS_RECIPIENT_UNREAD";
+    private static final String RETENTION_INDEX = "IDX_NOTIFICATIONS_RETENTION";
+    private static final String RECIPIENT_TYPE_INDEX = "IDX_NOTIFICATIONS_RECIPIENT_TYPE";
+
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationRetentionRepository retentionRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // H2 plans from row counts and column statistics, which an empty table does not have:
+        // 1,000 recipients with 20 notifications each, one in twenty unread, spread over the types.
+        // ANALYZE commits, so the rows are inserted once and stay for the whole class.
+        if (jdbcTemplate.queryForObject("select count(*) from notifications", Long.class) == 0) {
+            seed();
+        }
+        CapturedStatements.clear();
+    }
+
+    @Test
+    void inboxPageUsesRecipientCreatedIndex() {
+        notificationRepository.findFirstPage(1L, 200, Limit.of(21));
+
+        assertThat(plan()).contains(RECIPIENT_CREATED_INDEX + ": TENANT_ID = ?")
+                .containsPattern("AND RECIPIENT_ID = \\?\\d+ \\*/");
+    }
+
+    @Test
+    void keysetPageSeeksIntoRecipientCreatedIndex() {
+        notificationRepository.findPageAfter(1L, CURSOR, 5L, 200, Limit.of(21));
+
+        assertThat(plan()).contains(RECIPIENT_CREATED_INDEX + ": TENANT_ID = ?")
+                .containsPattern("AND RECIPIENT_ID = \\?\\d+ AND CREATED_AT <= \\?\\d+ \\*/");
+    }
+
+    @Test
+    void unreadPageSeeksIntoUnreadIndex() {
+        notificationRepository.findFirstUnreadPage(1L, 200, Limit.of(21));
+
+        assertThat(plan()).contains(RECIPIENT_UNREAD_INDEX + ": ")
+                .containsPattern("RECIPIENT_ID = \\?\\d+")
+                .contains("IS_READ = FALSE");
+    }
+
+    @Test
+    void totalCountUsesRecipientCreatedIndex() {
+        notificationRepository.countByRecipientId(1L);
+
+        assertThat(plan()).contains(RECIPIENT_CREATED_INDEX + ": TENANT_ID = ?");
+    }
+
+    @Test
+    void unreadCountUsesUnreadIndex() {
+        notificationRepository.countByRecipientIdAndReadFalse(1L);
+
+        assertThat(plan()).contains(RECIPIENT_UNREAD_INDEX + ": ")
+                .contains("IS_READ = FALSE");
+    }
+
+    @Test
+    void summaryIsGroupedFromRecipientTypeIndex() {
+        notificationRepository.countByTypeForRecipient(1L);
+
+        assertThat(plan()).contains(RECIPIENT_TYPE_INDEX + ": TENANT_ID = ?")
+                .containsPattern("AND RECIPIENT_ID = \\?\\d+ \\*/");
+    }
+
+    @Test
+    void retentionScanSeeksIntoRetentionIndex() {
+        retentionRepository.findExpired(Notification.NotificationType.EMAIL, true, CURSOR, Limit.of(1000));
+
+        assertThat(plan()).contains(RETENTION_INDEX + ": ")
+                .containsPattern("NOTIFICATION_TYPE = \\?\\d+")
+                .containsPattern("IS_READ = \\?\\d+")
+                .containsPattern("CREATED_AT < \\?\\d+");
+    }
+
+    private void seed() {
+        jdbcTemplate.update("""
+                insert into notifications (id, tenant_id, title, message, recipient_id, is_read,
+                                           notification_type, delivery_status, occurrences, created_at)
+                select x, 'default', 'Title', 'Message', mod(x, 1000), mod(x, 20) <> 0,
+                       case mod(x, 4) when 0 then 'EMAIL' when 1 then 'SMS' when 2 then 'PUSH' else 'SYSTEM' end,
+                       'SENT', 1, dateadd('SECOND', x, timestamp '2023-01-01 00:00:00')
+                from system_range(1, 20000)
+                """);
+        jdbcTemplate.execute("analyze");
+    }
+
+    /**
+     * Explain the one statement the repository call sent. Parameters are left unbound as null:
+     * H2 chooses the index when it prepares the statement, before any value is known.
+     */
+    private String plan() {
+        List<String> statements = CapturedStatements.get();
+        assertThat(statements).hasSize(1);
+        String explained = jdbcTemplate.execute("explain " + statements.get(0), (PreparedStatement statement) -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+        // H2 names the chosen index in a comment after the table, e.g. /* PUBLIC.IDX_...: TENANT_ID = ?1 AND RECIPIENT_ID = ?2 */
+        return explained.replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static List<String> get() {
+            synchronized (STATEMENTS) {
+                return List.copyOf(STATEMENTS);
+            }
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+    }
+}
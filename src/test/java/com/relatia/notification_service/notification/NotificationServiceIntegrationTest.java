@@ -1,18 +1,32 @@
 package com.relatia.notification_service.notification;
 
 import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
 import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.delivery.DeliveryOutbox;
+import com.relatia.notification_service.delivery.DeliveryOutboxRepository;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.exception.TooManyRequestsException;
+import com.relatia.notification_service.template.NotificationTemplateRepository;
+import com.relatia.notification_service.template.NotificationTemplateRequest;
+import com.relatia.notification_service.template.NotificationTemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,11 +46,133 @@ class NotificationServiceIntegrationTest {
     @Autowired
     private NotificationMapper notificationMapper;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DeliveryOutboxRepository deliveryOutboxRepository;
+
+    @Autowired
+    private NotificationTemplateRepository templateRepository;
+
+    private NotificationTemplateService templateService;
+
     private NotificationService notificationService;
 
+    private SimpleMeterRegistry meterRegistry;
+
+    private final List<Object> publishedEvents = new ArrayList<>();
+
     @org.junit.jupiter.api.BeforeEach
     void setUp() {
-        notificationService = new NotificationService(notificationRepository, notificationMapper);
+        DeliveryOutbox deliveryOutbox = new DeliveryOutbox(deliveryOutboxRepository, notificationRepository,
+                new NotificationProperties());
+        meterRegistry = new SimpleMeterRegistry();
+        templateService = new NotificationTemplateService(templateRepository, new NotificationProperties(), meterRegistry);
+        notificationService = new NotificationService(notificationRepository, notificationMapper, new NotificationProperties(),
+                new NotificationBatchWriter(entityManager.getEntityManager(), deliveryOutbox),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new UnreadCountCache(new NotificationProperties(), meterRegistry), event -> {
+                    publishedEvents.add(event);
+                    eventPublisher.publishEvent(event);
+                },
+                deliveryOutbox,
+                new NotificationCoalescer(notificationRepository, new NotificationProperties(), meterRegistry),
+                new RecipientRateLimiter(new NotificationProperties(), meterRegistry),
+                new NotificationMetrics(meterRegistry), templateService);
+    }
+
+    @Test
+    void whenOperationsRun_thenLatencyAndResultSizesAreRecorded() {
+        // given
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle("Measured");
+        request.setMessage("Counted and timed");
+        request.setRecipientId(5L);
+        request.setType(Notification.NotificationType.PUSH);
+
+        // when
+        notificationService.createNotification(request);
+        notificationService.createNotification(request);
+        notificationService.getNotificationsByRecipientId(5L);
+        notificationService.getCountByRecipientId(5L);
+
+        // then
+        assertEquals(2, meterRegistry.get("notification.operation").tag("operation", "create").timer().count());
+        assertEquals(1, meterRegistry.get("notification.operation").tag("operation", "list").timer().count());
+        assertEquals(1, meterRegistry.get("notification.operation").tag("operation", "count").timer().count());
+        assertEquals(2.0, meterRegistry.get("notification.created").tag("type", "PUSH").counter().count());
+        assertEquals(2.0, meterRegistry.get("notification.query.results").tag("query", "all").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("notification.recipient.rows").summary().count());
+    }
+
+    @Test
+    void whenCreatingRepeatedNotification_thenItIsMergedIntoTheUnreadOne() {
+        // given
+        NotificationRequest first = new NotificationRequest();
+        first.setTitle("Invoice overdue");
+        first.setMessage("Invoice 4711 is 1 day overdue");
+        first.setRecipientId(1L);
+        first.setType(Notification.NotificationType.EMAIL);
+        first.setDedupKey("invoice-4711-overdue");
+        NotificationRequest repeat = new NotificationRequest();
+        repeat.setTitle("Invoice overdue");
+        repeat.setMessage("Invoice 4711 is 2 days overdue");
+        repeat.setRecipientId(1L);
+        repeat.setType(Notification.NotificationType.EMAIL);
+        repeat.setDedupKey("invoice-4711-overdue");
+
+        // when
+        NotificationResponse created = notificationService.createNotification(first);
+        NotificationResponse merged = notificationService.createNotification(repeat);
+
+        // then
+        assertEquals(created.getId(), merged.getId());
+        assertEquals(2, merged.getOccurrences());
+        assertEquals("Invoice 4711 is 2 days overdue", merged.getMessage());
+        assertEquals(1, notificationRepository.countByRecipientId(1L));
+        assertEquals(1, deliveryOutboxRepository.count());
+        assertEquals(1.0, meterRegistry.get("notification.coalesced").tag("type", "EMAIL").counter().count());
+    }
+
+    @Test
+    void whenRepeatedNotificationWasRead_thenANewOneIsCreated() {
+        // given
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle("Build failed");
+        request.setMessage("Pipeline 42 failed");
+        request.setRecipientId(1L);
+        request.setType(Notification.NotificationType.SYSTEM);
+        request.setDedupKey("pipeline-42");
+        NotificationResponse first = notificationService.createNotification(request);
+        notificationRepository.markAsReadByIds(List.of(first.getId()), LocalDateTime.now());
+
+        // when
+        NotificationResponse second = notificationService.createNotification(request);
+
+        // then
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(1, second.getOccurrences());
+        assertEquals(2, notificationRepository.countByRecipientId(1L));
+    }
+
+    @Test
+    void whenRecipientExceedsRateLimit_thenCreationIsRejected() {
+        // given
+        int capacity = new NotificationProperties().getRateLimit().getCapacity();
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle("Burst");
+        request.setMessage("One of many");
+        request.setRecipientId(7L);
+        for (int i = 0; i < capacity; i++) {
+            notificationService.createNotification(request);
+        }
+
+        // when / then
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> notificationService.createNotification(request));
+        assertThat(ex.getRetryAfter()).isPositive();
+        assertEquals(capacity, notificationRepository.countByRecipientId(7L));
     }
 
     @Test
@@ -58,6 +194,36 @@ class NotificationServiceIntegrationTest {
         assertFalse(saved.isRead());
     }
 
+    @Test
+    void whenCreatingChannelNotification_thenDeliveryIsQueuedInOutbox() {
+        // given
+        NotificationRequest email = new NotificationRequest();
+        email.setTitle("Email");
+        email.setMessage("Sent over email");
+        email.setRecipientId(1L);
+        email.setType(Notification.NotificationType.EMAIL);
+        NotificationRequest inApp = new NotificationRequest();
+        inApp.setTitle("In-app");
+        inApp.setMessage("Only shown in the app");
+        inApp.setRecipientId(1L);
+        inApp.setType(Notification.NotificationType.SYSTEM);
+
+        // when
+        NotificationResponse emailResponse = notificationService.createNotification(email);
+        NotificationResponse inAppResponse = notificationService.createNotification(inApp);
+
+        // then
+        assertEquals(Notification.DeliveryStatus.PENDING, emailResponse.getDeliveryStatus());
+        assertEquals(Notification.DeliveryStatus.NOT_REQUIRED, inAppResponse.getDeliveryStatus());
+        assertThat(deliveryOutboxRepository.findAll())
+                .singleElement()
+                .satisfies(entry -> {
+                    assertEquals(emailResponse.getId(), entry.getNotification().getId());
+                    assertEquals(Notification.NotificationType.EMAIL, entry.getChannel());
+                    assertEquals(0, entry.getAttempts());
+                });
+    }
+
     @Test
     void whenFindByRecipientId_thenReturnNotifications() {
         // given
@@ -79,6 +245,49 @@ class NotificationServiceIntegrationTest {
                 .containsExactlyInAnyOrder("Test 1", "Test 2");
     }
 
+    @Test
+    void whenListingInSummaryMode_thenMessagesAreCutAndNoEntitiesAreLoaded() {
+        // given
+        Notification longMessage = createTestNotification(1L, "Long", false);
+        longMessage.setMessage("x".repeat(500));
+        Notification shortMessage = createTestNotification(1L, "Short", false);
+        entityManager.persist(longMessage);
+        entityManager.persist(shortMessage);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<NotificationResponse> found = notificationService.getNotificationsByRecipientId(1L, true);
+        NotificationPage page = notificationService.getNotificationPage(1L, true, null, 10, true);
+
+        // then
+        assertThat(found).extracting(NotificationResponse::getTitle).containsExactlyInAnyOrder("Long", "Short");
+        assertThat(found).filteredOn(response -> response.getTitle().equals("Long"))
+                .singleElement()
+                .satisfies(response -> assertEquals(140, response.getMessage().length()));
+        assertThat(found).filteredOn(response -> response.getTitle().equals("Short"))
+                .singleElement()
+                .satisfies(response -> assertEquals("Test message for Short", response.getMessage()));
+        assertThat(page.getItems()).allSatisfy(response -> assertThat(response.getMessage()).hasSizeLessThanOrEqualTo(140));
+        assertEquals(0, entityManager.getEntityManager().unwrap(org.hibernate.Session.class)
+                .getStatistics().getEntityCount());
+    }
+
+    @Test
+    void whenListingWithoutSummary_thenFullMessageIsReturned() {
+        // given
+        Notification longMessage = createTestNotification(1L, "Long", false);
+        longMessage.setMessage("x".repeat(500));
+        entityManager.persist(longMessage);
+        entityManager.flush();
+
+        // when
+        List<NotificationResponse> found = notificationService.getUnreadNotifications(1L);
+
+        // then
+        assertEquals(500, found.get(0).getMessage().length());
+    }
+
     @Test
     void whenMarkAsRead_thenNotificationIsRead() {
         // given
@@ -97,6 +306,72 @@ class NotificationServiceIntegrationTest {
         assertTrue(fromDb.isRead());
     }
 
+    @Test
+    void whenBulkMarkAsRead_thenOnlyUnreadRowsUpdatedAndVersionBumped() {
+        // given
+        Notification first = createTestNotification(1L, "Test 1", false);
+        Notification second = createTestNotification(2L, "Test 2", false);
+        Notification alreadyRead = createTestNotification(1L, "Test 3", true);
+        Notification untouched = createTestNotification(1L, "Test 4", false);
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(alreadyRead);
+        entityManager.persist(untouched);
+        entityManager.flush();
+        Long firstVersion = first.getVersion();
+        Long readVersion = alreadyRead.getVersion();
+
+        // when
+        int updated = notificationService.markAsRead(List.of(first.getId(), second.getId(), alreadyRead.getId(), 999L));
+
+        // then
+        assertEquals(2, updated);
+        Notification firstFromDb = entityManager.find(Notification.class, first.getId());
+        assertTrue(firstFromDb.isRead());
+        assertEquals(firstVersion + 1, firstFromDb.getVersion());
+        assertEquals(readVersion, entityManager.find(Notification.class, alreadyRead.getId()).getVersion());
+        assertFalse(entityManager.find(Notification.class, untouched.getId()).isRead());
+        assertThat(publishedEvents).containsExactly(NotificationsReadEvent.of(
+                Map.of(1L, List.of(first.getId()), 2L, List.of(second.getId()))));
+    }
+
+    @Test
+    void whenMarkAllAsRead_thenEveryUnreadNotificationOfRecipientIsRead() {
+        // given
+        entityManager.persist(createTestNotification(1L, "Test 1", false));
+        entityManager.persist(createTestNotification(1L, "Test 2", false));
+        entityManager.persist(createTestNotification(1L, "Test 3", true));
+        entityManager.persist(createTestNotification(2L, "Test 4", false));
+        entityManager.flush();
+
+        // when
+        int updated = notificationService.markAllAsRead(1L);
+
+        // then
+        assertEquals(2, updated);
+        assertEquals(0, notificationRepository.countByRecipientIdAndReadFalse(1L));
+        assertEquals(1, notificationRepository.countByRecipientIdAndReadFalse(2L));
+    }
+
+    @Test
+    void whenMarkAllAsReadFindsMoreThanAChunk_thenEveryUnreadNotificationIsReadInOneUpdate() {
+        // given
+        for (int i = 0; i < 1_001; i++) {
+            entityManager.persist(createTestNotification(1L, "Test " + i, false));
+        }
+        entityManager.persist(createTestNotification(2L, "Other", false));
+        entityManager.flush();
+
+        // when
+        int updated = notificationService.markAllAsRead(1L);
+
+        // then
+        assertEquals(1_001, updated);
+        assertEquals(0, notificationRepository.countByRecipientIdAndReadFalse(1L));
+        assertEquals(1, notificationRepository.countByRecipientIdAndReadFalse(2L));
+        assertThat(publishedEvents).containsExactly(new NotificationsReadEvent(Map.of(1L, 1_001L), null));
+    }
+
     @Test
     void whenGetUnreadCount_thenReturnCorrectCount() {
         // given
@@ -113,6 +388,270 @@ class NotificationServiceIntegrationTest {
         assertEquals(2, count);
     }
 
+    @Test
+    void whenGetSummary_thenCountsMatchTheCountQueries() {
+        // given
+        entityManager.persist(createTestNotification(1L, "Test 1", false));
+        entityManager.persist(createTestNotification(1L, "Test 2", true));
+        Notification email = createTestNotification(1L, "Test 3", false);
+        email.setType(Notification.NotificationType.EMAIL);
+        entityManager.persist(email);
+        entityManager.persist(createTestNotification(2L, "Test 4", false));
+        entityManager.flush();
+
+        // when
+        NotificationSummary summary = notificationService.getSummary(1L);
+
+        // then
+        assertEquals(notificationService.getCountByRecipientId(1L), summary.getTotal());
+        assertEquals(notificationService.getUnreadCount(1L), summary.getUnread());
+        assertThat(summary.getByType()).containsOnly(
+                Map.entry(Notification.NotificationType.EMAIL, 1L),
+                Map.entry(Notification.NotificationType.SMS, 0L),
+                Map.entry(Notification.NotificationType.PUSH, 0L),
+                Map.entry(Notification.NotificationType.SYSTEM, 2L));
+        assertThat(summary.getUnreadByType()).containsOnly(
+                Map.entry(Notification.NotificationType.EMAIL, 1L),
+                Map.entry(Notification.NotificationType.SMS, 0L),
+                Map.entry(Notification.NotificationType.PUSH, 0L),
+                Map.entry(Notification.NotificationType.SYSTEM, 1L));
+    }
+
+    @Test
+    void whenGetSummaryOfEmptyInbox_thenEveryCountIsZero() {
+        // when
+        NotificationSummary summary = notificationService.getSummary(99L);
+
+        // then
+        assertEquals(0, summary.getTotal());
+        assertEquals(0, summary.getUnread());
+        assertThat(summary.getByType()).containsOnlyKeys(Notification.NotificationType.values());
+        assertThat(summary.getByType().values()).containsOnly(0L);
+        assertThat(summary.getUnreadByType().values()).containsOnly(0L);
+    }
+
+    @Test
+    void whenPagingWithCursor_thenWalkAllNotificationsWithoutGapsOrDuplicates() {
+        // given - several rows share a timestamp so the id tie-breaker is exercised
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            Notification notification = createTestNotification(1L, "Test " + i, i % 2 == 0);
+            notification.setCreatedAt(base.plusMinutes(i / 3));
+            entityManager.persist(notification);
+        }
+        entityManager.persist(createTestNotification(2L, "Other recipient", false));
+        entityManager.flush();
+
+        // when
+        NotificationPage first = notificationService.getNotificationPage(1L, false, null, 3);
+        NotificationPage second = notificationService.getNotificationPage(1L, false, first.getNextCursor(), 3);
+        NotificationPage third = notificationService.getNotificationPage(1L, false, second.getNextCursor(), 3);
+
+        // then
+        assertThat(first.getItems()).hasSize(3);
+        assertTrue(first.isHasMore());
+        assertThat(second.getItems()).hasSize(3);
+        assertThat(third.getItems()).hasSize(1);
+        assertFalse(third.isHasMore());
+        assertNull(third.getNextCursor());
+        assertThat(java.util.stream.Stream.of(first, second, third)
+                .flatMap(page -> page.getItems().stream())
+                .map(NotificationResponse::getTitle))
+                .containsExactly("Test 6", "Test 5", "Test 4", "Test 3", "Test 2", "Test 1", "Test 0");
+    }
+
+    @Test
+    void whenPagingUnread_thenOnlyUnreadNotificationsReturned() {
+        // given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            Notification notification = createTestNotification(1L, "Test " + i, i == 2);
+            notification.setCreatedAt(base.plusMinutes(i));
+            entityManager.persist(notification);
+        }
+        entityManager.flush();
+
+        // when
+        NotificationPage first = notificationService.getNotificationPage(1L, true, null, 2);
+        NotificationPage second = notificationService.getNotificationPage(1L, true, first.getNextCursor(), 2);
+
+        // then
+        assertThat(first.getItems()).extracting(NotificationResponse::getTitle).containsExactly("Test 4", "Test 3");
+        assertThat(second.getItems()).extracting(NotificationResponse::getTitle).containsExactly("Test 1", "Test 0");
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void whenCursorIsMalformed_thenBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> notificationService.getNotificationPage(1L, false, "not-a-cursor", 10));
+    }
+
+    @Test
+    void whenBatchFromTemplate_thenOneNotificationPerValidRecipient() {
+        // given
+        NotificationRequest template = new NotificationRequest();
+        template.setTitle("Campaign");
+        template.setMessage("Spring sale");
+        template.setType(Notification.NotificationType.PUSH);
+        NotificationBatchRequest request = new NotificationBatchRequest();
+        request.setTemplate(template);
+        request.setRecipientIds(Arrays.asList(1L, null, 2L, 3L));
+
+        // when
+        NotificationBatchResponse response = notificationService.createNotifications(request);
+
+        // then
+        assertEquals(4, response.getRequested());
+        assertEquals(3, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        assertEquals(1, response.getFailures().get(0).getIndex());
+        assertEquals(3, notificationRepository.count());
+        assertEquals(1, notificationRepository.countByRecipientIdAndReadFalse(2L));
+    }
+
+    @Test
+    void whenBatchOfRequests_thenInvalidItemsAreReportedAndValidOnesStored() {
+        // given
+        NotificationRequest valid = new NotificationRequest();
+        valid.setTitle("Valid");
+        valid.setMessage("Stored");
+        valid.setRecipientId(1L);
+        NotificationRequest invalid = new NotificationRequest();
+        invalid.setMessage("No title or recipient");
+        NotificationBatchRequest request = new NotificationBatchRequest();
+        request.setNotifications(List.of(valid, invalid));
+
+        // when
+        NotificationBatchResponse response = notificationService.createNotifications(request);
+
+        // then
+        assertEquals(1, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        NotificationBatchResponse.ItemFailure failure = response.getFailures().get(0);
+        assertEquals(1, failure.getIndex());
+        assertThat(failure.getErrors()).extracting(error -> error.getField())
+                .containsExactlyInAnyOrder("title", "recipientId");
+        assertThat(notificationRepository.findAll()).extracting(Notification::getTitle).containsExactly("Valid");
+    }
+
+    @Test
+    void whenCreatingFromTemplate_thenTitleAndMessageAreRendered() {
+        // given
+        templateService.saveTemplate("invoice-overdue",
+                template("Invoice {{invoice}} overdue", "Hi {{name}}, invoice {{invoice}} is overdue."));
+        NotificationRequest request = new NotificationRequest();
+        request.setTemplateId("invoice-overdue");
+        request.setVariables(Map.of("name", "Jane", "invoice", "4711"));
+        request.setRecipientId(1L);
+
+        // when
+        NotificationResponse created = notificationService.createNotification(request);
+
+        // then
+        assertEquals("Invoice 4711 overdue", created.getTitle());
+        assertEquals("Hi Jane, invoice 4711 is overdue.", created.getMessage());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "notification.templates").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void whenBatchItemsUseTemplates_thenUnrenderableItemsAreRejected() {
+        // given
+        templateService.saveTemplate("welcome", template("Welcome {{name}}", "Glad to have you, {{name}}."));
+        NotificationBatchRequest request = new NotificationBatchRequest();
+        request.setNotifications(Arrays.asList(
+                templated("welcome", Map.of("name", "Ada"), 1L),
+                templated("welcome", Map.of(), 2L),
+                templated("unknown", Map.of("name", "Bob"), 3L)));
+
+        // when
+        NotificationBatchResponse response = notificationService.createNotifications(request);
+
+        // then
+        assertEquals(1, response.getAccepted());
+        assertThat(response.getFailures()).extracting(NotificationBatchResponse.ItemFailure::getIndex)
+                .containsExactly(1, 2);
+        assertThat(response.getFailures().get(0).getErrors().get(0).getMessage())
+                .isEqualTo("Missing template variable: name");
+        assertEquals("Welcome Ada", notificationService.getNotificationsByRecipientId(1L).get(0).getTitle());
+    }
+
+    @Test
+    void whenBatchHasBothShapes_thenBadRequest() {
+        NotificationBatchRequest request = new NotificationBatchRequest();
+        request.setRecipientIds(List.of(1L));
+        request.setNotifications(List.of(new NotificationRequest()));
+
+        assertThrows(BadRequestException.class, () -> notificationService.createNotifications(request));
+    }
+
+    @Test
+    void whenExportingAsNdjson_thenOneLinePerNotificationAndEntitiesDetached() throws Exception {
+        // given
+        Notification older = createTestNotification(1L, "Older", true);
+        older.setCreatedAt(LocalDateTime.of(2024, 1, 1, 9, 0));
+        Notification newer = createTestNotification(1L, "Newer", false);
+        newer.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        entityManager.persist(older);
+        entityManager.persist(newer);
+        entityManager.persist(createTestNotification(2L, "Other recipient", false));
+        entityManager.flush();
+        entityManager.clear();
+        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper()
+                .findAndRegisterModules();
+        NotificationExportService exportService = new NotificationExportService(
+                notificationRepository, notificationMapper, entityManager.getEntityManager(), objectMapper);
+        java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream();
+
+        // when
+        long written = exportService.exportNotifications(1L, NotificationExportService.ExportFormat.NDJSON, output);
+
+        // then
+        assertEquals(2, written);
+        String[] lines = output.toString(java.nio.charset.StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Newer", objectMapper.readValue(lines[0], NotificationResponse.class).getTitle());
+        assertEquals("Older", objectMapper.readValue(lines[1], NotificationResponse.class).getTitle());
+        assertEquals(0, entityManager.getEntityManager().unwrap(org.hibernate.Session.class)
+                .getStatistics().getEntityCount(), "exported rows should not remain managed");
+    }
+
+    @Test
+    void whenExportingAsJson_thenSingleArrayWritten() throws Exception {
+        // given
+        entityManager.persist(createTestNotification(1L, "Only", false));
+        entityManager.flush();
+        com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper()
+                .findAndRegisterModules();
+        NotificationExportService exportService = new NotificationExportService(
+                notificationRepository, notificationMapper, entityManager.getEntityManager(), objectMapper);
+        java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream();
+
+        // when
+        exportService.exportNotifications(1L, NotificationExportService.ExportFormat.JSON, output);
+
+        // then
+        NotificationResponse[] exported = objectMapper.readValue(output.toByteArray(), NotificationResponse[].class);
+        assertEquals(1, exported.length);
+        assertEquals("Only", exported[0].getTitle());
+    }
+
+    private static NotificationTemplateRequest template(String title, String message) {
+        NotificationTemplateRequest template = new NotificationTemplateRequest();
+        template.setTitle(title);
+        template.setMessage(message);
+        return template;
+    }
+
+    private static NotificationRequest templated(String templateId, Map<String, String> variables, Long recipientId) {
+        NotificationRequest request = new NotificationRequest();
+        request.setTemplateId(templateId);
+        request.setVariables(variables);
+        request.setRecipientId(recipientId);
+        return request;
+    }
+
     private Notification createTestNotification(Long recipientId, String title, boolean read) {
         return Notification.builder()
                 .title(title)
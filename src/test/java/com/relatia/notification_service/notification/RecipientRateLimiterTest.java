@@ -0,0 +1,87 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipientRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationProperties properties;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new NotificationProperties();
+        properties.getRateLimit().setCapacity(3);
+        properties.getRateLimit().setRefillPerMinute(60);
+        clock = new AtomicLong();
+    }
+
+    @Test
+    void whenBurstExceedsCapacity_thenRejectedUntilRefilled() {
+        RecipientRateLimiter limiter = limiter();
+
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire(1L));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(600), limiter.tryAcquire(1L));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(2.0, meterRegistry.get("notification.rate-limited").counter().count());
+    }
+
+    @Test
+    void whenOneRecipientIsLimited_thenOthersAreNot() {
+        RecipientRateLimiter limiter = limiter();
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L);
+        }
+
+        assertTrue(limiter.tryAcquire(1L) > 0);
+        assertEquals(0, limiter.tryAcquire(2L));
+    }
+
+    @Test
+    void whenStripeIsFull_thenStalestRecipientIsForgotten() {
+        properties.getRateLimit().setStripes(1);
+        properties.getRateLimit().setSlotsPerStripe(8);
+        RecipientRateLimiter limiter = limiter();
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(1L);
+        }
+        assertTrue(limiter.tryAcquire(1L) > 0);
+
+        for (long recipientId = 2; recipientId <= 9; recipientId++) {
+            clock.incrementAndGet();
+            assertEquals(0, limiter.tryAcquire(recipientId));
+        }
+
+        assertEquals(0, limiter.tryAcquire(1L));
+    }
+
+    @Test
+    void whenDisabled_thenNeverRejects() {
+        properties.getRateLimit().setEnabled(false);
+        RecipientRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire(1L));
+        }
+    }
+
+    private RecipientRateLimiter limiter() {
+        return new RecipientRateLimiter(properties, meterRegistry, clock::get);
+    }
+}
@@ -0,0 +1,96 @@
+package com.relatia.notification_service.notification;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnreadCountCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnreadCountCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UnreadCountCache(new NotificationProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void whenReadTwice_thenDatabaseQueriedOnce() {
+        assertEquals(3, cache.get(1L, this::loadThree));
+        assertEquals(3, cache.get(1L, this::loadThree));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, cacheCounter("hit"));
+        assertEquals(1.0, cacheCounter("miss"));
+    }
+
+    @Test
+    void whenNotificationsChange_thenCachedCountFollows() {
+        cache.get(1L, this::loadThree);
+
+        cache.onCreated(new NotificationCreatedEvent(NotificationResponse.builder().recipientId(1L).build()));
+        cache.onBulkCreated(new NotificationsCreatedEvent(Map.of(1L, 5L, 2L, 7L), List.of()));
+        cache.onRead(NotificationsReadEvent.of(Map.of(1L, List.of(10L, 11L))));
+        cache.onDeleted(new NotificationDeletedEvent(10L, 1L, true));
+        cache.onDeleted(new NotificationDeletedEvent(11L, 1L, false));
+        cache.onPurged(new NotificationsPurgedEvent(Map.of(1L, 2L), Map.of(1L, List.of(10L, 11L))));
+
+        assertEquals(3 + 1 + 5 - 2 - 1 - 2, cache.get(1L, this::loadThree));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void whenUncachedRecipientChanges_thenNothingIsCached() {
+        cache.onBulkCreated(new NotificationsCreatedEvent(Map.of(2L, 7L), List.of()));
+
+        assertEquals(3, cache.get(2L, this::loadThree));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void whenCountWouldGoNegative_thenEntryIsReloaded() {
+        cache.get(1L, this::loadThree);
+
+        cache.onRead(NotificationsReadEvent.of(Map.of(1L, List.of(10L, 11L, 12L, 13L))));
+
+        assertEquals(3, cache.get(1L, this::loadThree));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void whenCountChangesWhileLoading_thenLoadedCountIsNotCached() {
+        long loaded = cache.get(1L, recipientId -> {
+            long count = loadThree(recipientId);
+            // committed by another transaction after the query read the database
+            cache.onRead(NotificationsReadEvent.of(Map.of(1L, List.of(10L))));
+            return count;
+        });
+
+        assertEquals(3, loaded);
+        assertEquals(3, cache.get(1L, this::loadThree));
+        assertEquals(2, loads.get());
+    }
+
+    private long loadThree(Long recipientId) {
+        loads.incrementAndGet();
+        return 3;
+    }
+
+    private double cacheCounter(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", UnreadCountCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,141 @@
+package com.relatia.notification_service.push;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class NotificationPushRegistryTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    void whenSubscribing_thenStreamStartsWithSnapshotAndReceivesPublishedEvents() throws Exception {
+        NotificationPushRegistry registry = registry(new NotificationProperties(), DIRECT);
+        MockMvc mockMvc = mockMvc(registry);
+
+        MvcResult stream = open(mockMvc, null);
+        registry.publish(1L, "notification", Map.of("title", "Hello"));
+        registry.publish(2L, "notification", Map.of("title", "Someone else"));
+
+        String content = stream.getResponse().getContentAsString();
+        assertThat(content).contains("event:unread-count\ndata:{\"unreadCount\":3}");
+        assertThat(content).contains("event:notification\ndata:{\"title\":\"Hello\"}");
+        assertThat(content).doesNotContain("Someone else");
+        assertEquals(1, registry.connectionCount());
+    }
+
+    @Test
+    void whenReconnectingWithLastEventId_thenMissedEventsAreReplayed() throws Exception {
+        NotificationPushRegistry registry = registry(new NotificationProperties(), DIRECT);
+        MockMvc mockMvc = mockMvc(registry);
+        MvcResult first = open(mockMvc, null);
+        registry.publish(1L, "notification", Map.of("title", "One"));
+        registry.publish(1L, "notification", Map.of("title", "Two"));
+        registry.publish(1L, "notification", Map.of("title", "Three"));
+        List<String> ids = eventIds(first.getResponse().getContentAsString());
+
+        MvcResult resumed = open(mockMvc, ids.get(0));
+
+        String content = resumed.getResponse().getContentAsString();
+        assertThat(eventIds(content)).containsExactly(ids.get(1), ids.get(2));
+        assertThat(content).doesNotContain("One").doesNotContain("event:resync").doesNotContain("event:unread-count");
+    }
+
+    @Test
+    void whenMissedEventsAreNoLongerKept_thenClientIsToldToResync() throws Exception {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getPush().setReplaySize(2);
+        NotificationPushRegistry registry = registry(properties, DIRECT);
+        MockMvc mockMvc = mockMvc(registry);
+        MvcResult first = open(mockMvc, null);
+        registry.publish(1L, "notification", Map.of("title", "One"));
+        registry.publish(1L, "notification", Map.of("title", "Two"));
+        registry.publish(1L, "notification", Map.of("title", "Three"));
+        registry.publish(1L, "notification", Map.of("title", "Four"));
+        String oldest = eventIds(first.getResponse().getContentAsString()).get(0);
+
+        String overflowed = open(mockMvc, oldest).getResponse().getContentAsString();
+        String foreign = open(mockMvc, "otherNode-1").getResponse().getContentAsString();
+
+        assertThat(overflowed).contains("event:resync").contains("event:unread-count").doesNotContain("Three");
+        assertThat(foreign).contains("event:resync").contains("event:unread-count");
+    }
+
+    @Test
+    void whenClientFallsBehind_thenItsStreamIsDropped() throws Exception {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getPush().setQueueCapacity(2);
+        // A sender that never runs stands in for a client that does not read
+        NotificationPushRegistry registry = registry(properties, task -> { });
+        open(mockMvc(registry), null);
+
+        registry.publish(1L, "notification", Map.of("title", "One"));
+        assertEquals(1, registry.connectionCount());
+        registry.publish(1L, "notification", Map.of("title", "Two"));
+
+        assertEquals(0, registry.connectionCount());
+        assertTrue(registry.isTracked(1L), "recent events are kept for the reconnect");
+    }
+
+    @Test
+    void whenNobodyIsListening_thenEventsAreDropped() {
+        NotificationPushRegistry registry = registry(new NotificationProperties(), DIRECT);
+
+        registry.publish(1L, "notification", Map.of("title", "One"));
+
+        assertFalse(registry.isTracked(1L));
+    }
+
+    private static NotificationPushRegistry registry(NotificationProperties properties, Executor sender) {
+        return new NotificationPushRegistry(properties, new SimpleMeterRegistry(), sender);
+    }
+
+    private static MockMvc mockMvc(NotificationPushRegistry registry) {
+        return MockMvcBuilders.standaloneSetup(new StreamController(registry)).build();
+    }
+
+    private static MvcResult open(MockMvc mockMvc, String lastEventId) throws Exception {
+        var request = get("/stream").param("recipientId", "1");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static List<String> eventIds(String content) {
+        return content.lines().filter(line -> line.startsWith("id:")).map(line -> line.substring(3)).toList();
+    }
+
+    @RestController
+    static class StreamController {
+
+        private final NotificationPushRegistry registry;
+
+        StreamController(NotificationPushRegistry registry) {
+            this.registry = registry;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestParam("recipientId") Long recipientId,
+                          @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+            return registry.subscribe(recipientId, lastEventId, "unread-count", () -> Map.of("unreadCount", 3));
+        }
+    }
+}
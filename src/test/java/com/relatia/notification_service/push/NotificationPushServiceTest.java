@@ -0,0 +1,121 @@
+package com.relatia.notification_service.push;
+
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationMapper;
+import com.relatia.notification_service.notification.NotificationResponse;
+import com.relatia.notification_service.notification.NotificationService;
+import com.relatia.notification_service.notification.NotificationsCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPushServiceTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private NotificationPushService pushService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        NotificationPushRegistry registry = new NotificationPushRegistry(new NotificationProperties(),
+                new SimpleMeterRegistry(), Runnable::run);
+        pushService = new NotificationPushService(registry, notificationService, new NotificationMapper());
+        mockMvc = MockMvcBuilders.standaloneSetup(new StreamController(pushService)).build();
+    }
+
+    @Test
+    void whenCreatedInBulk_thenEachNotificationIsPushedToItsRecipient() throws Exception {
+        MvcResult stream = open(1L);
+
+        pushService.onBulkCreated(NotificationsCreatedEvent.of(List.of(
+                notification(10L, 1L, "First"), notification(11L, 2L, "Someone else"), notification(12L, 1L, "Second"))));
+
+        String content = stream.getResponse().getContentAsString();
+        assertThat(content).contains("event:notification\ndata:{\"id\":10,\"title\":\"First\"");
+        assertThat(content).contains("event:notification\ndata:{\"id\":12,\"title\":\"Second\"");
+        assertThat(content).doesNotContain("Someone else");
+    }
+
+    @Test
+    void whenCreatedOnAnotherNode_thenTheNamedNotificationsArePushed() throws Exception {
+        MvcResult stream = open(1L);
+        when(notificationService.getNotificationsByIds(Set.of(10L, 11L))).thenReturn(List.of(
+                response(10L, 1L, "Remote"), response(11L, 2L, "Someone else")));
+        when(notificationService.getUnreadCount(1L)).thenReturn(4L);
+
+        pushService.onRemoteCreated(Set.of(1L, 2L), Set.of(10L, 11L));
+
+        String content = stream.getResponse().getContentAsString();
+        assertThat(content).contains("event:notification\ndata:{\"id\":10,\"title\":\"Remote\"");
+        assertThat(content).contains("event:unread-count\ndata:{\"recipientId\":1,\"unreadCount\":4}");
+        assertThat(content).doesNotContain("Someone else");
+    }
+
+    @Test
+    void whenNoRecipientHasAStream_thenRemoteChangesAreNotLoaded() {
+        pushService.onRemoteCreated(Set.of(1L), Set.of(10L));
+        pushService.onRemoteRead(Set.of(1L), Set.of(10L));
+
+        verify(notificationService, never()).getNotificationsByIds(any());
+        verify(notificationService, never()).getUnreadCount(any());
+    }
+
+    private MvcResult open(Long recipientId) throws Exception {
+        MvcResult stream = mockMvc.perform(get("/stream").param("recipientId", recipientId.toString()))
+                .andExpect(request().asyncStarted()).andReturn();
+        clearInvocations(notificationService);
+        return stream;
+    }
+
+    private static Notification notification(Long id, Long recipientId, String title) {
+        return Notification.builder()
+                .id(id)
+                .title(title)
+                .message("Message")
+                .recipientId(recipientId)
+                .type(Notification.NotificationType.PUSH)
+                .build();
+    }
+
+    private static NotificationResponse response(Long id, Long recipientId, String title) {
+        return NotificationResponse.builder().id(id).title(title).message("Message").recipientId(recipientId).build();
+    }
+
+    @RestController
+    static class StreamController {
+
+        private final NotificationPushService pushService;
+
+        StreamController(NotificationPushService pushService) {
+            this.pushService = pushService;
+        }
+
+        @GetMapping("/stream")
+        SseEmitter stream(@RequestParam("recipientId") Long recipientId) {
+            return pushService.subscribe(recipientId, null);
+        }
+    }
+}
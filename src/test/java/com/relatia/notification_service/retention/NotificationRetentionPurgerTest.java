@@ -0,0 +1,163 @@
+package com.relatia.notification_service.retention;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.notification.Notification;
+import com.relatia.notification_service.notification.NotificationRepository;
+import com.relatia.notification_service.notification.NotificationsPurgedEvent;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+class NotificationRetentionPurgerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationRetentionRepository retentionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private NotificationProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+    }
+
+    @Test
+    void whenPurgingWithDefaults_thenOldReadNotificationsAreArchived() {
+        // given
+        Long oldRead = persist(Notification.NotificationType.EMAIL, true, 120);
+        Long recentRead = persist(Notification.NotificationType.EMAIL, true, 10);
+        Long oldUnread = persist(Notification.NotificationType.SYSTEM, false, 400);
+
+        // when
+        RetentionReport report = purger().purge();
+
+        // then
+        assertEquals(1, report.removed());
+        assertEquals(NotificationProperties.RetentionMode.ARCHIVE, report.mode());
+        assertFalse(notificationRepository.existsById(oldRead));
+        assertTrue(notificationRepository.existsById(recentRead));
+        assertTrue(notificationRepository.existsById(oldUnread));
+        assertThat(new JdbcTemplate(dataSource).queryForList("select id from notifications_archive", Long.class))
+                .containsExactly(oldRead);
+    }
+
+    @Test
+    void whenPurgingWithTypeRulesInChunks_thenEveryExpiredNotificationIsDeleted() {
+        // given
+        properties.getRetention().setMode(NotificationProperties.RetentionMode.DELETE);
+        properties.getRetention().setChunkSize(2);
+        NotificationProperties.RetentionRule systemRule = new NotificationProperties.RetentionRule();
+        systemRule.setReadOlderThan(Duration.ofDays(7));
+        systemRule.setUnreadOlderThan(Duration.ofDays(30));
+        properties.getRetention().getTypes().put(Notification.NotificationType.SYSTEM, systemRule);
+        for (int i = 0; i < 5; i++) {
+            persist(Notification.NotificationType.SYSTEM, true, 8 + i);
+        }
+        Long expiredUnread = persist(Notification.NotificationType.SYSTEM, false, 31);
+        Long keptUnread = persist(Notification.NotificationType.SYSTEM, false, 29);
+        Long keptEmail = persist(Notification.NotificationType.EMAIL, true, 8);
+
+        // when
+        RetentionReport report = purger().purge();
+
+        // then
+        assertEquals(6, report.removed());
+        assertEquals(4, report.chunks());
+        assertFalse(notificationRepository.existsById(expiredUnread));
+        assertThat(notificationRepository.findAll()).extracting(Notification::getId)
+                .containsExactlyInAnyOrder(keptUnread, keptEmail);
+        assertEquals(0, new JdbcTemplate(dataSource).queryForObject("select count(*) from notifications_archive", Long.class));
+    }
+
+    @Test
+    void whenANotificationIsReadAfterTheScan_thenItIsNeitherRemovedNorCountedAsUnread() {
+        // given
+        properties.getRetention().setMode(NotificationProperties.RetentionMode.DELETE);
+        NotificationProperties.RetentionRule systemRule = new NotificationProperties.RetentionRule();
+        systemRule.setUnreadOlderThan(Duration.ofDays(30));
+        properties.getRetention().getTypes().put(Notification.NotificationType.SYSTEM, systemRule);
+        Long readMeanwhile = persist(Notification.NotificationType.SYSTEM, false, 400);
+        Long expiredUnread = persist(Notification.NotificationType.SYSTEM, false, 400);
+        NotificationRetentionRepository readingAfterScan = (NotificationRetentionRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {NotificationRetentionRepository.class},
+                (proxy, method, args) -> {
+                    Object result = method.invoke(retentionRepository, args);
+                    if (method.getName().startsWith("findExpired") && !((List<?>) result).isEmpty()) {
+                        new JdbcTemplate(dataSource).update("update notifications set is_read = true where id = ?",
+                                readMeanwhile);
+                    }
+                    return result;
+                });
+        List<Object> events = new ArrayList<>();
+
+        // when
+        RetentionReport report = new NotificationRetentionPurger(readingAfterScan, new TenantRegistry(properties),
+                transactionManager, events::add, properties, new SimpleMeterRegistry()).purge();
+
+        // then
+        assertEquals(1, report.removed());
+        assertTrue(notificationRepository.existsById(readMeanwhile));
+        assertFalse(notificationRepository.existsById(expiredUnread));
+        assertThat(events).containsExactly(
+                new NotificationsPurgedEvent(Map.of(1L, 1L), Map.of(1L, List.of(expiredUnread))));
+    }
+
+    private NotificationRetentionPurger purger() {
+        return new NotificationRetentionPurger(retentionRepository, new TenantRegistry(properties), transactionManager,
+                eventPublisher, properties, new SimpleMeterRegistry());
+    }
+
+    private Long persist(Notification.NotificationType type, boolean read, int ageInDays) {
+        Notification notification = Notification.builder()
+                .title("Title")
+                .message("Message")
+                .recipientId(1L)
+                .read(read)
+                .type(type)
+                .build();
+        entityManager.persistAndFlush(notification);
+        // created_at is set by Hibernate on insert, so backdate the row directly
+        new JdbcTemplate(dataSource).update("update notifications set created_at = ? where id = ?",
+                LocalDateTime.now().minusDays(ageInDays), notification.getId());
+        return notification.getId();
+    }
+}
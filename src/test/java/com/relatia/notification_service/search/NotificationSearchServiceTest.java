@@ -0,0 +1,284 @@
+package com.relatia.notification_service.search;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.notification.*;
+import com.relatia.notification_service.tenant.TenantContext;
+import com.relatia.notification_service.tenant.TenantRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs searches against an in-memory index fed from a real database. Notifications are committed
+ * in transactions of their tenant, and the index is refreshed before each search, as the
+ * scheduled refresh would.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+@EnableConfigurationProperties(NotificationProperties.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "notification.tenancy.tenants=globex"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationSearchServiceTest {
+
+    private static final String GLOBEX = "globex";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationSearchRepository searchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NotificationProperties properties;
+
+    private TransactionTemplate transactionTemplate;
+    private NotificationSearchIndex searchIndex;
+    private NotificationSearchService searchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        searchIndex = new NotificationSearchIndex(searchRepository, new TenantRegistry(properties),
+                transactionManager, properties);
+        searchService = new NotificationSearchService(searchIndex, searchRepository, properties,
+                new NotificationMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchIndex.destroy();
+        as(TenantContext.ROOT, () -> {
+            notificationRepository.deleteAllInBatch();
+            return null;
+        });
+    }
+
+    @Test
+    void whenRebuilt_thenTitleMatchesRankAboveMessageMatches() {
+        // given
+        Long inMessage = persist(TenantContext.DEFAULT_TENANT, 7L, "Weekly digest", "Your invoice is ready");
+        Long inTitle = persist(TenantContext.DEFAULT_TENANT, 7L, "Invoice overdue", "Please pay soon");
+        persist(TenantContext.DEFAULT_TENANT, 7L, "Meeting moved", "See you at noon");
+
+        // when
+        long indexed = searchIndex.rebuild();
+        NotificationSearchPage page = search(TenantContext.DEFAULT_TENANT, "invoice", null, null);
+
+        // then
+        assertEquals(3, indexed);
+        assertThat(page.getItems()).extracting(NotificationResponse::getId).containsExactly(inTitle, inMessage);
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void whenSearchingForARecipientOrTenant_thenOnlyTheirNotificationsMatch() {
+        // given
+        Long ownNotification = persist(TenantContext.DEFAULT_TENANT, 7L, "Invoice overdue", "Please pay");
+        persist(TenantContext.DEFAULT_TENANT, 8L, "Invoice overdue", "Please pay");
+        Long globexNotification = persist(GLOBEX, 7L, "Invoice overdue", "Please pay");
+        searchIndex.rebuild();
+
+        // when
+        NotificationSearchPage recipientPage = search(TenantContext.DEFAULT_TENANT, "invoice", 7L, null);
+        NotificationSearchPage globexPage = search(GLOBEX, "invoice", null, null);
+
+        // then
+        assertThat(recipientPage.getItems()).extracting(NotificationResponse::getId).containsExactly(ownNotification);
+        assertThat(globexPage.getItems()).extracting(NotificationResponse::getId).containsExactly(globexNotification);
+    }
+
+    @Test
+    void whenPagingThroughHits_thenEveryHitIsReturnedOnce() {
+        // given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(persist(TenantContext.DEFAULT_TENANT, 7L, "Reminder", "Reminder number " + i));
+        }
+        searchIndex.rebuild();
+
+        // when
+        List<Long> found = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            NotificationSearchPage page = search(TenantContext.DEFAULT_TENANT, "reminder", 7L, cursor, 2);
+            page.getItems().forEach(item -> found.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // then
+        assertEquals(3, pages);
+        assertThat(found).containsExactlyInAnyOrderElementsOf(ids).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void whenNotificationsChange_thenTheIndexFollowsAfterRefresh() {
+        // given
+        Long created = persist(TenantContext.DEFAULT_TENANT, 7L, "Shipment sent", "Tracking attached");
+        Long bulkCreated = persist(TenantContext.DEFAULT_TENANT, 7L, "Shipment delayed", "New date follows");
+        Long purged = persist(TenantContext.DEFAULT_TENANT, 7L, "Shipment returned", "Refund issued");
+
+        // when
+        TenantContext.runAs(TenantContext.DEFAULT_TENANT, () -> {
+            searchIndex.onCreated(new NotificationCreatedEvent(response(created)));
+            searchIndex.onBulkCreated(NotificationsCreatedEvent.of(List.of(entity(bulkCreated), entity(purged))));
+        });
+        searchIndex.refresh();
+        List<Long> afterCreate = ids(search(TenantContext.DEFAULT_TENANT, "shipment", null, null));
+        TenantContext.runAs(TenantContext.DEFAULT_TENANT, () -> {
+            searchIndex.onDeleted(new NotificationDeletedEvent(created, 7L, false));
+            searchIndex.onPurged(new NotificationsPurgedEvent(Map.of(), Map.of(7L, List.of(purged))));
+        });
+        searchIndex.refresh();
+
+        // then
+        assertThat(afterCreate).containsExactlyInAnyOrder(created, bulkCreated, purged);
+        assertThat(ids(search(TenantContext.DEFAULT_TENANT, "shipment", null, null))).containsExactly(bulkCreated);
+    }
+
+    @Test
+    void whenAnotherNodeReportsChangedNotifications_thenOnlyThoseAreReadAgainOnRefresh() {
+        // given
+        Long deleted = persist(GLOBEX, 7L, "Password reset requested", "Use the link within an hour");
+        searchIndex.rebuild();
+        // stored by another node, which reports the notification IDs
+        Long created = persist(GLOBEX, 7L, "Password changed", "If this was not you, contact support");
+        persist(GLOBEX, 7L, "Password expires soon", "Not reported, so not read again");
+
+        // when
+        List<Long> beforeRefresh = ids(search(GLOBEX, "password", null, null));
+        TenantContext.runAs(GLOBEX, () -> {
+            searchIndex.onRemoteCreated(Set.of(7L), Set.of(created));
+            searchIndex.onRemoteDeleted(Set.of(7L), Set.of(deleted));
+        });
+        searchIndex.refresh();
+
+        // then
+        assertThat(beforeRefresh).containsExactly(deleted);
+        assertThat(ids(search(GLOBEX, "password", null, null))).containsExactly(created);
+        assertThat(ids(search(TenantContext.DEFAULT_TENANT, "password", null, null))).isEmpty();
+    }
+
+    @Test
+    void whenAnotherNodeReportsOnlyRecipients_thenTheirNotificationsAreReadAgainOnRefresh() {
+        // given
+        searchIndex.rebuild();
+        // stored by an older node, which only reports the recipient
+        Long remote = persist(GLOBEX, 7L, "Password changed", "If this was not you, contact support");
+
+        // when
+        List<Long> beforeRefresh = ids(search(GLOBEX, "password", null, null));
+        TenantContext.runAs(GLOBEX, () -> searchIndex.onRemoteCreated(Set.of(7L), null));
+        searchIndex.refresh();
+
+        // then
+        assertThat(beforeRefresh).isEmpty();
+        assertThat(ids(search(GLOBEX, "password", null, null))).containsExactly(remote);
+        assertThat(ids(search(TenantContext.DEFAULT_TENANT, "password", null, null))).isEmpty();
+    }
+
+    @Test
+    void whenAHitWasDeletedWithoutTheIndexKnowing_thenItIsSkipped() {
+        // given
+        Long deleted = persist(TenantContext.DEFAULT_TENANT, 7L, "Quota warning", "Storage almost full");
+        Long kept = persist(TenantContext.DEFAULT_TENANT, 7L, "Quota exceeded", "Storage full");
+        searchIndex.rebuild();
+        as(TenantContext.DEFAULT_TENANT, () -> {
+            notificationRepository.deleteById(deleted);
+            return null;
+        });
+
+        // when
+        NotificationSearchPage page = search(TenantContext.DEFAULT_TENANT, "quota", null, null);
+
+        // then
+        assertThat(page.getItems()).extracting(NotificationResponse::getId).containsExactly(kept);
+    }
+
+    @Test
+    void whenQueryIsBlankOrTooLong_thenBadRequest() {
+        assertThrows(BadRequestException.class, () -> search(TenantContext.DEFAULT_TENANT, " ", null, null));
+        assertThrows(BadRequestException.class, () -> search(TenantContext.DEFAULT_TENANT,
+                "a".repeat(NotificationSearchService.MAX_QUERY_LENGTH + 1), null, null));
+    }
+
+    @Test
+    void whenCursorIsMalformed_thenBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> search(TenantContext.DEFAULT_TENANT, "invoice", null, "not-a-cursor"));
+    }
+
+    private NotificationSearchPage search(String tenantId, String query, Long recipientId, String cursor) {
+        return search(tenantId, query, recipientId, cursor, null);
+    }
+
+    private NotificationSearchPage search(String tenantId, String query, Long recipientId, String cursor,
+                                          Integer limit) {
+        return TenantContext.callAs(tenantId, () -> searchService.search(query, recipientId, cursor, limit, false));
+    }
+
+    private Long persist(String tenantId, Long recipientId, String title, String message) {
+        return as(tenantId, () -> notificationRepository.save(Notification.builder()
+                .title(title)
+                .message(message)
+                .recipientId(recipientId)
+                .read(false)
+                .type(Notification.NotificationType.SYSTEM)
+                .build()).getId());
+    }
+
+    private Notification entity(Long id) {
+        return as(TenantContext.DEFAULT_TENANT, () -> notificationRepository.findById(id).orElseThrow());
+    }
+
+    private NotificationResponse response(Long id) {
+        Notification notification = entity(id);
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .recipientId(notification.getRecipientId())
+                .title(notification.getTitle())
+                .message(notification.getMessage())
+                .build();
+    }
+
+    private static List<Long> ids(NotificationSearchPage page) {
+        return page.getItems().stream().map(NotificationResponse::getId).toList();
+    }
+
+    private <T> T as(String tenantId, Supplier<T> work) {
+        return TenantContext.callAs(tenantId, () -> transactionTemplate.execute(status -> work.get()));
+    }
+}
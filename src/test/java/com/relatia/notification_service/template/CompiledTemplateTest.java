@@ -0,0 +1,56 @@
+package com.relatia.notification_service.template;
+
+import com.relatia.notification_service.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateTest {
+
+    @Test
+    void whenRendering_thenPlaceholdersAreReplacedInOrder() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {{ firstName }}, invoice {{invoice}} is {{days}} days overdue.");
+
+        String rendered = template.render(Map.of("firstName", "Jane", "invoice", "4711", "days", "3"));
+
+        assertEquals("Hi Jane, invoice 4711 is 3 days overdue.", rendered);
+        assertThat(template.variables()).containsExactly("firstName", "invoice", "days");
+    }
+
+    @Test
+    void whenPlaceholderRepeatsOrTouchesEdges_thenEveryOccurrenceIsReplaced() {
+        CompiledTemplate template = CompiledTemplate.compile("{{name}}{{name}} and {{name}}");
+
+        assertEquals("abab and ab", template.render(Map.of("name", "ab")));
+        assertThat(template.variables()).containsExactly("name");
+    }
+
+    @Test
+    void whenTemplateHasNoPlaceholders_thenSourceIsReturned() {
+        String source = "Maintenance tonight";
+
+        assertSame(source, CompiledTemplate.compile(source).render(null));
+    }
+
+    @Test
+    void whenVariableIsMissing_thenBadRequest() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {{firstName}}");
+
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> template.render(Map.of()));
+        assertEquals("Missing template variable: firstName", ex.getMessage());
+    }
+
+    @Test
+    void whenPlaceholderIsMalformed_thenCompilationFails() {
+        assertThrows(BadRequestException.class, () -> CompiledTemplate.compile("Hi {{firstName"));
+        assertThrows(BadRequestException.class, () -> CompiledTemplate.compile("Hi {{ }}"));
+    }
+
+    @Test
+    void whenBracesAreSingle_thenTheyAreLiteralText() {
+        assertEquals("{a} }} b", CompiledTemplate.compile("{a} }} {{x}}").render(Map.of("x", "b")));
+    }
+}
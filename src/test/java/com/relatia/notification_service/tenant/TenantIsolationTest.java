@@ -0,0 +1,273 @@
+package com.relatia.notification_service.tenant;
+
+import com.relatia.notification_service.NotificationServiceApplication;
+import com.relatia.notification_service.config.NotificationProperties;
+import com.relatia.notification_service.config.TestConfig;
+import com.relatia.notification_service.delivery.DeliveryOutbox;
+import com.relatia.notification_service.exception.BadRequestException;
+import com.relatia.notification_service.exception.ResourceNotFoundException;
+import com.relatia.notification_service.idempotency.IdempotencyKeyRepository;
+import com.relatia.notification_service.idempotency.IdempotencyStore;
+import com.relatia.notification_service.notification.*;
+import com.relatia.notification_service.retention.NotificationRetentionPurger;
+import com.relatia.notification_service.retention.NotificationRetentionRepository;
+import com.relatia.notification_service.template.NotificationTemplateRepository;
+import com.relatia.notification_service.template.NotificationTemplateRequest;
+import com.relatia.notification_service.template.NotificationTemplateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service for three tenants on their own database: the default tenant and "globex"
+ * share the default schema, "acme" has a schema of its own. Each step commits in a transaction of
+ * its tenant, as it would when serving a request.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@ContextConfiguration(classes = {NotificationServiceApplication.class, TestConfig.class})
+@Import({TenantRegistry.class, TenantSchemaConfig.class, DeliveryOutbox.class})
+@EnableConfigurationProperties(NotificationProperties.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenancy;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "notification.tenancy.tenants=globex",
+        "notification.tenancy.schemas.acme=tenant_acme"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TenantIsolationTest {
+
+    private static final String GLOBEX = "globex";
+    private static final String ACME = "acme";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private DeliveryOutbox deliveryOutbox;
+
+    @Autowired
+    private IdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private NotificationRetentionRepository retentionRepository;
+
+    @Autowired
+    private NotificationTemplateRepository templateRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Autowired
+    private NotificationProperties properties;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TransactionTemplate transactionTemplate;
+    private NotificationTemplateService templateService;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        templateService = new NotificationTemplateService(templateRepository, properties, meterRegistry);
+        notificationService = new NotificationService(notificationRepository, notificationMapper, properties,
+                new NotificationBatchWriter(entityManager, deliveryOutbox),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new UnreadCountCache(properties, meterRegistry), eventPublisher, deliveryOutbox,
+                new NotificationCoalescer(notificationRepository, properties, meterRegistry),
+                new RecipientRateLimiter(properties, meterRegistry),
+                new NotificationMetrics(meterRegistry), templateService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String tenantId : tenantRegistry.tenantIds()) {
+            as(tenantId, () -> {
+                entityManager.createNativeQuery("delete from notification_deliveries").executeUpdate();
+                entityManager.createNativeQuery("delete from idempotency_keys").executeUpdate();
+                entityManager.createNativeQuery("delete from notifications_archive").executeUpdate();
+                entityManager.createNativeQuery("delete from notification_templates").executeUpdate();
+                return entityManager.createNativeQuery("delete from notifications").executeUpdate();
+            });
+        }
+    }
+
+    @Test
+    void whenTenantsShareRecipientIds_thenEachSeesOnlyItsOwnNotifications() {
+        // given
+        Long defaultId = as(TenantContext.DEFAULT_TENANT, () -> create(7L).getId());
+        as(TenantContext.DEFAULT_TENANT, () -> create(7L));
+        Long globexId = as(GLOBEX, () -> create(7L).getId());
+        as(ACME, () -> create(7L));
+
+        // when
+        int markedRead = as(GLOBEX, () -> notificationService.markAllAsRead(7L));
+
+        // then
+        assertEquals(1, markedRead);
+        assertEquals(2, as(TenantContext.DEFAULT_TENANT, () -> notificationService.getUnreadCount(7L)));
+        assertEquals(0, as(GLOBEX, () -> notificationService.getUnreadCount(7L)));
+        assertEquals(1, as(ACME, () -> notificationService.getUnreadCount(7L)));
+        assertThat(as(GLOBEX, () -> notificationService.getNotificationsByRecipientId(7L)))
+                .extracting(NotificationResponse::getId).containsExactly(globexId);
+        assertThrows(ResourceNotFoundException.class,
+                () -> as(GLOBEX, () -> notificationService.getNotificationById(defaultId)));
+
+        // rows of the default schema carry their tenant; acme's rows live in its own schema
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForList("select tenant_id from notifications", String.class))
+                .containsExactlyInAnyOrder(TenantContext.DEFAULT_TENANT, TenantContext.DEFAULT_TENANT, GLOBEX);
+        assertThat(jdbcTemplate.queryForList("select tenant_id from \"tenant_acme\".notifications", String.class))
+                .containsExactly(ACME);
+    }
+
+    @Test
+    void whenTenantsUseTheSameIdempotencyKey_thenEachGetsItsOwnNotification() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(keyRepository, notificationRepository, notificationMapper,
+                tenantRegistry, transactionManager, properties, new SimpleMeterRegistry());
+
+        // when
+        Long defaultId = TenantContext.callAs(TenantContext.DEFAULT_TENANT,
+                () -> store.createOnce("order-42", () -> create(7L)).getId());
+        Long globexId = TenantContext.callAs(GLOBEX, () -> store.createOnce("order-42", () -> create(7L)).getId());
+        Long globexRetry = TenantContext.callAs(GLOBEX, () -> store.createOnce("order-42", () -> create(7L)).getId());
+
+        // then
+        assertNotEquals(defaultId, globexId);
+        assertEquals(globexId, globexRetry);
+        assertEquals(1, as(GLOBEX, () -> notificationService.getCountByRecipientId(7L)));
+    }
+
+    @Test
+    void whenNotificationsAreCreated_thenTheirDeliveriesAreQueuedInTheTenantsPartition() {
+        // when
+        as(TenantContext.DEFAULT_TENANT, () -> create(7L));
+        as(GLOBEX, () -> create(7L));
+        as(ACME, () -> create(7L));
+
+        // then
+        assertThat(tenantRegistry.partitions()).containsExactly(TenantContext.ROOT, ACME);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from notification_deliveries", Long.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from \"tenant_acme\".notification_deliveries", Long.class));
+    }
+
+    @Test
+    void whenPurging_thenEveryTenantIsPurgedAndArchivedUnderItsTenant() {
+        // given
+        for (String tenantId : tenantRegistry.tenantIds()) {
+            as(tenantId, () -> create(7L));
+            as(tenantId, () -> entityManager.createNativeQuery(
+                    "update notifications set is_read = true, created_at = dateadd(day, -120, current_timestamp)")
+                    .executeUpdate());
+        }
+        NotificationRetentionPurger purger = new NotificationRetentionPurger(retentionRepository, tenantRegistry,
+                transactionManager, eventPublisher, properties, new SimpleMeterRegistry());
+
+        // when
+        long removed = purger.purge().removed();
+
+        // then
+        assertEquals(3, removed);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForList("select tenant_id from notifications_archive", String.class))
+                .containsExactlyInAnyOrder(TenantContext.DEFAULT_TENANT, GLOBEX);
+        assertThat(jdbcTemplate.queryForList("select tenant_id from \"tenant_acme\".notifications_archive", String.class))
+                .containsExactly(ACME);
+    }
+
+    @Test
+    void whenTenantsSaveTheSameTemplateId_thenEachRendersItsOwnTemplate() {
+        // given
+        as(TenantContext.DEFAULT_TENANT, () -> templateService.saveTemplate("welcome", template("Welcome to Initech")));
+        as(GLOBEX, () -> templateService.saveTemplate("welcome", template("Welcome to Globex")));
+        as(ACME, () -> templateService.saveTemplate("welcome", template("Welcome to Acme")));
+
+        // when
+        String defaultTitle = as(TenantContext.DEFAULT_TENANT, () -> createFromTemplate("welcome").getTitle());
+        String globexTitle = as(GLOBEX, () -> createFromTemplate("welcome").getTitle());
+        String acmeTitle = as(ACME, () -> createFromTemplate("welcome").getTitle());
+        as(ACME, () -> {
+            templateService.deleteTemplate("welcome");
+            return null;
+        });
+
+        // then
+        assertEquals("Welcome to Initech", defaultTitle);
+        assertEquals("Welcome to Globex", globexTitle);
+        assertEquals("Welcome to Acme", acmeTitle);
+        assertThrows(BadRequestException.class, () -> as(ACME, () -> createFromTemplate("welcome")));
+        assertEquals("Welcome to Globex", as(GLOBEX, () -> templateService.getTemplate("welcome").getTitle()));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForList("select tenant_id from notification_templates", String.class))
+                .containsExactlyInAnyOrder(TenantContext.DEFAULT_TENANT, GLOBEX);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from \"tenant_acme\".notification_templates", Long.class));
+    }
+
+    private NotificationResponse createFromTemplate(String templateId) {
+        NotificationRequest request = new NotificationRequest();
+        request.setTemplateId(templateId);
+        request.setRecipientId(7L);
+        request.setType(Notification.NotificationType.PUSH);
+        return notificationService.createNotification(request);
+    }
+
+    private static NotificationTemplateRequest template(String title) {
+        NotificationTemplateRequest request = new NotificationTemplateRequest();
+        request.setTitle(title);
+        request.setMessage("Glad to have you on board");
+        return request;
+    }
+
+    private NotificationResponse create(Long recipientId) {
+        NotificationRequest request = new NotificationRequest();
+        request.setTitle("Hello");
+        request.setMessage("Tenant-scoped");
+        request.setRecipientId(recipientId);
+        request.setType(Notification.NotificationType.PUSH);
+        return notificationService.createNotification(request);
+    }
+
+    private <T> T as(String tenantId, Supplier<T> work) {
+        return TenantContext.callAs(tenantId, () -> transactionTemplate.execute(status -> work.get()));
+    }
+}